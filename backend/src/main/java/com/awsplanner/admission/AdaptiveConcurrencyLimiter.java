@@ -0,0 +1,156 @@
+package com.awsplanner.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of TCP Vegas.
+ *
+ * Requests are admitted while fewer than {@code limit} are in flight. Latency
+ * samples are aggregated per window; at the end of a window the average latency is
+ * compared with the lowest latency seen (the no-queueing baseline) to estimate how
+ * many requests are queueing: {@code queue = limit * (1 - minRtt / rtt)}. Below
+ * {@code alpha} the limit grows additively, above {@code beta} it shrinks additively,
+ * and a window with failed requests cuts it multiplicatively. Windows where the
+ * limit was not approached leave it unchanged, so idle periods cannot inflate it.
+ *
+ * The request path is lock-free: admission is a CAS on the in-flight counter and
+ * samples go to striped adders; one thread per window recomputes the limit.
+ */
+public final class AdaptiveConcurrencyLimiter {
+    
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MIN_RTT_RESET_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong nextUpdate;
+    
+    private volatile double limit;
+    private volatile long minRttResetAt;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System.nanoTime());
+    }
+    
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long now) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.nextUpdate = new AtomicLong(now + WINDOW_NANOS);
+        this.minRttResetAt = now + MIN_RTT_RESET_NANOS;
+    }
+    
+    /**
+     * Admit a request if the limit allows; every admitted request must be released
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Release an admitted request with its latency; dropped marks a failure that
+     * signals overload (e.g. a server error or timeout)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        release(rttNanos, dropped, System.nanoTime());
+    }
+    
+    void release(long rttNanos, boolean dropped, long now) {
+        inFlight.decrementAndGet();
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+        if (dropped) {
+            windowDrops.increment();
+        }
+        minRttNanos.accumulateAndGet(rttNanos, Math::min);
+        
+        long due = nextUpdate.get();
+        if (now - due >= 0 && nextUpdate.compareAndSet(due, now + WINDOW_NANOS)) {
+            updateLimit(now);
+        }
+    }
+    
+    /**
+     * Release an admitted request without a latency sample, for work whose duration
+     * depends on its size rather than on queueing (e.g. a streamed batch)
+     */
+    public void releaseUnsampled(boolean dropped) {
+        inFlight.decrementAndGet();
+        if (dropped) {
+            windowDrops.increment();
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * Lowest latency in the current baseline period, or 0 before the first sample
+     */
+    public long getMinRttNanos() {
+        long minRtt = minRttNanos.get();
+        return minRtt == Long.MAX_VALUE ? 0 : minRtt;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private void updateLimit(long now) {
+        long samples = windowSamples.sumThenReset();
+        long totalRtt = windowRttNanos.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+        
+        double rtt = (double) totalRtt / samples;
+        double minRtt = Math.min(minRttNanos.get(), rtt);
+        if (now - minRttResetAt >= 0) {
+            // Let the baseline follow lasting changes in service time
+            minRttNanos.set((long) rtt);
+            minRttResetAt = now + MIN_RTT_RESET_NANOS;
+        }
+        
+        double current = limit;
+        double next = current;
+        if (drops > 0) {
+            next = current * BACKOFF_RATIO;
+        } else if (maxInFlight * 2 >= current) {
+            double queue = current * (1.0 - minRtt / rtt);
+            double step = Math.max(1.0, Math.log10(current));
+            if (queue < 3 * step) {
+                next = current + step;
+            } else if (queue > 6 * step) {
+                next = current - step;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
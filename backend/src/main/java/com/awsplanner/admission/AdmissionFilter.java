@@ -0,0 +1,155 @@
+package com.awsplanner.admission;
+
+import com.awsplanner.metrics.MetricsSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for the recommendation endpoints.
+ *
+ * A request first takes a token from its client's bucket ({@link ClientRateLimiter})
+ * and is rejected with 429 if the client is over its rate. It then needs a slot
+ * under the adaptive concurrency limit ({@link AdaptiveConcurrencyLimiter}) and is
+ * shed with 503 if the server is saturated. Both rejections are immediate and carry
+ * Retry-After, so excess load never queues in front of the pipeline and the worker
+ * threads it would hold stay available to other endpoints such as health checks.
+ */
+public class AdmissionFilter extends OncePerRequestFilter implements MetricsSource {
+    
+    private static final String BATCH_SUFFIX = "/batch";
+    
+    private static final String LIMIT = "admission_concurrency_limit";
+    private static final String IN_FLIGHT = "admission_in_flight";
+    private static final String MIN_RTT = "admission_min_rtt_seconds";
+    private static final String REJECTED = "admission_rejected_total";
+    private static final String CLIENTS = "admission_tracked_clients";
+    
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ClientRateLimiter clientRateLimiter;
+    private final String clientHeader;
+    private final int trustedProxies;
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    
+    /**
+     * @param clientHeader   address list header appended to by the proxies in front of
+     *                       the server (e.g. X-Forwarded-For), or null for the remote address
+     * @param trustedProxies proxies that append to the header; the client is the address
+     *                       the outermost one appended, this many from the right, since
+     *                       everything left of it came from the client
+     */
+    public AdmissionFilter(AdaptiveConcurrencyLimiter concurrencyLimiter, ClientRateLimiter clientRateLimiter,
+                           String clientHeader, int trustedProxies) {
+        if (trustedProxies < 1) {
+            throw new IllegalArgumentException("Trusted proxies must be positive");
+        }
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientRateLimiter = clientRateLimiter;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.trustedProxies = trustedProxies;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response); // CORS preflights do not reach the pipeline
+            return;
+        }
+        
+        long start = System.nanoTime();
+        long wait = clientRateLimiter.tryAcquire(clientOf(request), start);
+        if (wait > 0) {
+            throttled.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait,
+                   "Too many requests from this client, please retry later");
+            return;
+        }
+        
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1),
+                   "Server is overloaded, please retry shortly");
+            return;
+        }
+        
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.getRequestURI().endsWith(BATCH_SUFFIX)) {
+                // A batch runs as long as its input is; its latency says nothing about queueing
+                concurrencyLimiter.releaseUnsampled(failed);
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+    
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP ").append(LIMIT).append(" Adaptive concurrency limit of the recommendation endpoints\n");
+        out.append("# TYPE ").append(LIMIT).append(" gauge\n");
+        out.append(LIMIT).append(' ').append(concurrencyLimiter.getLimit()).append('\n');
+        
+        out.append("# HELP ").append(IN_FLIGHT).append(" Recommendation requests in flight\n");
+        out.append("# TYPE ").append(IN_FLIGHT).append(" gauge\n");
+        out.append(IN_FLIGHT).append(' ').append(concurrencyLimiter.getInFlight()).append('\n');
+        
+        out.append("# HELP ").append(MIN_RTT).append(" Baseline latency used by the concurrency limiter\n");
+        out.append("# TYPE ").append(MIN_RTT).append(" gauge\n");
+        out.append(MIN_RTT).append(' ').append(concurrencyLimiter.getMinRttNanos() / 1e9).append('\n');
+        
+        out.append("# HELP ").append(REJECTED).append(" Recommendation requests rejected by admission control\n");
+        out.append("# TYPE ").append(REJECTED).append(" counter\n");
+        out.append(REJECTED).append("{reason=\"overload\"} ").append(shed.sum()).append('\n');
+        out.append(REJECTED).append("{reason=\"client_rate\"} ").append(throttled.sum()).append('\n');
+        
+        out.append("# HELP ").append(CLIENTS).append(" Clients with a rate limiting bucket\n");
+        out.append("# TYPE ").append(CLIENTS).append(" gauge\n");
+        out.append(CLIENTS).append(' ').append(clientRateLimiter.getTrackedClients()).append('\n');
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null) {
+                String[] addresses = value.split(",");
+                if (addresses.length >= trustedProxies) {
+                    String client = addresses[addresses.length - trustedProxies].trim();
+                    if (!client.isEmpty()) {
+                        return client;
+                    }
+                }
+            }
+        }
+        // Without a usable header entry the request did not come through the proxies
+        return request.getRemoteAddr();
+    }
+    
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos,
+                               String message) throws IOException {
+        long seconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        byte[] body = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
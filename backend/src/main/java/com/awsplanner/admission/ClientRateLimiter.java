@@ -0,0 +1,96 @@
+package com.awsplanner.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, implemented as the generic cell rate algorithm.
+ *
+ * Each client's bucket is a single theoretical arrival time (TAT) in an
+ * {@link AtomicLong}: a request is admitted if advancing the TAT by one emission
+ * interval keeps it within {@code burst} intervals of now, and the advance is a CAS.
+ * Buckets live in a {@link ConcurrentHashMap}, whose bins are locked independently,
+ * so the request path takes no shared lock. A bucket whose TAT is in the past is
+ * full, which is the same as having no bucket, so idle clients are dropped when the
+ * map grows past its bound; if every tracked client is active, new clients share
+ * one overflow bucket, which is kept outside the map so no client name can reach it.
+ */
+public final class ClientRateLimiter {
+    
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE); // Starts full
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    
+    /**
+     * @param ratePerSecond sustained requests per second per client
+     * @param burst         requests a client may send at once after being idle
+     * @param maxClients    clients tracked before idle ones are dropped
+     */
+    public ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        if (ratePerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Client rate, burst and max clients must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+    }
+    
+    /**
+     * Take a token for a client: 0 if the request is admitted, otherwise the
+     * nanoseconds until it would be
+     */
+    public long tryAcquire(String client, long now) {
+        AtomicLong bucket = bucketFor(client, now);
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private AtomicLong bucketFor(String client, long now) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            sweep(now);
+            if (buckets.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+    
+    /**
+     * Drop buckets that have refilled completely; one thread sweeps at a time
+     */
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
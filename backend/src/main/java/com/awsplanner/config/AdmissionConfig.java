@@ -0,0 +1,43 @@
+package com.awsplanner.config;
+
+import com.awsplanner.admission.AdaptiveConcurrencyLimiter;
+import com.awsplanner.admission.AdmissionFilter;
+import com.awsplanner.admission.ClientRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Admission control for the recommendation endpoints; other endpoints (health,
+ * metrics, catalog, feedback) are not limited
+ */
+@Configuration
+public class AdmissionConfig {
+    
+    @Bean
+    public AdmissionFilter admissionFilter(
+            @Value("${admission.initial-limit:20}") int initialLimit,
+            @Value("${admission.min-limit:4}") int minLimit,
+            @Value("${admission.max-limit:100}") int maxLimit,
+            @Value("${admission.client-rate:50}") double clientRate,
+            @Value("${admission.client-burst:100}") int clientBurst,
+            @Value("${admission.max-clients:100000}") int maxClients,
+            @Value("${admission.client-header:}") String clientHeader,
+            @Value("${admission.trusted-proxies:1}") int trustedProxies) {
+        return new AdmissionFilter(
+            new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit),
+            new ClientRateLimiter(clientRate, clientBurst, maxClients),
+            clientHeader, trustedProxies);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilterRegistration(
+            AdmissionFilter admissionFilter,
+            @Value("${admission.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(admissionFilter);
+        registration.addUrlPatterns("/api/recommend", "/api/recommend/*");
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
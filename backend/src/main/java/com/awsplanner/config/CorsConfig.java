@@ -25,7 +25,7 @@ public class CorsConfig {
             "http://localhost:3000"
         ));
         config.setAllowedHeaders(Arrays.asList("*"));
-        config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         
         source.registerCorsConfiguration("/api/**", config);
         return new CorsFilter(source);
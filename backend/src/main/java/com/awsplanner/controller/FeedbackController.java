@@ -1,12 +1,17 @@
 package com.awsplanner.controller;
 
 import com.awsplanner.model.Feedback;
+import com.awsplanner.service.FeedbackService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,20 +22,75 @@ import java.util.Map;
 @RequestMapping("/api")
 public class FeedbackController {
 
-    private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
+    private static final int MAX_PAGE_SIZE = 500;
 
+    @Autowired
+    private FeedbackService feedbackService;
+
+    @Value("${feedback.admin-token:}")
+    private String adminToken; // Listing is disabled while empty
+
+    /**
+     * Queue feedback for persistence
+     * POST /api/feedback
+     *
+     * Returns 202 once the feedback is queued, or 429 when the queue is full.
+     */
     @PostMapping("/feedback")
     public ResponseEntity<?> submitFeedback(@Valid @RequestBody Feedback feedback) {
-        // In a real app, we would save this to a database
-        // For now, we'll log it for admin review
-        logger.info("New Feedback Received for CloudCostLens:");
-        logger.info("Type: {}", feedback.getType());
-        logger.info("From: {} ({})", feedback.getName(), feedback.getEmail());
-        logger.info("Message: {}", feedback.getMessage());
-        
+        if (!feedbackService.submit(feedback)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too much feedback is being submitted, please retry shortly");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+        }
+
         Map<String, String> response = new HashMap<>();
         response.put("message", "Thank you for your feedback!");
-        
-        return ResponseEntity.ok(response);
+
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Stored feedback, oldest first
+     * GET /api/feedback?afterId=0&limit=50
+     *
+     * Entries hold submitters' names and email addresses, so listing requires
+     * "Authorization: Bearer <feedback.admin-token>" and is off (404) without a token.
+     */
+    @GetMapping("/feedback")
+    public ResponseEntity<?> listFeedback(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                          String authorization,
+                                          @RequestParam(defaultValue = "0") long afterId,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        if (adminToken == null || adminToken.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isAdmin(authorization)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "A valid admin token is required");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .body(error);
+        }
+        if (afterId < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "afterId must not be negative and limit must be between 1 and " + MAX_PAGE_SIZE);
+            return ResponseEntity.badRequest().body(error);
+        }
+        return ResponseEntity.ok(feedbackService.list(afterId, limit));
+    }
+
+    /**
+     * Whether an Authorization header carries the admin token; compared in constant time
+     */
+    private boolean isAdmin(String authorization) {
+        String prefix = "Bearer ";
+        if (authorization == null || !authorization.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return false;
+        }
+        byte[] presented = authorization.substring(prefix.length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, adminToken.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,38 @@
+package com.awsplanner.controller;
+
+import com.awsplanner.metrics.MetricsSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Exposes application metrics in the Prometheus text format
+ */
+@RestController
+@RequestMapping("/api")
+public class MetricsController {
+    
+    private static final MediaType PROMETHEUS_TEXT =
+        MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+    
+    @Autowired
+    private List<MetricsSource> metricsSources;
+    
+    /**
+     * Prometheus scrape endpoint
+     * GET /api/metrics
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        StringBuilder out = new StringBuilder();
+        for (MetricsSource source : metricsSources) {
+            source.writePrometheus(out);
+        }
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(out.toString());
+    }
+}
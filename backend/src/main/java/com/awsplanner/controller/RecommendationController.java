@@ -1,19 +1,44 @@
 package com.awsplanner.controller;
 
+import com.awsplanner.metrics.PipelineMetrics;
+import com.awsplanner.metrics.PipelineTrace;
 import com.awsplanner.model.*;
-import com.awsplanner.repository.ServiceKnowledgeBase;
-import com.awsplanner.service.CostEstimationService;
+import com.awsplanner.service.BatchRecommendationService;
+import com.awsplanner.service.CachedResponse;
+import com.awsplanner.service.CatalogResponseCache;
 import com.awsplanner.service.DecisionEngineService;
-import com.awsplanner.service.RequirementService;
+import com.awsplanner.service.FrontierService;
+import com.awsplanner.service.ParetoFrontier;
+import com.awsplanner.service.ProjectionService;
+import com.awsplanner.service.RecommendationCache;
+import com.awsplanner.service.RecommendationService;
+import com.awsplanner.service.RegionalCostService;
+import com.awsplanner.service.SimulationService;
+import com.awsplanner.service.SweepService;
+import com.awsplanner.service.WhatIfService;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * REST API Controller for AWS recommendation system
@@ -22,87 +47,270 @@ import java.util.Map;
 @RequestMapping("/api")
 public class RecommendationController {
     
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationController.class);
+    
+    private static final String SERVER_TIMING = "Server-Timing";
+    private static final String CACHE_HIT_TIMING = "cache;desc=\"hit\"";
+    private static final Pattern QVALUE = Pattern.compile("0(\\.\\d{0,3})?|1(\\.0{0,3})?"); // RFC 9110 section 12.4.2
+    // Request fields of type Level, as named in error messages
+    private static final Map<String, String> LEVEL_FIELDS = Map.of(
+        "traffic", "traffic level",
+        "operationalEffort", "operational effort");
+    
     @Autowired
-    private RequirementService requirementService;
+    private PipelineMetrics pipelineMetrics;
     
     @Autowired
-    private DecisionEngineService decisionEngine;
+    private RecommendationService recommendationService;
+    
+    @Autowired
+    private RecommendationCache recommendationCache;
+    
+    @Autowired
+    private BatchRecommendationService batchRecommendationService;
+    
+    @Autowired
+    private SweepService sweepService;
+    
+    @Autowired
+    private FrontierService frontierService;
     
     @Autowired
-    private CostEstimationService costEstimation;
+    private RegionalCostService regionalCostService;
     
     @Autowired
-    private ServiceKnowledgeBase knowledgeBase;
+    private ProjectionService projectionService;
+    
+    @Autowired
+    private SimulationService simulationService;
+    
+    @Autowired
+    private WhatIfService whatIfService;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
     
     /**
      * Main endpoint: Get AWS service recommendations
      * POST /api/recommend
+     * 
+     * Responses are cached per normalized requirement and carry a strong ETag;
+     * a matching If-None-Match yields 304 Not Modified without a body.
      */
     @PostMapping("/recommend")
-    public ResponseEntity<?> getRecommendation(@Valid @RequestBody UserRequirement requirement) {
+    public ResponseEntity<?> getRecommendation(@Valid @RequestBody UserRequirement requirement,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        PipelineTrace trace = pipelineMetrics.newTrace();
         try {
-            // Step 1: Validate requirements
-            requirementService.validateRequirements(requirement);
-            
-            // Step 2: Get recommended services from decision engine
-            List<AwsService> selectedServices = decisionEngine.getRecommendedServices(requirement);
+            RecommendationCache.Lookup lookup =
+                recommendationCache.get(requirement, () -> recommendationService.recommend(requirement, trace));
+            CachedResponse response = lookup.getResponse();
+            String serverTiming = lookup.isHit() ? CACHE_HIT_TIMING : trace.toServerTiming();
             
-            // Step 3: Calculate costs
-            List<RecommendedService> recommendedServices = 
-                costEstimation.createRecommendedServices(selectedServices, requirement);
-            
-            double totalCost = costEstimation.calculateMonthlyCost(selectedServices, requirement);
-            boolean withinBudget = costEstimation.validateBudget(totalCost, requirement.getMonthlyBudget());
-            
-            // Step 4: Generate alternatives
-            List<AlternativeArchitecture> alternatives = 
-                costEstimation.suggestAlternatives(selectedServices, requirement);
-             
-            // Step 5: Generate optional upgrades
-            List<String> optionalUpgrades = 
-                costEstimation.generateUpgrades(totalCost, requirement.getMonthlyBudget(), requirement);
-            
-            // Step 6: Build response
-            Recommendation recommendation = new Recommendation();
-            recommendation.setArchitecture(recommendedServices);
-            recommendation.setTotalCost(totalCost);
-            recommendation.setBudget(requirement.getMonthlyBudget());
-            recommendation.setWithinBudget(withinBudget);
-            recommendation.setAlternatives(alternatives);
-            recommendation.setOptionalUpgrades(optionalUpgrades);
-            
-            if (!withinBudget) {
-                recommendation.setMessage(
-                    "Warning: Recommended architecture exceeds budget by $" + 
-                    Math.round((totalCost - requirement.getMonthlyBudget()) * 100.0) / 100.0 + 
-                    ". Consider the budget-optimized alternative."
-                );
-            } else {
-                recommendation.setMessage("Architecture fits within your budget!");
+            if (response.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(response.getEtag())
+                    .header(SERVER_TIMING, serverTiming)
+                    .build();
             }
-            
-            return ResponseEntity.ok(recommendation);
-            
+            return ResponseEntity.ok()
+                .eTag(response.getEtag())
+                .header(SERVER_TIMING, serverTiming)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getBody());
+        
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
-            
+            return ResponseEntity.badRequest()
+                .header(SERVER_TIMING, trace.toServerTiming())
+                .body(error);
+        
         } catch (Exception e) {
+            logger.error("Recommendation pipeline failed for {}", requirement, e);
             Map<String, String> error = new HashMap<>();
             error.put("error", "Internal server error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .header(SERVER_TIMING, trace.toServerTiming())
+                .body(error);
+        }
+    }
+    
+    /**
+     * Batch endpoint: recommendations for many requirements in one call
+     * POST /api/recommend/batch
+     * 
+     * Accepts a JSON array or NDJSON stream of requirements and streams back one
+     * NDJSON line per requirement as soon as it is evaluated. Invalid requirements
+     * produce an error line without failing the rest of the batch.
+     */
+    @PostMapping(value = "/recommend/batch",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void getBatchRecommendations(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        batchRecommendationService.process(request.getInputStream(), response.getOutputStream());
+    }
+    
+    /**
+     * Sensitivity sweep: total cost over budget x storage ranges
+     * POST /api/recommend/sweep
+     */
+    @PostMapping("/recommend/sweep")
+    public ResponseEntity<?> getSweep(@Valid @RequestBody SweepRequest request) {
+        try {
+            return ResponseEntity.ok(sweepService.sweep(request));
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Pareto frontier of monthly cost vs. fit score
+     * POST /api/recommend/frontier
+     */
+    @PostMapping("/recommend/frontier")
+    public ResponseEntity<?> getFrontier(@Valid @RequestBody UserRequirement requirement) {
+        try {
+            return ResponseEntity.ok(frontierService.frontier(requirement));
+        
+        } catch (ParetoFrontier.TooLargeException e) {
+            // A valid request whose result is larger than the server is configured to build
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(error);
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Recommended architecture priced in every region, cheapest first
+     * POST /api/recommend/regions
+     */
+    @PostMapping("/recommend/regions")
+    public ResponseEntity<?> getRegionCosts(@Valid @RequestBody UserRequirement requirement) {
+        try {
+            return ResponseEntity.ok(regionalCostService.compareRegions(requirement));
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Month-by-month cost projection under traffic and storage growth
+     * POST /api/recommend/projection
+     */
+    @PostMapping("/recommend/projection")
+    public ResponseEntity<?> getProjection(@Valid @RequestBody ProjectionRequest request) {
+        try {
+            return ResponseEntity.ok(projectionService.project(request));
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Monte Carlo distribution of monthly cost under uncertain traffic and storage
+     * POST /api/recommend/simulation
+     */
+    @PostMapping("/recommend/simulation")
+    public ResponseEntity<?> getSimulation(@Valid @RequestBody SimulationRequest request) {
+        try {
+            return ResponseEntity.ok(simulationService.simulate(request));
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Start a what-if session with a complete requirement
+     * POST /api/recommend/sessions
+     */
+    @PostMapping("/recommend/sessions")
+    public ResponseEntity<?> createWhatIfSession(@Valid @RequestBody UserRequirement requirement) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(whatIfService.create(requirement));
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Change some fields of a what-if session's requirement; only the stages that
+     * depend on them are recomputed
+     * PATCH /api/recommend/sessions/{id}
+     */
+    @PatchMapping("/recommend/sessions/{id}")
+    public ResponseEntity<?> updateWhatIfSession(@PathVariable String id, @RequestBody UserRequirement change) {
+        try {
+            return ResponseEntity.ok(whatIfService.update(id, change));
+        
+        } catch (NoSuchElementException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * End a what-if session
+     * DELETE /api/recommend/sessions/{id}
+     */
+    @DeleteMapping("/recommend/sessions/{id}")
+    public ResponseEntity<?> deleteWhatIfSession(@PathVariable String id) {
+        try {
+            whatIfService.delete(id);
+            return ResponseEntity.noContent().build();
+        
+        } catch (NoSuchElementException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
         }
     }
     
     /**
      * Get all supported AWS services
      * GET /api/services
+     * 
+     * Served from bytes serialized once per catalog version. Requests with ?v= set
+     * to the current ETag value are content-addressed and cacheable as immutable.
      */
     @GetMapping("/services")
-    public ResponseEntity<List<AwsService>> getAllServices() {
-        List<AwsService> services = knowledgeBase.getAllServices();
-        return ResponseEntity.ok(services);
+    public ResponseEntity<byte[]> getAllServices(@RequestParam(value = "v", required = false) String version,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                 String acceptEncoding) {
+        return catalogResponse(catalogResponseCache.getServices(), version, ifNoneMatch, acceptEncoding);
     }
     
     /**
@@ -110,15 +318,40 @@ public class RecommendationController {
      * GET /api/use-cases
      */
     @GetMapping("/use-cases")
-    public ResponseEntity<Map<String, String>> getUseCases() {
-        Map<String, String> useCases = new HashMap<>();
-        useCases.put("static-website", "Static Website");
-        useCases.put("backend-api", "Backend API");
-        useCases.put("full-stack", "Full-Stack Web Application");
-        useCases.put("file-storage", "File Storage System");
-        useCases.put("event-driven", "Event-Driven Application");
+    public ResponseEntity<byte[]> getUseCases(@RequestParam(value = "v", required = false) String version,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding) {
+        return catalogResponse(catalogResponseCache.getUseCases(), version, ifNoneMatch, acceptEncoding);
+    }
+    
+    /**
+     * Scoring policies that requests can select with "policy"
+     * GET /api/scoring-policies
+     */
+    @GetMapping("/scoring-policies")
+    public ResponseEntity<ScoringPolicies> getScoringPolicies() {
+        return ResponseEntity.ok(new ScoringPolicies(decisionEngine.getDefaultPolicyName(), decisionEngine.getPolicies()));
+    }
+    
+    /**
+     * Report invalid enum values (application type, levels) the same way as
+     * business validation errors instead of a generic 400 page, naming the
+     * field for levels since several fields share that type
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleUnreadableRequest(HttpMessageNotReadableException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
         
-        return ResponseEntity.ok(useCases);
+        Map<String, String> error = new HashMap<>();
+        if (cause instanceof IllegalArgumentException) {
+            String levelField = LEVEL_FIELDS.get(fieldOf(e));
+            error.put("error", levelField != null ? Level.invalidMessage(levelField) : cause.getMessage());
+        } else {
+            error.put("error", "Malformed request body");
+        }
+        return ResponseEntity.badRequest().body(error);
     }
     
     /**
@@ -134,4 +367,84 @@ public class RecommendationController {
         
         return ResponseEntity.ok(health);
     }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Name of the JSON property that could not be read, or null
+     */
+    private static String fieldOf(HttpMessageNotReadableException e) {
+        if (e.getCause() instanceof JsonMappingException mapping) {
+            List<JsonMappingException.Reference> path = mapping.getPath();
+            if (!path.isEmpty()) {
+                return path.get(path.size() - 1).getFieldName();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Serve a pre-serialized catalog response, gzipped if the client accepts it.
+     * A request naming the current representation in ?v= may be cached forever;
+     * any other must revalidate with the ETag.
+     */
+    private ResponseEntity<byte[]> catalogResponse(CachedResponse response, String version,
+                                                   String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = response.hasGzip() && acceptsGzip(acceptEncoding);
+        boolean notModified = gzip ? response.matchesGzip(ifNoneMatch) : response.matches(ifNoneMatch);
+        boolean immutable = version != null && response.getEtag().equals("\"" + version + "\"");
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+            .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+            .eTag(gzip ? response.getGzipEtag() : response.getEtag())
+            .cacheControl(immutable
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        
+        if (notModified) {
+            return builder.build();
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON)
+            .body(gzip ? response.getGzipBody() : response.getBody());
+    }
+    
+    /**
+     * Whether an Accept-Encoding header allows gzip. An explicit gzip entry wins
+     * over *, and a q=0 weight, or one that is not a valid qvalue, rules it out.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1.0;
+        double any = -1.0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = Math.max(gzip, quality(parts));
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality(parts));
+            }
+        }
+        return gzip >= 0.0 ? gzip > 0.0 : any > 0.0;
+    }
+    
+    /**
+     * Weight of an Accept-Encoding entry: 1 without a q parameter, 0 for a malformed one
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() >= 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                String value = param.substring(2).trim();
+                return QVALUE.matcher(value).matches() ? Double.parseDouble(value) : 0.0;
+            }
+        }
+        return 1.0;
+    }
 }
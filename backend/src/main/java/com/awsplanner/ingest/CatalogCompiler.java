@@ -0,0 +1,89 @@
+package com.awsplanner.ingest;
+
+import com.awsplanner.model.AwsService;
+import com.awsplanner.repository.BinaryCatalog;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line tool that compiles the JSON catalog files into a {@link BinaryCatalog}.
+ * Place the output in {@code catalog.directory}; it takes precedence over JSON there.
+ *
+ * Usage: CatalogCompiler --output DIR|FILE [--services FILE] [--pricing FILE]
+ * (defaults to the bundled catalog files)
+ */
+public class CatalogCompiler {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                usage("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (args.length % 2 != 0 || !options.containsKey("output")) {
+            usage("An output path is required");
+        }
+        
+        Path output = Path.of(options.get("output"));
+        if (Files.isDirectory(output)) {
+            output = output.resolve(BinaryCatalog.FILE_NAME);
+        }
+        
+        new CatalogCompiler().compile(options.get("services"), options.get("pricing"), output);
+    }
+    
+    /**
+     * Read, validate and encode the catalog, then write it to the output file
+     */
+    public BinaryCatalog compile(String servicesFile, String pricingFile, Path output) throws IOException {
+        long start = System.nanoTime();
+        
+        List<AwsService> services = readJson(servicesFile, ServiceKnowledgeBase.SERVICES_FILE,
+            new TypeReference<List<AwsService>>() {});
+        Map<String, Map<String, Double>> pricing = readJson(pricingFile, ServiceKnowledgeBase.PRICING_FILE,
+            new TypeReference<Map<String, Map<String, Double>>>() {});
+        
+        ServiceKnowledgeBase.validateCatalog(services, pricing);
+        BinaryCatalog catalog = BinaryCatalog.encode(services, pricing);
+        catalog.writeTo(output);
+        
+        System.out.printf("Compiled %d services to %s (%d bytes) in %d ms%n",
+            catalog.size(), output, Files.size(output), (System.nanoTime() - start) / 1_000_000);
+        return catalog;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private <T> T readJson(String file, String bundledName, TypeReference<T> type) throws IOException {
+        if (file != null) {
+            try (InputStream in = Files.newInputStream(Path.of(file))) {
+                return objectMapper.readValue(in, type);
+            }
+        }
+        try (InputStream in = CatalogCompiler.class.getClassLoader().getResourceAsStream("data/" + bundledName)) {
+            if (in == null) {
+                throw new IOException("Missing classpath resource data/" + bundledName);
+            }
+            return objectMapper.readValue(in, type);
+        }
+    }
+    
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CatalogCompiler --output DIR|FILE [--services FILE] [--pricing FILE]");
+        System.exit(2);
+    }
+}
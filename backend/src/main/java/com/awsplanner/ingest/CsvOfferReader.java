@@ -0,0 +1,163 @@
+package com.awsplanner.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams an AWS Price List offer file in CSV format.
+ *
+ * The file starts with metadata rows ("OfferCode", ...) followed by a header row
+ * and one row per SKU price dimension with the product attributes inlined. Rows are
+ * read one line at a time, so memory does not depend on the size of the file.
+ */
+public class CsvOfferReader {
+    
+    private final PriceCollector collector;
+    
+    private String offerCode;
+    private long rows;
+    
+    public CsvOfferReader(PriceCollector collector) {
+        this.collector = collector;
+    }
+    
+    /**
+     * Read one offer file, feeding matched prices to the collector
+     */
+    public void read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        
+        String[] header = readHeader(reader);
+        int termType = indexOf(header, "termtype");
+        int unit = indexOf(header, "unit");
+        int startingRange = indexOf(header, "startingrange");
+        int price = indexOf(header, "priceperunit");
+        int currency = indexOf(header, "currency");
+        if (termType < 0 || unit < 0 || price < 0 || currency < 0) {
+            throw new IOException("CSV header is missing price columns");
+        }
+        
+        Map<String, String> attributes = new HashMap<>();
+        List<String> fields = new ArrayList<>(header.length);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            splitLine(line, fields);
+            if (fields.size() < header.length || !"OnDemand".equals(fields.get(termType))) {
+                continue;
+            }
+            rows++;
+            
+            attributes.clear();
+            for (int i = 0; i < header.length; i++) {
+                attributes.put(header[i], fields.get(i));
+            }
+            
+            int[] rules = collector.matchProduct(offerCode, attributes);
+            if (rules.length == 0) {
+                continue;
+            }
+            
+            double pricePerUnit;
+            try {
+                pricePerUnit = Double.parseDouble(fields.get(price));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            String beginRange = startingRange >= 0 ? fields.get(startingRange) : null;
+            for (int rule : rules) {
+                collector.offerPrice(rule, fields.get(unit), beginRange, fields.get(currency), pricePerUnit);
+            }
+        }
+    }
+    
+    public String getOfferCode() {
+        return offerCode;
+    }
+    
+    /**
+     * Number of on-demand rows read
+     */
+    public long getRowCount() {
+        return rows;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Consume metadata rows up to and including the header row, which starts with SKU
+     */
+    private String[] readHeader(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            splitLine(line, fields);
+            if (fields.isEmpty()) {
+                continue;
+            }
+            if ("SKU".equals(fields.get(0))) {
+                String[] header = new String[fields.size()];
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = PriceCollector.normalize(fields.get(i));
+                }
+                return header;
+            }
+            if ("OfferCode".equals(fields.get(0)) && fields.size() > 1) {
+                offerCode = fields.get(1);
+            }
+        }
+        throw new IOException("CSV offer file has no header row");
+    }
+    
+    /**
+     * Split one CSV line into fields, honouring quotes and doubled quote escapes
+     */
+    static void splitLine(String line, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        
+        if (!line.isEmpty()) {
+            fields.add(field.toString());
+        }
+    }
+    
+    private static int indexOf(String[] header, String column) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].equals(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
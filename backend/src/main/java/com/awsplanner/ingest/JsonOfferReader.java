@@ -0,0 +1,195 @@
+package com.awsplanner.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams an AWS Price List offer file in JSON format.
+ *
+ * The file is walked token by token: products are matched as they are read and
+ * only the SKUs some rule wants are kept; in terms, only OnDemand is visited and
+ * every other subtree is skipped without materializing it. The offer files list
+ * products before terms, which this reader relies on.
+ */
+public class JsonOfferReader {
+    
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final PriceCollector collector;
+    
+    private String offerCode;
+    private final Map<String, int[]> matchedSkus = new HashMap<>();
+    
+    public JsonOfferReader(PriceCollector collector) {
+        this.collector = collector;
+    }
+    
+    /**
+     * Read one offer file, feeding matched prices to the collector
+     */
+    public void read(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                
+                if ("offerCode".equals(field)) {
+                    offerCode = parser.getText();
+                } else if ("products".equals(field) && value == JsonToken.START_OBJECT) {
+                    readProducts(parser);
+                } else if ("terms".equals(field) && value == JsonToken.START_OBJECT) {
+                    readTerms(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+    
+    public String getOfferCode() {
+        return offerCode;
+    }
+    
+    /**
+     * Number of SKUs retained for price lookup
+     */
+    public int getMatchedSkuCount() {
+        return matchedSkus.size();
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private void readProducts(JsonParser parser) throws IOException {
+        Map<String, String> attributes = new HashMap<>();
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String sku = parser.getCurrentName();
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            
+            attributes.clear();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                
+                if ("productFamily".equals(field)) {
+                    attributes.put("productfamily", parser.getText());
+                } else if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = PriceCollector.normalize(parser.getCurrentName());
+                        if (parser.nextToken().isScalarValue()) {
+                            attributes.put(name, parser.getText());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            int[] rules = collector.matchProduct(offerCode, attributes);
+            if (rules.length > 0) {
+                matchedSkus.put(sku, rules);
+            }
+        }
+    }
+    
+    private void readTerms(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String termType = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            
+            if ("OnDemand".equals(termType) && value == JsonToken.START_OBJECT) {
+                readOnDemandTerms(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+    
+    private void readOnDemandTerms(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int[] rules = matchedSkus.get(parser.getCurrentName());
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            
+            if (rules == null) {
+                parser.skipChildren();
+                continue;
+            }
+            
+            // One entry per offer term, each with its price dimensions
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    
+                    if ("priceDimensions".equals(field) && value == JsonToken.START_OBJECT) {
+                        readPriceDimensions(parser, rules);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+    
+    private void readPriceDimensions(JsonParser parser, int[] rules) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            
+            String unit = null;
+            String beginRange = null;
+            String currency = null;
+            double price = Double.NaN;
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                
+                if ("unit".equals(field)) {
+                    unit = parser.getText();
+                } else if ("beginRange".equals(field)) {
+                    beginRange = parser.getText();
+                } else if ("pricePerUnit".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String code = parser.getCurrentName();
+                        parser.nextToken();
+                        if ("USD".equals(code)) {
+                            currency = code;
+                            price = parsePrice(parser.getText());
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            for (int rule : rules) {
+                collector.offerPrice(rule, unit, beginRange, currency, price);
+            }
+        }
+    }
+    
+    private static double parsePrice(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+    
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual
+                + " at " + parser.getCurrentLocation());
+        }
+    }
+}
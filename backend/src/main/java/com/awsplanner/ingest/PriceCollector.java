@@ -0,0 +1,130 @@
+package com.awsplanner.ingest;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Matches price list products against the mapping rules and keeps the cheapest
+ * first-tier on-demand price per service and pricing key. Only matched SKUs are
+ * remembered, so memory depends on the mapping, not on the size of the price list.
+ */
+public class PriceCollector {
+    
+    private static final int[] NO_MATCH = new int[0];
+    
+    private final String region;
+    private final List<String> serviceIds = new ArrayList<>();
+    private final List<String> offerCodes = new ArrayList<>();
+    private final List<PriceRule> rules = new ArrayList<>();
+    private final List<Map<String, String>> normalizedAttributes = new ArrayList<>();
+    private final Map<String, Map<String, Double>> prices = new TreeMap<>();
+    
+    public PriceCollector(Map<String, ServicePriceMapping> mapping, String region) {
+        this.region = region;
+        for (Map.Entry<String, ServicePriceMapping> entry : mapping.entrySet()) {
+            for (PriceRule rule : entry.getValue().getRules()) {
+                serviceIds.add(entry.getKey());
+                offerCodes.add(entry.getValue().getOfferCode());
+                rules.add(rule);
+                
+                Map<String, String> attributes = new HashMap<>();
+                if (rule.getAttributes() != null) {
+                    rule.getAttributes().forEach((name, value) -> attributes.put(normalize(name), value));
+                }
+                normalizedAttributes.add(attributes);
+            }
+        }
+    }
+    
+    /**
+     * Indexes of the rules matching a product; attribute names must already be normalized.
+     * A null offer code matches rules of every offer.
+     */
+    public int[] matchProduct(String offerCode, Map<String, String> attributes) {
+        String productRegion = attributes.get("regioncode");
+        if (region != null && productRegion != null && !productRegion.isEmpty()
+                && !region.equals(productRegion)) {
+            return NO_MATCH;
+        }
+        
+        int[] matches = null;
+        int count = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            if (offerCode != null && !offerCode.equals(offerCodes.get(i))) {
+                continue;
+            }
+            if (matchesAttributes(normalizedAttributes.get(i), attributes)) {
+                if (matches == null) {
+                    matches = new int[rules.size()];
+                }
+                matches[count++] = i;
+            }
+        }
+        return matches == null ? NO_MATCH : Arrays.copyOf(matches, count);
+    }
+    
+    /**
+     * Offer an on-demand price dimension of a matched product to one of its rules
+     */
+    public void offerPrice(int ruleIndex, String unit, String beginRange, String currency, double pricePerUnit) {
+        PriceRule rule = rules.get(ruleIndex);
+        
+        if (!"USD".equals(currency) || !isFirstTier(beginRange)) {
+            return;
+        }
+        if (rule.getUnit() != null && !rule.getUnit().equalsIgnoreCase(unit)) {
+            return;
+        }
+        if (pricePerUnit <= 0 || !Double.isFinite(pricePerUnit)) {
+            return; // Free tier dimensions would hide the billed rate
+        }
+        
+        // Scale in decimal so e.g. 0.0000002 per request becomes exactly 0.2 per million
+        double price = BigDecimal.valueOf(pricePerUnit)
+                                 .multiply(BigDecimal.valueOf(rule.getScale()))
+                                 .doubleValue();
+        prices.computeIfAbsent(serviceIds.get(ruleIndex), k -> new TreeMap<>())
+              .merge(rule.getKey(), price, Math::min);
+    }
+    
+    /**
+     * Collected prices by service id and pricing key
+     */
+    public Map<String, Map<String, Double>> getPrices() {
+        return prices;
+    }
+    
+    /**
+     * Normalize an attribute or column name: lower case, letters and digits only
+     */
+    public static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+    
+    private static boolean matchesAttributes(Map<String, String> required, Map<String, String> attributes) {
+        for (Map.Entry<String, String> entry : required.entrySet()) {
+            if (!entry.getValue().equals(attributes.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isFirstTier(String beginRange) {
+        if (beginRange == null || beginRange.isEmpty()) {
+            return true;
+        }
+        try {
+            return Double.parseDouble(beginRange) == 0.0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.awsplanner.ingest;
+
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Command line tool that reduces AWS Price List bulk offer files to a pricing table.
+ *
+ * Offer files (JSON or CSV, optionally gzipped) are streamed once each; only the
+ * SKUs selected by the price list mapping are kept, and for every mapped pricing
+ * key the cheapest first-tier on-demand rate wins. The result is merged over a base
+ * pricing table and written as a compact pricing-table.json, ready to be dropped
+ * into {@code catalog.directory}.
+ *
+ * Usage: PriceListIngester --output DIR|FILE [--region CODE] [--mapping FILE]
+ *        [--base FILE] OFFER_FILE...
+ */
+public class PriceListIngester {
+    
+    private static final String DEFAULT_MAPPING = "ingest/price-list-mapping.json";
+    private static final String DEFAULT_BASE = "data/" + ServiceKnowledgeBase.PRICING_FILE;
+    private static final String DEFAULT_REGION = "us-east-1";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        List<Path> offerFiles = new ArrayList<>();
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                if (i + 1 >= args.length) {
+                    usage("Missing value for " + args[i]);
+                }
+                options.put(args[i].substring(2), args[++i]);
+            } else {
+                offerFiles.add(Path.of(args[i]));
+            }
+        }
+        
+        if (!options.containsKey("output") || offerFiles.isEmpty()) {
+            usage("An output path and at least one offer file are required");
+        }
+        
+        Path output = Path.of(options.get("output"));
+        if (Files.isDirectory(output)) {
+            output = output.resolve(ServiceKnowledgeBase.PRICING_FILE);
+        }
+        
+        new PriceListIngester().run(
+            offerFiles, output,
+            options.getOrDefault("region", DEFAULT_REGION),
+            options.get("mapping"), options.get("base"));
+    }
+    
+    /**
+     * Ingest the offer files and write the merged pricing table to the output file
+     */
+    public void run(List<Path> offerFiles, Path output, String region,
+                    String mappingFile, String baseFile) throws IOException {
+        Map<String, ServicePriceMapping> mapping =
+            readJson(mappingFile, DEFAULT_MAPPING, new TypeReference<Map<String, ServicePriceMapping>>() {});
+        Map<String, Map<String, Double>> pricing =
+            readJson(baseFile, DEFAULT_BASE, new TypeReference<Map<String, Map<String, Double>>>() {});
+        
+        PriceCollector collector = new PriceCollector(mapping, region);
+        for (Path offerFile : offerFiles) {
+            long start = System.nanoTime();
+            String summary = ingest(offerFile, collector);
+            System.out.printf(Locale.ROOT, "%s: %s in %d ms%n",
+                offerFile, summary, (System.nanoTime() - start) / 1_000_000);
+        }
+        
+        Map<String, Map<String, Double>> merged = new TreeMap<>(pricing);
+        collector.getPrices().forEach((serviceId, prices) -> {
+            Map<String, Double> entry = new TreeMap<>(merged.getOrDefault(serviceId, Map.of()));
+            entry.putAll(prices);
+            merged.put(serviceId, entry);
+            System.out.println("  " + serviceId + " " + prices);
+        });
+        
+        writeAtomically(merged, output);
+        System.out.println("Wrote pricing for " + merged.size() + " services to " + output);
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private String ingest(Path offerFile, PriceCollector collector) throws IOException {
+        String name = offerFile.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        
+        try (InputStream in = open(offerFile)) {
+            if (name.endsWith(".csv")) {
+                CsvOfferReader reader = new CsvOfferReader(collector);
+                reader.read(in);
+                return reader.getOfferCode() + ", " + reader.getRowCount() + " on-demand rows";
+            }
+            if (name.endsWith(".json")) {
+                JsonOfferReader reader = new JsonOfferReader(collector);
+                reader.read(in);
+                return reader.getOfferCode() + ", " + reader.getMatchedSkuCount() + " matched SKUs";
+            }
+        }
+        throw new IllegalArgumentException("Unsupported offer file type: " + offerFile);
+    }
+    
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        return file.toString().endsWith(".gz") ? new GZIPInputStream(in, 1 << 16) : in;
+    }
+    
+    private <T> T readJson(String file, String classpathDefault, TypeReference<T> type) throws IOException {
+        if (file != null) {
+            try (InputStream in = Files.newInputStream(Path.of(file))) {
+                return objectMapper.readValue(in, type);
+            }
+        }
+        try (InputStream in = PriceListIngester.class.getClassLoader().getResourceAsStream(classpathDefault)) {
+            if (in == null) {
+                throw new IOException("Missing classpath resource " + classpathDefault);
+            }
+            return objectMapper.readValue(in, type);
+        }
+    }
+    
+    /**
+     * Write next to the target and move into place, so a watching server never
+     * reads a partially written table
+     */
+    private void writeAtomically(Map<String, Map<String, Double>> pricing, Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, ".pricing-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                objectMapper.writeValue(out, pricing);
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: PriceListIngester --output DIR|FILE [--region CODE] "
+            + "[--mapping FILE] [--base FILE] OFFER_FILE...");
+        System.exit(2);
+    }
+}
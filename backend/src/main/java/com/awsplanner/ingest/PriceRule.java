@@ -0,0 +1,24 @@
+package com.awsplanner.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Maps price list SKUs onto one pricing-table key of a service.
+ * A SKU matches when all listed product attributes are equal (attribute names
+ * are compared ignoring case, spaces and punctuation, so JSON and CSV headers
+ * both work) and its on-demand price dimension uses the given unit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRule {
+    
+    private String key; // pricing-table key, e.g. perGB, perMillionRequests
+    private Map<String, String> attributes;
+    private String unit; // e.g. GB-Mo, Requests, Hrs
+    private double scale = 1.0; // multiplier from price per unit to the key's unit, e.g. 730 Hrs per month
+}
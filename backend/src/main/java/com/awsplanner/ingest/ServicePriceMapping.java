@@ -0,0 +1,19 @@
+package com.awsplanner.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Price list rules for one catalog service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServicePriceMapping {
+    
+    private String offerCode; // e.g. AmazonS3, AWSLambda
+    private List<PriceRule> rules;
+}
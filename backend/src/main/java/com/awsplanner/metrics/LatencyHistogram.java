@@ -0,0 +1,52 @@
+package com.awsplanner.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed bucket bounds, rendered as a
+ * cumulative Prometheus histogram in seconds
+ */
+public final class LatencyHistogram {
+    
+    private static final double[] BOUNDS_SECONDS = {
+        0.00001, 0.000025, 0.00005, 0.0001, 0.00025, 0.0005,
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5
+    };
+    
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_SECONDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sumSeconds = new DoubleAdder();
+    
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    public void record(long nanos) {
+        double seconds = nanos / 1e9;
+        int bucket = 0;
+        while (bucket < BOUNDS_SECONDS.length && seconds > BOUNDS_SECONDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumSeconds.add(seconds);
+    }
+    
+    /**
+     * Append bucket, sum and count series; labels are inserted as-is, e.g. {@code stage="select"}
+     */
+    public void writePrometheus(StringBuilder out, String name, String labels) {
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            String le = i < BOUNDS_SECONDS.length ? Double.toString(BOUNDS_SECONDS[i]) : "+Inf";
+            out.append(name).append("_bucket{").append(labels).append(",le=\"").append(le).append("\"} ")
+               .append(cumulative).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(sumSeconds.sum()).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(count.sum()).append('\n');
+    }
+}
@@ -0,0 +1,12 @@
+package com.awsplanner.metrics;
+
+/**
+ * Component that contributes metrics to the Prometheus endpoint
+ */
+public interface MetricsSource {
+    
+    /**
+     * Append metrics in the Prometheus text exposition format
+     */
+    void writePrometheus(StringBuilder out);
+}
@@ -0,0 +1,78 @@
+package com.awsplanner.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counters for each recommendation pipeline stage
+ */
+@Component
+public class PipelineMetrics implements MetricsSource {
+    
+    private static final String STAGE_DURATION = "recommendation_stage_duration_seconds";
+    private static final String PIPELINE_DURATION = "recommendation_pipeline_duration_seconds";
+    private static final String STAGE_ERRORS = "recommendation_stage_errors_total";
+    
+    private final LatencyHistogram[] stageLatency = new LatencyHistogram[PipelineStage.values().length];
+    private final LongAdder[] clientErrors = new LongAdder[PipelineStage.values().length];
+    private final LongAdder[] serverErrors = new LongAdder[PipelineStage.values().length];
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    
+    public PipelineMetrics() {
+        for (int i = 0; i < stageLatency.length; i++) {
+            stageLatency[i] = new LatencyHistogram();
+            clientErrors[i] = new LongAdder();
+            serverErrors[i] = new LongAdder();
+        }
+    }
+    
+    public PipelineTrace newTrace() {
+        return new PipelineTrace(this);
+    }
+    
+    void recordStage(PipelineStage stage, long nanos) {
+        stageLatency[stage.ordinal()].record(nanos);
+    }
+    
+    void recordTotal(long nanos) {
+        totalLatency.record(nanos);
+    }
+    
+    /**
+     * Invalid requirements count as client errors, anything else as server errors
+     */
+    void recordError(PipelineStage stage, Throwable error) {
+        if (error instanceof IllegalArgumentException) {
+            clientErrors[stage.ordinal()].increment();
+        } else {
+            serverErrors[stage.ordinal()].increment();
+        }
+    }
+    
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP ").append(STAGE_DURATION).append(" Latency of each recommendation pipeline stage\n");
+        out.append("# TYPE ").append(STAGE_DURATION).append(" histogram\n");
+        for (PipelineStage stage : PipelineStage.values()) {
+            stageLatency[stage.ordinal()].writePrometheus(out, STAGE_DURATION, stageLabel(stage));
+        }
+        
+        out.append("# HELP ").append(PIPELINE_DURATION).append(" Latency of the whole recommendation pipeline\n");
+        out.append("# TYPE ").append(PIPELINE_DURATION).append(" histogram\n");
+        totalLatency.writePrometheus(out, PIPELINE_DURATION, "pipeline=\"recommend\"");
+        
+        out.append("# HELP ").append(STAGE_ERRORS).append(" Failed recommendation pipeline stages\n");
+        out.append("# TYPE ").append(STAGE_ERRORS).append(" counter\n");
+        for (PipelineStage stage : PipelineStage.values()) {
+            out.append(STAGE_ERRORS).append('{').append(stageLabel(stage)).append(",kind=\"client\"} ")
+               .append(clientErrors[stage.ordinal()].sum()).append('\n');
+            out.append(STAGE_ERRORS).append('{').append(stageLabel(stage)).append(",kind=\"server\"} ")
+               .append(serverErrors[stage.ordinal()].sum()).append('\n');
+        }
+    }
+    
+    private static String stageLabel(PipelineStage stage) {
+        return "stage=\"" + stage.getLabel() + "\"";
+    }
+}
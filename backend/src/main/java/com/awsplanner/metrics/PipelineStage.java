@@ -0,0 +1,25 @@
+package com.awsplanner.metrics;
+
+/**
+ * Steps of the recommendation pipeline that are timed individually
+ */
+public enum PipelineStage {
+    
+    VALIDATE("validate"),
+    SELECT("select"),
+    FIT("fit"),
+    COST("cost"),
+    ALTERNATIVES("alternatives"),
+    UPGRADES("upgrades"),
+    BUILD("build");
+    
+    private final String label;
+    
+    PipelineStage(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
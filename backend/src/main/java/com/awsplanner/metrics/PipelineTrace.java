@@ -0,0 +1,87 @@
+package com.awsplanner.metrics;
+
+import java.util.Locale;
+
+/**
+ * Timings of one pass through the recommendation pipeline.
+ * Not thread-safe: a trace belongs to the request that created it.
+ */
+public final class PipelineTrace {
+    
+    private final PipelineMetrics metrics;
+    private final long[] stageNanos = new long[PipelineStage.values().length];
+    private final long startNanos = System.nanoTime();
+    private PipelineStage current;
+    private long currentStart;
+    private long totalNanos = -1;
+    
+    PipelineTrace(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Start timing a stage, ending the previous one if still open
+     */
+    public void begin(PipelineStage stage) {
+        if (current != null) {
+            end();
+        }
+        current = stage;
+        currentStart = System.nanoTime();
+    }
+    
+    public void end() {
+        long elapsed = System.nanoTime() - currentStart;
+        stageNanos[current.ordinal()] += elapsed;
+        metrics.recordStage(current, elapsed);
+        current = null;
+    }
+    
+    /**
+     * Record a failure of the open stage and close the trace
+     */
+    public void fail(Throwable error) {
+        if (current != null) {
+            PipelineStage stage = current;
+            end();
+            metrics.recordError(stage, error);
+        }
+        finish();
+    }
+    
+    /**
+     * Close the trace and record the total pipeline duration
+     */
+    public void finish() {
+        if (current != null) {
+            end();
+        }
+        if (totalNanos < 0) {
+            totalNanos = System.nanoTime() - startNanos;
+            metrics.recordTotal(totalNanos);
+        }
+    }
+    
+    /**
+     * Value for the Server-Timing response header, durations in milliseconds
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (PipelineStage stage : PipelineStage.values()) {
+            if (stageNanos[stage.ordinal()] > 0) {
+                appendTiming(header, stage.getLabel(), stageNanos[stage.ordinal()]);
+            }
+        }
+        if (totalNanos >= 0) {
+            appendTiming(header, "total", totalNanos);
+        }
+        return header.toString();
+    }
+    
+    private static void appendTiming(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
@@ -0,0 +1,45 @@
+package com.awsplanner.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Supported application types (use cases)
+ */
+public enum ApplicationType {
+    
+    STATIC_WEBSITE("static-website", "Static Website"),
+    BACKEND_API("backend-api", "Backend API"),
+    FULL_STACK("full-stack", "Full-Stack Web Application"),
+    FILE_STORAGE("file-storage", "File Storage System"),
+    EVENT_DRIVEN("event-driven", "Event-Driven Application");
+    
+    private final String value;
+    private final String displayName;
+    
+    ApplicationType(String value, String displayName) {
+        this.value = value;
+        this.displayName = displayName;
+    }
+    
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @JsonCreator
+    public static ApplicationType fromValue(String value) {
+        for (ApplicationType type : values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Invalid application type. Must be one of: static-website, backend-api, full-stack, file-storage, event-driven"
+        );
+    }
+}
@@ -17,10 +17,10 @@ public class AwsService {
     private String id;
     private String name;
     private String category; // compute, storage, database, networking, messaging, monitoring, security
-    private String costLevel; // low, medium, high
-    private String scalability; // low, medium, high
-    private String operationalEffort; // low, medium, high
-    private List<String> useCases; // List of supported use cases
+    private Level costLevel;
+    private Level scalability;
+    private Level operationalEffort;
+    private List<ApplicationType> useCases; // List of supported use cases
     private String description;
     private boolean mandatory; // Services like IAM that are always included
 }
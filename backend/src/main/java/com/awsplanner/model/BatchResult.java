@@ -0,0 +1,25 @@
+package com.awsplanner.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a batch recommendation response: either a recommendation
+ * or the error for the requirement at the given position of the batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+    
+    private int index; // Position of the requirement in the submitted batch
+    private Recommendation recommendation;
+    private String error;
+    
+    public static BatchResult error(int index, String error) {
+        return new BatchResult(index, null, error);
+    }
+}
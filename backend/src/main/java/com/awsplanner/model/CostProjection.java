@@ -0,0 +1,26 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Month-by-month cost of the recommended architecture. All arrays are indexed by
+ * month, starting with the first month at index 0.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostProjection {
+    
+    private int months;
+    private double[] trafficRequests;
+    private double[] storageGB;
+    private List<ServiceProjection> services;
+    private double[] monthlyTotals;
+    private double[] cumulativeTotals;
+    private double totalCost;
+    private Integer firstMonthOverBudget; // 1-based; null if every month fits the budget
+}
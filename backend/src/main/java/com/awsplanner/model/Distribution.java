@@ -0,0 +1,28 @@
+package com.awsplanner.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Distribution of a simulated input. Only the parameters of the given type are
+ * read; see {@link DistributionType}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Distribution {
+    
+    @NotNull(message = "Distribution type is required")
+    private DistributionType type;
+    
+    private Double value;
+    private Double min;
+    private Double mode;
+    private Double max;
+    private Double mean;
+    private Double stdDev;
+    private Double median;
+    private Double sigma;
+}
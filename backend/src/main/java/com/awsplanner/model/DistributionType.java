@@ -0,0 +1,39 @@
+package com.awsplanner.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Shape of a simulated input distribution
+ */
+public enum DistributionType {
+    
+    FIXED("fixed"),           // value
+    UNIFORM("uniform"),       // min, max
+    TRIANGULAR("triangular"), // min, mode, max
+    NORMAL("normal"),         // mean, stdDev; truncated at zero
+    LOGNORMAL("lognormal");   // median, sigma (standard deviation of the logarithm)
+    
+    private final String value;
+    
+    DistributionType(String value) {
+        this.value = value;
+    }
+    
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+    
+    @JsonCreator
+    public static DistributionType fromValue(String value) {
+        for (DistributionType type : values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Invalid distribution '" + value + "'. Must be one of: fixed, uniform, triangular, normal, lognormal"
+        );
+    }
+}
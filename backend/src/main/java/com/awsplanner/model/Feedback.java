@@ -1,6 +1,7 @@
 package com.awsplanner.model;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,12 +14,17 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Feedback {
     
+    @Size(max = 200, message = "Name must be at most 200 characters")
     private String name;
+    
+    @Size(max = 320, message = "Email must be at most 320 characters")
     private String email;
     
     @NotBlank(message = "Message is required")
+    @Size(max = 10000, message = "Message must be at most 10000 characters")
     private String message;
     
     @NotBlank(message = "Feedback type is required")
+    @Size(max = 100, message = "Feedback type must be at most 100 characters")
     private String type; // missing-use-case, wrong-recommendation, feature-request
 }
@@ -0,0 +1,21 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored feedback submission
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackEntry {
+    
+    private long id;
+    private String receivedAt; // ISO-8601 instant
+    private String name;
+    private String email;
+    private String message;
+    private String type;
+}
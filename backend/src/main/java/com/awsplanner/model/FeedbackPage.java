@@ -0,0 +1,19 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of stored feedback, oldest first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackPage {
+    
+    private List<FeedbackEntry> entries;
+    private Long nextAfterId; // Pass as afterId for the next page; null on the last page
+}
@@ -0,0 +1,21 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Architecture on the cost vs. fit score Pareto frontier
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FrontierPoint {
+    
+    private List<String> services;
+    private double totalCost;
+    private double score; // Mean fit score of the services chosen per category
+    private boolean withinBudget;
+}
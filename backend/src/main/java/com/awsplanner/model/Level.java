@@ -0,0 +1,45 @@
+package com.awsplanner.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Three-step level used for cost, scalability, traffic and operational effort.
+ * The ordinal doubles as the index into the scoring matrices.
+ */
+public enum Level {
+    
+    LOW("low"),
+    MEDIUM("medium"),
+    HIGH("high");
+    
+    private final String value;
+    
+    Level(String value) {
+        this.value = value;
+    }
+    
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+    
+    @JsonCreator
+    public static Level fromValue(String value) {
+        for (Level level : values()) {
+            if (level.value.equals(value)) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Invalid level '" + value + "'. Must be one of: low, medium, high"
+        );
+    }
+    
+    /**
+     * Error message for an invalid value of the named field, e.g. "traffic level"
+     */
+    public static String invalidMessage(String field) {
+        return "Invalid " + field + ". Must be one of: low, medium, high";
+    }
+}
@@ -0,0 +1,44 @@
+package com.awsplanner.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starting requirement with growth assumptions for a month-by-month cost projection.
+ * Growth rates are monthly and compound, e.g. 0.05 for 5% per month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionRequest {
+    
+    @Valid
+    @NotNull(message = "Requirement is required")
+    private UserRequirement requirement;
+    
+    @NotNull(message = "Months are required")
+    @Min(value = 12, message = "Projection must cover at least 12 months")
+    @Max(value = 60, message = "Projection must cover at most 60 months")
+    private Integer months;
+    
+    @DecimalMin(value = "-1.0", inclusive = false, message = "Traffic growth rate must be above -100%")
+    @DecimalMax(value = "1.0", message = "Traffic growth rate must be at most 100% per month")
+    private Double trafficGrowthRate = 0.0;
+    
+    @DecimalMin(value = "-1.0", inclusive = false, message = "Storage growth rate must be above -100%")
+    @DecimalMax(value = "1.0", message = "Storage growth rate must be at most 100% per month")
+    private Double storageGrowthRate = 0.0;
+    
+    @Valid
+    private List<ProjectionStep> steps = new ArrayList<>();
+}
@@ -0,0 +1,27 @@
+package com.awsplanner.model;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One-off change in traffic or storage taking effect in a given month,
+ * e.g. a product launch or a data migration
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionStep {
+    
+    @NotNull(message = "Step month is required")
+    @Min(value = 1, message = "Step month must be at least 1")
+    private Integer month;
+    
+    @DecimalMin(value = "0.0", message = "Traffic multiplier must be non-negative")
+    private Double trafficMultiplier = 1.0;
+    
+    private Double storageDeltaGB = 0.0; // May be negative; storage never drops below zero
+}
@@ -0,0 +1,21 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * AWS region and how its prices differ from the base pricing table
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Region {
+    
+    private String code; // e.g. eu-west-1
+    private String name;
+    private double priceMultiplier = 1.0; // Applied to base prices without a regional override
+    private Map<String, Map<String, Double>> pricing; // Regional prices by service id, replacing base prices
+}
@@ -0,0 +1,19 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Recommended architecture priced in every region, cheapest region first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionComparison {
+    
+    private List<String> services;
+    private List<RegionCost> regions;
+}
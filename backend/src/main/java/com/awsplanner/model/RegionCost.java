@@ -0,0 +1,19 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monthly cost of an architecture in one region
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionCost {
+    
+    private String region;
+    private String name;
+    private double totalCost;
+    private boolean withinBudget;
+}
@@ -0,0 +1,47 @@
+package com.awsplanner.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reasons a service scored well, kept on {@link ServiceScore} as a bitmask.
+ * The text of every combination is built once, so rendering a reason is a lookup.
+ */
+public enum ScoreReason {
+    
+    COST_EFFECTIVE("cost-effective"),
+    SCALES_WELL("scales well"),
+    MATCHES_OPERATIONAL_PREFERENCE("matches operational preference"),
+    OPTIMIZED_FOR_USE_CASE("optimized for use case");
+    
+    private static final String[] TEXT = new String[1 << values().length];
+    
+    static {
+        for (int mask = 0; mask < TEXT.length; mask++) {
+            List<String> labels = new ArrayList<>();
+            for (ScoreReason reason : values()) {
+                if ((mask & reason.bit()) != 0) {
+                    labels.add(reason.label);
+                }
+            }
+            TEXT[mask] = labels.isEmpty() ? "Suitable for requirements" : String.join(", ", labels).intern();
+        }
+    }
+    
+    private final String label;
+    
+    ScoreReason(String label) {
+        this.label = label;
+    }
+    
+    public int bit() {
+        return 1 << ordinal();
+    }
+    
+    /**
+     * Text of a reason bitmask, e.g. "cost-effective, scales well"
+     */
+    public static String describe(int mask) {
+        return TEXT[mask];
+    }
+}
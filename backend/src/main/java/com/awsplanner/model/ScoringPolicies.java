@@ -0,0 +1,19 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Contents of the scoring policy file
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringPolicies {
+    
+    private String defaultPolicy;
+    private List<ScoringPolicy> policies;
+}
@@ -0,0 +1,27 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Named scoring policy: dimension weights, budget bands, match tables indexed by
+ * level ordinals, and rules
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringPolicy {
+    
+    private String name;
+    private String description;
+    private ScoringWeights weights;
+    private double[] budgetThresholds; // Lower bounds of the budget bands above the first, ascending
+    private double[][] costMatch; // [budget band][service cost level]
+    private double[][] scalabilityMatch; // [traffic][service scalability]
+    private double[][] operationalMatch; // [user preference][service effort]
+    private double[] useCaseMatch; // By number of supported use cases, capped at the last entry
+    private List<ScoringRule> rules;
+}
@@ -0,0 +1,38 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Score adjustment or exclusion for the services a rule targets, applied to
+ * requirements that meet its conditions. A missing or empty condition or target
+ * list matches everything.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringRule {
+    
+    private String name;
+    
+    // Requirement conditions
+    private List<ApplicationType> applicationType;
+    private List<Level> traffic;
+    private List<Level> operationalEffort;
+    private Boolean databaseNeeded;
+    private List<Integer> budgetBand; // Index into the policy's budget bands, 0 = below the first threshold
+    
+    // Service targets
+    private List<String> services; // Service ids
+    private List<String> categories;
+    private List<Level> serviceCostLevel;
+    private List<Level> serviceScalability;
+    private List<Level> serviceEffort;
+    
+    // Effect
+    private double adjust; // Added to the total score
+    private boolean exclude;
+}
@@ -0,0 +1,19 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Weight of each match dimension in a service's total score
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringWeights {
+    
+    private double cost;
+    private double scalability;
+    private double operational;
+    private double useCase;
+}
@@ -0,0 +1,19 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monthly cost series of one service in a projection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceProjection {
+    
+    private String name;
+    private String category;
+    private double[] monthlyCosts;
+    private double totalCost; // Over the whole projection
+}
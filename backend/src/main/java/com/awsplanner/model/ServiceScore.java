@@ -14,11 +14,18 @@ public class ServiceScore {
     
     private AwsService service;
     private double score; // 0-100 scale
-    private String reason; // Explanation for the score
+    private int reasons; // Bitmask of ScoreReason bits
     
     // Individual score components for transparency
     private double costMatchScore;
     private double scalabilityMatchScore;
     private double operationalMatchScore;
     private double useCaseMatchScore;
+    
+    /**
+     * Explanation for the score, rendered from the reason bitmask on demand
+     */
+    public String getReason() {
+        return ScoreReason.describe(reasons);
+    }
 }
@@ -0,0 +1,34 @@
+package com.awsplanner.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Requirement with traffic and storage distributions for a Monte Carlo cost
+ * simulation. Traffic is in requests per month, storage in GB. A missing
+ * distribution keeps the requirement's own value fixed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRequest {
+    
+    @Valid
+    @NotNull(message = "Requirement is required")
+    private UserRequirement requirement;
+    
+    @Valid
+    private Distribution traffic;
+    
+    @Valid
+    private Distribution storage;
+    
+    @Min(value = 1, message = "Trials must be at least 1")
+    private Long trials;
+    
+    private Long seed; // Random if missing; the seed used is returned
+}
@@ -0,0 +1,30 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Monthly cost distribution of the recommended architecture over all trials.
+ * Percentiles are within {@code relativeAccuracy} of the exact trial values.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResult {
+    
+    private List<String> services;
+    private long trials;
+    private long seed;
+    private double pointEstimate; // Cost at the requirement's own traffic level and storage
+    private double mean;
+    private double min;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double max;
+    private double probabilityOverBudget;
+    private double relativeAccuracy;
+}
@@ -0,0 +1,20 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Budget at which the selected architecture changes during a sweep
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepBreakpoint {
+    
+    private double budget; // Services below are selected for budgets under this value
+    private List<String> servicesBelow;
+    private List<String> servicesAbove;
+}
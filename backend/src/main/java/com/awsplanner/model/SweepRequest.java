@@ -0,0 +1,58 @@
+package com.awsplanner.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Requirement with budget and storage ranges for a sensitivity sweep.
+ * Each range is sampled at evenly spaced points, including both ends.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepRequest {
+    
+    @NotNull(message = "Application type is required")
+    private ApplicationType applicationType;
+    
+    @NotNull(message = "Traffic level is required")
+    private Level traffic;
+    
+    @NotNull(message = "Database requirement is required")
+    private Boolean databaseNeeded;
+    
+    @NotNull(message = "Operational effort is required")
+    private Level operationalEffort;
+    
+    @NotNull(message = "Minimum budget is required")
+    @Min(value = 1, message = "Budget must be at least $1")
+    private Double budgetMin;
+    
+    @NotNull(message = "Maximum budget is required")
+    @Min(value = 1, message = "Budget must be at least $1")
+    private Double budgetMax;
+    
+    @NotNull(message = "Budget steps are required")
+    @Min(value = 1, message = "Budget steps must be at least 1")
+    @Max(value = 10000, message = "Budget steps must be at most 10000")
+    private Integer budgetSteps;
+    
+    @NotNull(message = "Minimum storage is required")
+    @Min(value = 0, message = "Storage must be non-negative")
+    private Integer storageMin;
+    
+    @NotNull(message = "Maximum storage is required")
+    @Min(value = 0, message = "Storage must be non-negative")
+    private Integer storageMax;
+    
+    @NotNull(message = "Storage steps are required")
+    @Min(value = 1, message = "Storage steps must be at least 1")
+    @Max(value = 10000, message = "Storage steps must be at most 10000")
+    private Integer storageSteps;
+    
+    private String policy; // Scoring policy name; the default policy if missing
+}
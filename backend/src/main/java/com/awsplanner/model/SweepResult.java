@@ -0,0 +1,21 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Total monthly cost over a budget x storage grid
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepResult {
+    
+    private double[] budgets;
+    private int[] storageGB;
+    private double[][] totalCosts; // [budget index][storage index]
+    private List<SweepBreakpoint> breakpoints;
+}
@@ -1,7 +1,7 @@
 package com.awsplanner.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,11 +15,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class UserRequirement {
     
-    @NotBlank(message = "Application type is required")
-    private String applicationType; // static-website, backend-api, full-stack, file-storage, event-driven
+    @NotNull(message = "Application type is required")
+    private ApplicationType applicationType;
     
-    @NotBlank(message = "Traffic level is required")
-    private String traffic; // low, medium, high
+    @NotNull(message = "Traffic level is required")
+    private Level traffic;
     
     @NotNull(message = "Storage is required")
     @Min(value = 0, message = "Storage must be non-negative")
@@ -28,10 +28,18 @@ public class UserRequirement {
     @NotNull(message = "Database requirement is required")
     private Boolean databaseNeeded;
     
-    @NotBlank(message = "Operational effort is required")
-    private String operationalEffort; // low, medium, high
+    @NotNull(message = "Operational effort is required")
+    private Level operationalEffort;
     
     @NotNull(message = "Monthly budget is required")
     @Min(value = 1, message = "Budget must be at least $1")
     private Double monthlyBudget;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String policy; // Scoring policy name; the default policy if missing
+    
+    public UserRequirement(ApplicationType applicationType, Level traffic, Integer storageGB,
+                           Boolean databaseNeeded, Level operationalEffort, Double monthlyBudget) {
+        this(applicationType, traffic, storageGB, databaseNeeded, operationalEffort, monthlyBudget, null);
+    }
 }
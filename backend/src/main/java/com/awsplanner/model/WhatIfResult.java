@@ -0,0 +1,22 @@
+package com.awsplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Recommendation of a what-if session after it was created or changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfResult {
+    
+    private String sessionId;
+    private UserRequirement requirement; // Complete requirement with the change applied
+    private List<String> recomputed; // Cached stages rerun: filter, score, rank, price
+    private int repricedServices;
+    private Recommendation recommendation;
+}
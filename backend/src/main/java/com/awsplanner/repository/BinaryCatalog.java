@@ -0,0 +1,431 @@
+package com.awsplanner.repository;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary encoding of the service catalog and pricing table.
+ *
+ * A file is memory-mapped read-only and read in place: services are fixed-size
+ * records addressed by ordinal, strings live in a shared pool, and pricing
+ * coefficients are stored as the dense {@link PricingVectors} layout, so opening
+ * a catalog parses nothing and keeps it off the heap. Mappings stay live for the
+ * lifetime of a snapshot, so {@link #open} maps a private copy of the file rather
+ * than the file itself: rewriting or truncating the source in place can then at
+ * worst fail the checksum of the next load, never change a loaded snapshot.
+ *
+ * Layout (little-endian):
+ * <pre>
+ * header    magic, format version, service count, dimensions,
+ *           section offsets, CRC32 of the whole file with this field zeroed
+ * services  per ordinal: id, name, category, description, use cases (pool refs),
+ *           cost level, scalability, operational effort, flags (bytes)
+ * vectors   service count x dimensions doubles
+ * pricing   entry count, then per entry: service id ref, row count, (key ref, value)*
+ * pool      per item: length, then UTF-8 bytes or use case ordinals
+ * </pre>
+ * Level and use case values are stored as enum ordinals; changing either enum
+ * requires a new format version.
+ */
+public final class BinaryCatalog {
+    
+    public static final String FILE_NAME = "catalog.bin";
+    public static final String BUNDLED_RESOURCE = "data/" + FILE_NAME; // Compiled at build time
+    public static final int MAGIC = 0x43535741; // "AWSC"
+    public static final int FORMAT_VERSION = 2;
+    
+    private static final int HEADER_SIZE = 48;
+    private static final int RECORD_SIZE = 24;
+    private static final int NULL_REF = -1;
+    private static final byte FLAG_MANDATORY = 1;
+    
+    // Header fields
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int COUNT_AT = 8;
+    private static final int DIMENSIONS_AT = 12;
+    private static final int SERVICES_AT = 16;
+    private static final int VECTORS_AT = 20;
+    private static final int PRICING_AT = 24;
+    private static final int POOL_AT = 28;
+    private static final int LENGTH_AT = 32;
+    private static final int CRC_AT = 40;
+    
+    // Service record fields
+    private static final int ID = 0;
+    private static final int NAME = 4;
+    private static final int CATEGORY = 8;
+    private static final int DESCRIPTION = 12;
+    private static final int USE_CASES = 16;
+    private static final int COST_LEVEL = 20;
+    private static final int SCALABILITY = 21;
+    private static final int OPERATIONAL_EFFORT = 22;
+    private static final int FLAGS = 23;
+    
+    private static final Level[] LEVELS = Level.values();
+    private static final ApplicationType[] APPLICATION_TYPES = ApplicationType.values();
+    
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int servicesOffset;
+    private final int pricingOffset;
+    private final int poolOffset;
+    private final DoubleBuffer coefficients;
+    
+    private BinaryCatalog(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_AT) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary catalog");
+        }
+        if (buffer.getInt(VERSION_AT) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported catalog format version "
+                + buffer.getInt(VERSION_AT) + ", expected " + FORMAT_VERSION);
+        }
+        if (buffer.getInt(DIMENSIONS_AT) != PricingVectors.DIMENSIONS) {
+            throw new IllegalArgumentException("Catalog has " + buffer.getInt(DIMENSIONS_AT)
+                + " pricing dimensions, expected " + PricingVectors.DIMENSIONS);
+        }
+        if (buffer.getLong(LENGTH_AT) != buffer.capacity()) {
+            throw new IllegalArgumentException("Catalog is truncated");
+        }
+        if (buffer.getInt(CRC_AT) != checksum(buffer)) {
+            throw new IllegalArgumentException("Catalog checksum mismatch");
+        }
+        
+        this.size = buffer.getInt(COUNT_AT);
+        this.servicesOffset = buffer.getInt(SERVICES_AT);
+        this.pricingOffset = buffer.getInt(PRICING_AT);
+        this.poolOffset = buffer.getInt(POOL_AT);
+        this.coefficients = buffer.slice(buffer.getInt(VECTORS_AT), size * PricingVectors.DIMENSIONS * Double.BYTES)
+                                  .order(ByteOrder.LITTLE_ENDIAN)
+                                  .asDoubleBuffer();
+    }
+    
+    /**
+     * Copy a catalog file to a private temporary file, map the copy read-only and
+     * verify its header and checksum. The copy is unlinked once mapped and its
+     * pages are freed with the mapping.
+     */
+    public static BinaryCatalog open(Path file) throws IOException {
+        Path copy = Files.createTempFile("catalog-", ".bin");
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new BinaryCatalog(mapped);
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(copy);
+            } catch (IOException e) {
+                copy.toFile().deleteOnExit(); // Platforms that cannot delete a mapped file
+            }
+        }
+    }
+    
+    /**
+     * Read a catalog that cannot be mapped, such as a resource inside a jar, and
+     * verify its header and checksum
+     */
+    public static BinaryCatalog read(InputStream in) throws IOException {
+        return new BinaryCatalog(ByteBuffer.wrap(in.readAllBytes()));
+    }
+    
+    /**
+     * Encode a parsed catalog into an in-memory binary catalog
+     */
+    public static BinaryCatalog encode(List<AwsService> services, Map<String, Map<String, Double>> pricing) {
+        return new BinaryCatalog(new Encoder(services, pricing).encode());
+    }
+    
+    /**
+     * Write the catalog next to the target and move it into place. The file gets
+     * the default permissions of new files (createTempFile would make it owner-only,
+     * unreadable by a service running as another user).
+     */
+    public void writeTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(".catalog-" + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer data = buffer.duplicate().clear();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // ==================== Flyweight Accessors ====================
+    
+    public String getId(int ordinal) {
+        return string(ref(ordinal, ID));
+    }
+    
+    public String getName(int ordinal) {
+        return string(ref(ordinal, NAME));
+    }
+    
+    public String getCategory(int ordinal) {
+        return string(ref(ordinal, CATEGORY));
+    }
+    
+    /**
+     * Pool reference of the category string; equal categories share one reference
+     */
+    public int getCategoryRef(int ordinal) {
+        return ref(ordinal, CATEGORY);
+    }
+    
+    public String getDescription(int ordinal) {
+        return string(ref(ordinal, DESCRIPTION));
+    }
+    
+    public Level getCostLevel(int ordinal) {
+        return LEVELS[buffer.get(record(ordinal) + COST_LEVEL)];
+    }
+    
+    public Level getScalability(int ordinal) {
+        return LEVELS[buffer.get(record(ordinal) + SCALABILITY)];
+    }
+    
+    public Level getOperationalEffort(int ordinal) {
+        return LEVELS[buffer.get(record(ordinal) + OPERATIONAL_EFFORT)];
+    }
+    
+    public boolean isMandatory(int ordinal) {
+        return (buffer.get(record(ordinal) + FLAGS) & FLAG_MANDATORY) != 0;
+    }
+    
+    public List<ApplicationType> getUseCases(int ordinal) {
+        int ref = ref(ordinal, USE_CASES);
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int count = buffer.getInt(poolOffset + ref);
+        List<ApplicationType> useCases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            useCases.add(APPLICATION_TYPES[buffer.get(poolOffset + ref + Integer.BYTES + i)]);
+        }
+        return useCases;
+    }
+    
+    /**
+     * Decode one service record into a model object
+     */
+    public AwsService getService(int ordinal) {
+        return new AwsService(getId(ordinal), getName(ordinal), getCategory(ordinal),
+            getCostLevel(ordinal), getScalability(ordinal), getOperationalEffort(ordinal),
+            getUseCases(ordinal), getDescription(ordinal), isMandatory(ordinal));
+    }
+    
+    /**
+     * Pricing coefficients in {@link PricingVectors} layout, read from the catalog buffer
+     */
+    public DoubleBuffer getCoefficients() {
+        return coefficients.duplicate();
+    }
+    
+    /**
+     * Decode the raw pricing table, including entries for ids without a service
+     */
+    public Map<String, Map<String, Double>> decodePricing() {
+        int at = pricingOffset;
+        int entries = buffer.getInt(at);
+        at += Integer.BYTES;
+        
+        Map<String, Map<String, Double>> pricing = new HashMap<>();
+        for (int e = 0; e < entries; e++) {
+            String serviceId = string(buffer.getInt(at));
+            int rows = buffer.getInt(at + Integer.BYTES);
+            at += 2 * Integer.BYTES;
+            
+            Map<String, Double> row = new LinkedHashMap<>();
+            for (int r = 0; r < rows; r++) {
+                row.put(string(buffer.getInt(at)), buffer.getDouble(at + Integer.BYTES));
+                at += Integer.BYTES + Double.BYTES;
+            }
+            pricing.put(serviceId, row);
+        }
+        return pricing;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private int record(int ordinal) {
+        Objects.checkIndex(ordinal, size);
+        return servicesOffset + ordinal * RECORD_SIZE;
+    }
+    
+    private int ref(int ordinal, int field) {
+        return buffer.getInt(record(ordinal) + field);
+    }
+    
+    private String string(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.getInt(poolOffset + ref)];
+        buffer.get(poolOffset + ref + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * CRC32 of the whole buffer, header included, with the CRC field taken as zero
+     */
+    private static int checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().clear().limit(CRC_AT));
+        crc.update(new byte[Integer.BYTES]);
+        crc.update(buffer.duplicate().clear().position(CRC_AT + Integer.BYTES));
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Lays out the sections; string pool entries are de-duplicated
+     */
+    private static final class Encoder {
+        
+        private final List<AwsService> services;
+        private final Map<String, Map<String, Double>> pricing;
+        private final Map<String, Integer> stringRefs = new HashMap<>();
+        private final Map<List<ApplicationType>, Integer> useCaseRefs = new HashMap<>();
+        private ByteBuffer pool = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        
+        Encoder(List<AwsService> services, Map<String, Map<String, Double>> pricing) {
+            this.services = services;
+            this.pricing = pricing;
+        }
+        
+        ByteBuffer encode() {
+            int count = services.size();
+            PricingVectors vectors = PricingVectors.compile(services, pricing);
+            
+            ByteBuffer records = ByteBuffer.allocate(count * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            for (AwsService service : services) {
+                records.putInt(intern(service.getId()))
+                       .putInt(intern(service.getName()))
+                       .putInt(intern(service.getCategory()))
+                       .putInt(intern(service.getDescription()))
+                       .putInt(internUseCases(service.getUseCases()))
+                       .put((byte) service.getCostLevel().ordinal())
+                       .put((byte) service.getScalability().ordinal())
+                       .put((byte) service.getOperationalEffort().ordinal())
+                       .put(service.isMandatory() ? FLAG_MANDATORY : 0);
+            }
+            
+            ByteBuffer rows = ByteBuffer.allocate(rowsSize()).order(ByteOrder.LITTLE_ENDIAN);
+            rows.putInt(pricing.size());
+            for (Map.Entry<String, Map<String, Double>> entry : pricing.entrySet()) {
+                rows.putInt(intern(entry.getKey())).putInt(entry.getValue().size());
+                for (Map.Entry<String, Double> row : entry.getValue().entrySet()) {
+                    rows.putInt(intern(row.getKey())).putDouble(row.getValue());
+                }
+            }
+            
+            int servicesAt = HEADER_SIZE;
+            int vectorsAt = align(servicesAt + records.capacity(), Double.BYTES);
+            int pricingAt = vectorsAt + count * PricingVectors.DIMENSIONS * Double.BYTES;
+            int poolAt = pricingAt + rows.capacity();
+            int length = poolAt + pool.position();
+            
+            ByteBuffer out = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC_AT, MAGIC)
+               .putInt(VERSION_AT, FORMAT_VERSION)
+               .putInt(COUNT_AT, count)
+               .putInt(DIMENSIONS_AT, PricingVectors.DIMENSIONS)
+               .putInt(SERVICES_AT, servicesAt)
+               .putInt(VECTORS_AT, vectorsAt)
+               .putInt(PRICING_AT, pricingAt)
+               .putInt(POOL_AT, poolAt)
+               .putLong(LENGTH_AT, length);
+            
+            out.put(servicesAt, records.array());
+            for (int ordinal = 0; ordinal < count; ordinal++) {
+                for (int d = 0; d < PricingVectors.DIMENSIONS; d++) {
+                    out.putDouble(vectorsAt + (ordinal * PricingVectors.DIMENSIONS + d) * Double.BYTES,
+                        vectors.coefficient(ordinal, d));
+                }
+            }
+            out.put(pricingAt, rows.array());
+            out.put(poolAt, pool.array(), 0, pool.position());
+            
+            out.putInt(CRC_AT, checksum(out));
+            return out;
+        }
+        
+        private int rowsSize() {
+            int bytes = Integer.BYTES;
+            for (Map<String, Double> row : pricing.values()) {
+                bytes += 2 * Integer.BYTES + row.size() * (Integer.BYTES + Double.BYTES);
+            }
+            return bytes;
+        }
+        
+        private int intern(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            return stringRefs.computeIfAbsent(value, v -> {
+                byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+                int ref = reserve(Integer.BYTES + bytes.length);
+                pool.putInt(bytes.length).put(bytes);
+                return ref;
+            });
+        }
+        
+        private int internUseCases(List<ApplicationType> useCases) {
+            if (useCases == null) {
+                return NULL_REF;
+            }
+            return useCaseRefs.computeIfAbsent(List.copyOf(useCases), list -> {
+                int ref = reserve(Integer.BYTES + list.size());
+                pool.putInt(list.size());
+                for (ApplicationType useCase : list) {
+                    pool.put((byte) useCase.ordinal());
+                }
+                return ref;
+            });
+        }
+        
+        private int reserve(int bytes) {
+            if (pool.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(pool.capacity() * 2, pool.position() + bytes))
+                                             .order(ByteOrder.LITTLE_ENDIAN);
+                grown.put(pool.flip());
+                pool = grown;
+            }
+            return pool.position();
+        }
+        
+        private static int align(int offset, int alignment) {
+            return (offset + alignment - 1) / alignment * alignment;
+        }
+    }
+}
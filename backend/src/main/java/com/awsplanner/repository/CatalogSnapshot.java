@@ -0,0 +1,216 @@
+package com.awsplanner.repository;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable, indexed view of the service catalog and pricing table.
+ *
+ * Services are addressed by ordinal (their position in the catalog). Besides hash
+ * indexes by id and category, the snapshot keeps bitsets of ordinals per use case,
+ * operational effort and category so the decision engine can filter by set algebra.
+ * Bitsets returned by the getters are shared and must not be modified. Pricing is
+ * compiled into {@link PricingVectors} indexed by the same ordinals.
+ *
+ * The snapshot reads through a {@link BinaryCatalog}: indexes are built from the
+ * record fields, and service objects are only decoded when first requested.
+ */
+public final class CatalogSnapshot {
+    
+    private static final BitSet EMPTY = new BitSet();
+    
+    private final long version;
+    private final BinaryCatalog catalog;
+    private final AtomicReferenceArray<AwsService> decoded;
+    private final List<AwsService> services;
+    private final Map<String, Integer> ordinalsById;
+    private final Map<String, List<AwsService>> servicesByCategory;
+    private final List<AwsService> mandatoryServices;
+    private final BitSet mandatoryBits;
+    private final BitSet[] useCaseBits;
+    private final BitSet[] effortBits;
+    private final Map<String, BitSet> categoryBits;
+    private final PricingVectors pricingVectors;
+    private volatile Map<String, Map<String, Double>> pricingTable;
+    
+    public CatalogSnapshot(long version, List<AwsService> services,
+                           Map<String, Map<String, Double>> pricingTable) {
+        this(version, BinaryCatalog.encode(services, pricingTable));
+    }
+    
+    public CatalogSnapshot(long version, BinaryCatalog catalog) {
+        this.version = version;
+        this.catalog = catalog;
+        this.decoded = new AtomicReferenceArray<>(catalog.size());
+        this.services = new ServiceList(null);
+        this.pricingVectors = new PricingVectors(catalog.getCoefficients());
+        
+        Map<String, Integer> ordinals = new HashMap<>();
+        Map<Integer, String> categories = new HashMap<>();
+        BitSet mandatorySet = new BitSet();
+        BitSet[] byUseCase = newBitSets(ApplicationType.values().length);
+        BitSet[] byEffort = newBitSets(Level.values().length);
+        Map<String, BitSet> byCategoryBits = new HashMap<>();
+        
+        for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+            // Decode each distinct category once; equal strings share a pool reference
+            int categoryRef = catalog.getCategoryRef(ordinal);
+            String category = categories.get(categoryRef);
+            if (category == null) {
+                category = catalog.getCategory(ordinal);
+                categories.put(categoryRef, category);
+            }
+            
+            ordinals.putIfAbsent(catalog.getId(ordinal), ordinal);
+            byCategoryBits.computeIfAbsent(category, k -> new BitSet()).set(ordinal);
+            byEffort[catalog.getOperationalEffort(ordinal).ordinal()].set(ordinal);
+            
+            List<ApplicationType> useCases = catalog.getUseCases(ordinal);
+            if (useCases != null) {
+                for (ApplicationType useCase : useCases) {
+                    byUseCase[useCase.ordinal()].set(ordinal);
+                }
+            }
+            
+            if (catalog.isMandatory(ordinal)) {
+                mandatorySet.set(ordinal);
+            }
+        }
+        
+        Map<String, List<AwsService>> byCategory = new HashMap<>();
+        byCategoryBits.forEach((category, bits) -> byCategory.put(category, new ServiceList(bits.stream().toArray())));
+        
+        this.ordinalsById = Collections.unmodifiableMap(ordinals);
+        this.servicesByCategory = Collections.unmodifiableMap(byCategory);
+        this.mandatoryServices = new ServiceList(mandatorySet.stream().toArray());
+        this.mandatoryBits = mandatorySet;
+        this.useCaseBits = byUseCase;
+        this.effortBits = byEffort;
+        this.categoryBits = byCategoryBits;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public int size() {
+        return services.size();
+    }
+    
+    public List<AwsService> getServices() {
+        return services;
+    }
+    
+    /**
+     * Service at an ordinal, decoded from the catalog on first access
+     */
+    public AwsService getService(int ordinal) {
+        AwsService service = decoded.get(ordinal);
+        if (service == null) {
+            AwsService fresh = catalog.getService(ordinal);
+            service = decoded.compareAndExchange(ordinal, null, fresh);
+            if (service == null) {
+                service = fresh;
+            }
+        }
+        return service;
+    }
+    
+    /**
+     * Ordinal of the service with the given id, or -1 if it is not in the catalog
+     */
+    public int ordinalOf(String id) {
+        Integer ordinal = ordinalsById.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+    
+    public AwsService getServiceById(String id) {
+        int ordinal = ordinalOf(id);
+        return ordinal >= 0 ? getService(ordinal) : null;
+    }
+    
+    public List<AwsService> getServicesByCategory(String category) {
+        return servicesByCategory.getOrDefault(category, List.of());
+    }
+    
+    public List<AwsService> getMandatoryServices() {
+        return mandatoryServices;
+    }
+    
+    public BitSet getMandatoryBits() {
+        return mandatoryBits;
+    }
+    
+    public BitSet getUseCaseBits(ApplicationType useCase) {
+        return useCase != null ? useCaseBits[useCase.ordinal()] : EMPTY;
+    }
+    
+    public BitSet getEffortBits(Level operationalEffort) {
+        return operationalEffort != null ? effortBits[operationalEffort.ordinal()] : EMPTY;
+    }
+    
+    public BitSet getCategoryBits(String category) {
+        return categoryBits.getOrDefault(category, EMPTY);
+    }
+    
+    public Map<String, Double> getPricing(String serviceId) {
+        return getPricingTable().get(serviceId);
+    }
+    
+    /**
+     * Raw pricing table, decoded from the catalog on first access
+     */
+    public Map<String, Map<String, Double>> getPricingTable() {
+        Map<String, Map<String, Double>> table = pricingTable;
+        if (table == null) {
+            table = Collections.unmodifiableMap(catalog.decodePricing());
+            pricingTable = table;
+        }
+        return table;
+    }
+    
+    public PricingVectors getPricingVectors() {
+        return pricingVectors;
+    }
+    
+    /**
+     * Binary catalog backing this snapshot
+     */
+    public BinaryCatalog getCatalog() {
+        return catalog;
+    }
+    
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] sets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            sets[i] = new BitSet();
+        }
+        return sets;
+    }
+    
+    /**
+     * Read-only list of services by ordinal, decoding lazily through the snapshot
+     */
+    private final class ServiceList extends AbstractList<AwsService> implements RandomAccess {
+        
+        private final int[] ordinals; // null for the whole catalog
+        
+        ServiceList(int[] ordinals) {
+            this.ordinals = ordinals;
+        }
+        
+        @Override
+        public AwsService get(int index) {
+            return getService(ordinals != null ? ordinals[index] : index);
+        }
+        
+        @Override
+        public int size() {
+            return ordinals != null ? ordinals.length : catalog.size();
+        }
+    }
+}
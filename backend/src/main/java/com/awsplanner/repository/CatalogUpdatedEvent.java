@@ -0,0 +1,18 @@
+package com.awsplanner.repository;
+
+/**
+ * Published after a new catalog snapshot has been swapped in, on the thread
+ * that performed the update, so derived structures can be rebuilt off the request path
+ */
+public class CatalogUpdatedEvent {
+    
+    private final CatalogSnapshot snapshot;
+    
+    public CatalogUpdatedEvent(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
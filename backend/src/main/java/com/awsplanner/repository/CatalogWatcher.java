@@ -0,0 +1,98 @@
+package com.awsplanner.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the external catalog directory and reloads the knowledge base when
+ * its files change. Parsing, validation and the rebuild of derived structures
+ * run on the watcher thread; requests keep using the previous snapshot until
+ * the new one is swapped in.
+ */
+@Component
+public class CatalogWatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CatalogWatcher.class);
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    @Value("${catalog.reload-debounce-ms:500}")
+    private long debounceMillis;
+    
+    private WatchService watchService;
+    private Thread watcherThread;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        Path directory = knowledgeBase.getCatalogDirectory();
+        if (directory == null) {
+            return;
+        }
+        
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+        
+        watcherThread = new Thread(this::watch, "catalog-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("Watching {} for catalog changes", directory);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+    
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                
+                // Let writers finish: keep collecting events until the directory is quiet
+                do {
+                    key.pollEvents();
+                    key.reset();
+                } while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null);
+                
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+    
+    private void reload() {
+        try {
+            long started = System.nanoTime();
+            knowledgeBase.reload();
+            logger.info("Reloaded catalog version {} with {} services in {} ms",
+                knowledgeBase.getCatalogVersion(),
+                knowledgeBase.getAllServices().size(),
+                (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Catalog reload failed, keeping version {}: {}",
+                knowledgeBase.getCatalogVersion(), e.getMessage());
+        } catch (Throwable e) {
+            // E.g. an InternalError from a mapped file; the watcher must outlive it
+            logger.error("Catalog reload failed, keeping version {}",
+                knowledgeBase.getCatalogVersion(), e);
+        }
+    }
+}
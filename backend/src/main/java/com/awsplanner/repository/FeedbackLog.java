@@ -0,0 +1,325 @@
+package com.awsplanner.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records with consecutive ids, stored in segment files.
+ *
+ * A segment is named after the id of its first record and starts with an 8-byte
+ * header (magic, format version). Each record is
+ * <pre>
+ *   int  payload length
+ *   int  CRC32 of id and payload
+ *   long id
+ *   byte[length] payload
+ * </pre>
+ * Records are buffered by {@link #append} and made durable together by
+ * {@link #commit}, which writes them and forces the segment to disk once (group
+ * commit). Readers only see committed records. On open, a torn or corrupt tail of
+ * the last segment, left by a crash during a commit, is truncated.
+ *
+ * Appending and committing must happen on a single thread; reads are thread-safe.
+ */
+public final class FeedbackLog implements Closeable {
+    
+    private static final String SEGMENT_PREFIX = "feedback-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAGIC = 0x46424C47; // "FBLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 16;
+    
+    public static final int MAX_RECORD_BYTES = 1 << 20;
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>(); // first id -> file
+    
+    private FileChannel active;
+    private long activeSize;    // Bytes written to the active segment
+    private long committedSize; // Bytes of the active segment known to be on disk
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private long nextId;
+    private volatile long committedId;
+    
+    private FeedbackLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+    
+    /**
+     * Open the log in a directory, creating it if needed, and recover the last segment
+     */
+    public static FeedbackLog open(Path directory, long segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        FeedbackLog log = new FeedbackLog(directory, segmentBytes);
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(FeedbackLog::isSegment)
+                 .forEach(file -> log.segments.put(firstIdOf(file), file));
+        }
+        
+        if (log.segments.isEmpty()) {
+            log.nextId = 1;
+            log.startSegment();
+        } else {
+            Map.Entry<Long, Path> last = log.segments.lastEntry();
+            log.active = FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log.recover(last.getKey());
+        }
+        log.committedId = log.nextId - 1;
+        return log;
+    }
+    
+    /**
+     * Id the next appended record will get
+     */
+    public long getNextId() {
+        return nextId;
+    }
+    
+    /**
+     * Highest id that is durable and visible to readers, 0 if the log is empty
+     */
+    public long getCommittedId() {
+        return committedId;
+    }
+    
+    /**
+     * Buffer a record under the next id; not durable or visible until committed
+     */
+    public long append(byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Record exceeds " + MAX_RECORD_BYTES + " bytes");
+        }
+        
+        int recordBytes = RECORD_HEADER_BYTES + payload.length;
+        if (activeSize + pending.position() + recordBytes > segmentBytes
+                && activeSize + pending.position() > SEGMENT_HEADER_BYTES) {
+            // Records of the full segment are durable once it is forced
+            writePending();
+            active.force(false);
+            committedId = nextId - 1;
+            active.close();
+            startSegment();
+        }
+        
+        if (pending.remaining() < recordBytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + recordBytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        
+        long id = nextId++;
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, id));
+        crc.update(payload);
+        pending.putInt(payload.length).putInt((int) crc.getValue()).putLong(id).put(payload);
+        return id;
+    }
+    
+    /**
+     * Write all buffered records and force them to disk with a single fsync
+     */
+    public void commit() throws IOException {
+        writePending();
+        active.force(false);
+        committedSize = activeSize;
+        committedId = nextId - 1;
+    }
+    
+    /**
+     * Drop the records that are not durable after a failed append or commit and cut
+     * the active segment back to its last committed record. Records up to
+     * {@link #getCommittedId()} stay; the rest can be appended again.
+     */
+    public void rollback() throws IOException {
+        pending.clear();
+        nextId = committedId + 1;
+        if (!active.isOpen()) {
+            startSegment();
+            return;
+        }
+        active.truncate(committedSize);
+        active.position(committedSize);
+        activeSize = committedSize;
+    }
+    
+    /**
+     * Up to limit committed payloads with ids above afterId, in id order
+     */
+    public List<byte[]> read(long afterId, int limit) throws IOException {
+        long lastId = committedId;
+        List<byte[]> records = new ArrayList<>(Math.min(limit, 1024));
+        Long start = segments.floorKey(afterId + 1);
+        
+        for (Path segment : segments.tailMap(start != null ? start : Long.MIN_VALUE).values()) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long position = SEGMENT_HEADER_BYTES;
+                ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+                while (records.size() < limit) {
+                    header.clear();
+                    if (readFully(channel, header, position) < RECORD_HEADER_BYTES) {
+                        break;
+                    }
+                    int length = header.getInt(0);
+                    long id = header.getLong(8);
+                    if (id > lastId) {
+                        return records;
+                    }
+                    if (id > afterId) {
+                        ByteBuffer payload = ByteBuffer.allocate(length);
+                        if (readFully(channel, payload, position + RECORD_HEADER_BYTES) < length) {
+                            throw new IOException("Truncated record " + id + " in " + segment);
+                        }
+                        records.add(payload.array());
+                    }
+                    position += RECORD_HEADER_BYTES + length;
+                }
+            }
+            if (records.size() >= limit) {
+                break;
+            }
+        }
+        return records;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (active != null) {
+            active.close();
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+    
+    private static long firstIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    private void startSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextId, SEGMENT_SUFFIX));
+        // A file of the same name can only be left from a failed roll, without committed records
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        active = channel;
+        forceDirectory();
+        activeSize = SEGMENT_HEADER_BYTES;
+        committedSize = SEGMENT_HEADER_BYTES;
+        segments.put(nextId, file);
+    }
+    
+    /**
+     * Scan the active segment, keep its valid prefix of records and truncate the rest
+     */
+    private void recover(long firstId) throws IOException {
+        ByteBuffer segmentHeader = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        if (readFully(active, segmentHeader, 0) < SEGMENT_HEADER_BYTES) {
+            // Crashed while creating the segment
+            active.close();
+            nextId = firstId;
+            startSegment();
+            return;
+        }
+        if (segmentHeader.getInt(0) != MAGIC || segmentHeader.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a feedback log segment: " + segments.get(firstId));
+        }
+        
+        long position = SEGMENT_HEADER_BYTES;
+        long expectedId = firstId;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (true) {
+            header.clear();
+            if (readFully(active, header, position) < RECORD_HEADER_BYTES) {
+                break;
+            }
+            int length = header.getInt(0);
+            long id = header.getLong(8);
+            if (length < 0 || length > MAX_RECORD_BYTES || id != expectedId) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (readFully(active, payload, position + RECORD_HEADER_BYTES) < length) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(ByteBuffer.allocate(8).putLong(0, id));
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            position += RECORD_HEADER_BYTES + length;
+            expectedId++;
+        }
+        
+        if (position < active.size()) {
+            active.truncate(position);
+            active.force(true);
+        }
+        active.position(position);
+        activeSize = position;
+        committedSize = position;
+        nextId = expectedId;
+    }
+    
+    private void writePending() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            activeSize += active.write(pending);
+        }
+        pending.clear();
+    }
+    
+    /**
+     * Make a new segment's directory entry durable; not supported on every platform
+     */
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+            // Directory fsync is best effort
+        }
+    }
+    
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
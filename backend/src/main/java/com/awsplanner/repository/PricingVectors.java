@@ -0,0 +1,80 @@
+package com.awsplanner.repository;
+
+import com.awsplanner.model.AwsService;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pricing table compiled into dense per-service coefficient vectors.
+ *
+ * Each service ordinal owns {@link #DIMENSIONS} consecutive coefficients over a fixed
+ * set of usage dimensions, so the cost of a service is a dot product with a usage
+ * vector. Services without a pricing entry have all-zero coefficients. The
+ * coefficients are read from a buffer, which may be a view into a mapped
+ * {@link BinaryCatalog}.
+ */
+public final class PricingVectors {
+    
+    public static final int BASE = 0;
+    public static final int TRAFFIC_UNITS = 1;
+    public static final int MILLION_REQUESTS = 2;
+    public static final int STORAGE_GB = 3;
+    public static final int GB_SECONDS = 4;
+    public static final int DIMENSIONS = 5;
+    
+    private final DoubleBuffer coefficients;
+    
+    public PricingVectors(DoubleBuffer coefficients) {
+        this.coefficients = coefficients;
+    }
+    
+    /**
+     * Compile the pricing table for the given services, in catalog order
+     */
+    public static PricingVectors compile(List<AwsService> services,
+                                         Map<String, Map<String, Double>> pricingTable) {
+        double[] coefficients = new double[services.size() * DIMENSIONS];
+        
+        for (int ordinal = 0; ordinal < services.size(); ordinal++) {
+            Map<String, Double> pricing = pricingTable.get(services.get(ordinal).getId());
+            if (pricing != null) {
+                compile(pricing, coefficients, ordinal * DIMENSIONS, 1);
+            }
+        }
+        
+        return new PricingVectors(DoubleBuffer.wrap(coefficients));
+    }
+    
+    /**
+     * Write the coefficients of one service's pricing entry to
+     * {@code coefficients[offset + d * stride]} for each dimension d
+     */
+    public static void compile(Map<String, Double> pricing, double[] coefficients, int offset, int stride) {
+        coefficients[offset + BASE * stride] = pricing.getOrDefault("baseCost", 0.0);
+        coefficients[offset + TRAFFIC_UNITS * stride] = pricing.getOrDefault("perTrafficUnit", 0.0);
+        coefficients[offset + MILLION_REQUESTS * stride] = pricing.getOrDefault("perMillionRequests", 0.0);
+        // perGB takes precedence over perStorageGB; perGBStorage is billed on top
+        coefficients[offset + STORAGE_GB * stride] =
+            pricing.getOrDefault("perGB", pricing.getOrDefault("perStorageGB", 0.0))
+            + pricing.getOrDefault("perGBStorage", 0.0);
+        coefficients[offset + GB_SECONDS * stride] = pricing.getOrDefault("perGBSecond", 0.0);
+    }
+    
+    /**
+     * Unrounded monthly cost of a service for the given usage vector
+     */
+    public double dot(int ordinal, double[] usage) {
+        int offset = ordinal * DIMENSIONS;
+        double cost = 0.0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            cost += coefficients.get(offset + d) * usage[d];
+        }
+        return cost;
+    }
+    
+    public double coefficient(int ordinal, int dimension) {
+        return coefficients.get(ordinal * DIMENSIONS + dimension);
+    }
+}
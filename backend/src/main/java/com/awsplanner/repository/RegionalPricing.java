@@ -0,0 +1,191 @@
+package com.awsplanner.repository;
+
+import com.awsplanner.model.Region;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pricing coefficients of services in every region.
+ *
+ * Each service has one primitive block holding, per pricing dimension, the
+ * coefficients of all regions side by side:
+ * {@code block[d * regions + r]}. Pricing an architecture in every region is then
+ * a single pass over its services, each a few unit-stride multiply-adds across the
+ * region axis, instead of one cost estimation per region. Blocks are compiled the
+ * first time a service is priced, so memory grows with the services actually
+ * recommended rather than with catalog size times regions.
+ *
+ * A region's prices are the base pricing table scaled by its multiplier. A
+ * service with a regional price entry uses those prices for the keys it lists
+ * and scaled base prices for the rest.
+ */
+public final class RegionalPricing {
+    
+    private final long catalogVersion;
+    private final PricingVectors base;
+    private final String[] codes;
+    private final String[] names;
+    private final double[] multipliers;
+    private final int regions;
+    private final Map<Integer, Map<Integer, Map<String, Double>>> overrides; // Ordinal -> region -> prices
+    private final Map<Integer, double[]> blocks = new ConcurrentHashMap<>();
+    
+    private RegionalPricing(long catalogVersion, PricingVectors base, String[] codes, String[] names,
+                            double[] multipliers, Map<Integer, Map<Integer, Map<String, Double>>> overrides) {
+        this.catalogVersion = catalogVersion;
+        this.base = base;
+        this.codes = codes;
+        this.names = names;
+        this.multipliers = multipliers;
+        this.regions = codes.length;
+        this.overrides = overrides;
+    }
+    
+    /**
+     * Compile region definitions against a catalog snapshot.
+     * Regional prices for services missing from the catalog are ignored.
+     */
+    public static RegionalPricing compile(CatalogSnapshot catalog, List<Region> regionList) {
+        validateRegions(regionList);
+        int regions = regionList.size();
+        String[] codes = new String[regions];
+        String[] names = new String[regions];
+        double[] multipliers = new double[regions];
+        Map<Integer, Map<Integer, Map<String, Double>>> overrides = new HashMap<>();
+        
+        for (int r = 0; r < regions; r++) {
+            Region region = regionList.get(r);
+            codes[r] = region.getCode();
+            names[r] = region.getName();
+            multipliers[r] = region.getPriceMultiplier();
+            if (region.getPricing() == null) {
+                continue;
+            }
+            for (Map.Entry<String, Map<String, Double>> entry : region.getPricing().entrySet()) {
+                int ordinal = catalog.ordinalOf(entry.getKey());
+                if (ordinal < 0) {
+                    continue;
+                }
+                Map<String, Double> prices = new HashMap<>();
+                Map<String, Double> basePrices = catalog.getPricing(entry.getKey());
+                if (basePrices != null) {
+                    basePrices.forEach((key, value) -> prices.put(key, value * region.getPriceMultiplier()));
+                }
+                prices.putAll(entry.getValue());
+                overrides.computeIfAbsent(ordinal, key -> new HashMap<>()).put(r, prices);
+            }
+        }
+        
+        return new RegionalPricing(catalog.getVersion(), catalog.getPricingVectors(), codes, names, multipliers,
+                                   overrides);
+    }
+    
+    /**
+     * Monthly cost of a set of services in every region, rounded like
+     * {@code CostEstimationService.calculateMonthlyCost}: per service, then in total.
+     * Negative ordinals (services not in the catalog) cost nothing.
+     */
+    public double[] monthlyCosts(int[] ordinals, double[] usage) {
+        double[] totals = new double[regions];
+        double[] serviceCosts = new double[regions];
+        
+        for (int ordinal : ordinals) {
+            if (ordinal < 0) {
+                continue;
+            }
+            Arrays.fill(serviceCosts, 0.0);
+            double[] block = blockOf(ordinal);
+            for (int d = 0; d < PricingVectors.DIMENSIONS; d++) {
+                double amount = usage[d];
+                if (amount == 0.0) {
+                    continue;
+                }
+                int offset = d * regions;
+                for (int r = 0; r < regions; r++) {
+                    serviceCosts[r] += block[offset + r] * amount;
+                }
+            }
+            for (int r = 0; r < regions; r++) {
+                totals[r] += Math.round(serviceCosts[r] * 100.0) / 100.0;
+            }
+        }
+        
+        for (int r = 0; r < regions; r++) {
+            totals[r] = Math.round(totals[r] * 100.0) / 100.0;
+        }
+        return totals;
+    }
+    
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+    
+    public int size() {
+        return regions;
+    }
+    
+    public String getCode(int region) {
+        return codes[region];
+    }
+    
+    public String getName(int region) {
+        return names[region];
+    }
+    
+    public double coefficient(int ordinal, int region, int dimension) {
+        return blockOf(ordinal)[dimension * regions + region];
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private double[] blockOf(int ordinal) {
+        double[] block = blocks.get(ordinal);
+        return block != null ? block : blocks.computeIfAbsent(ordinal, this::compileBlock);
+    }
+    
+    private double[] compileBlock(int ordinal) {
+        double[] block = new double[PricingVectors.DIMENSIONS * regions];
+        for (int d = 0; d < PricingVectors.DIMENSIONS; d++) {
+            double coefficient = base.coefficient(ordinal, d);
+            for (int r = 0; r < regions; r++) {
+                block[d * regions + r] = coefficient * multipliers[r];
+            }
+        }
+        Map<Integer, Map<String, Double>> regional = overrides.get(ordinal);
+        if (regional != null) {
+            regional.forEach((region, prices) -> PricingVectors.compile(prices, block, region, regions));
+        }
+        return block;
+    }
+    
+    /**
+     * Reject empty region lists, duplicate or missing codes and invalid prices
+     */
+    private static void validateRegions(List<Region> regions) {
+        if (regions == null || regions.isEmpty()) {
+            throw new IllegalArgumentException("Region list is empty");
+        }
+        
+        Set<String> codes = new HashSet<>();
+        for (Region region : regions) {
+            if (region == null || region.getCode() == null || region.getName() == null) {
+                throw new IllegalArgumentException("Incomplete region entry: " + region);
+            }
+            if (!codes.add(region.getCode())) {
+                throw new IllegalArgumentException("Duplicate region code: " + region.getCode());
+            }
+            if (!(region.getPriceMultiplier() > 0) || !Double.isFinite(region.getPriceMultiplier())) {
+                throw new IllegalArgumentException("Invalid price multiplier for " + region.getCode());
+            }
+            if (region.getPricing() != null) {
+                ServiceKnowledgeBase.validatePricing(region.getPricing());
+            }
+        }
+    }
+}
@@ -1,79 +1,285 @@
 package com.awsplanner.repository;
 
 import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Region;
+import com.awsplanner.model.ScoringPolicies;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Repository;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
- * Repository for AWS service metadata and pricing information
+ * Repository for AWS service metadata and pricing information.
+ * The catalog is published as an immutable {@link CatalogSnapshot}; readers that
+ * need a consistent view across several lookups should hold on to one snapshot,
+ * or pin it for the current thread with {@link #withSnapshot}.
+ * 
+ * Catalog files are read from {@code catalog.directory} when configured, falling
+ * back to the bundled classpath data for files that are not present there. A
+ * compiled {@link BinaryCatalog} in that directory takes precedence over the JSON
+ * files and is memory-mapped instead of parsed.
+ * 
+ * Without overrides the catalog comes from the binary catalog compiled from the
+ * bundled JSON at build time, so startup reads it in place instead of parsing
+ * and binding JSON; the bundled JSON is only read if that resource is missing or
+ * unreadable (e.g. in an IDE build that skipped the Maven step).
  */
 @Repository
 public class ServiceKnowledgeBase {
     
-    private List<AwsService> allServices;
-    private Map<String, Map<String, Double>> pricingTable;
+    private static final Logger logger = LoggerFactory.getLogger(ServiceKnowledgeBase.class);
+    
+    public static final String SERVICES_FILE = "aws-services.json";
+    public static final String PRICING_FILE = "pricing-table.json";
+    public static final String REGIONS_FILE = "regions.json";
+    public static final String SCORING_POLICIES_FILE = "scoring-policies.json";
+    
+    private volatile CatalogSnapshot snapshot;
+    private final ThreadLocal<CatalogSnapshot> pinnedSnapshot = new ThreadLocal<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${catalog.directory:}")
+    private String catalogDirectory;
+    
     @PostConstruct
     public void init() throws IOException {
-        loadServices();
-        loadPricing();
-        System.out.println("Loaded " + allServices.size() + " AWS services");
+        long start = System.nanoTime();
+        String source = load();
+        System.out.println("Loaded " + snapshot.size() + " AWS services from " + source
+            + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
+    /**
+     * Parse and validate the catalog files, then publish them as a new snapshot.
+     * On failure the current snapshot stays in place.
+     */
+    public void reload() throws IOException {
+        load();
+    }
+    
+    /**
+     * Reject catalogs with incomplete or duplicate services or invalid prices
+     */
+    public static void validateCatalog(List<AwsService> services, Map<String, Map<String, Double>> pricing) {
+        if (services == null || services.isEmpty()) {
+            throw new IllegalArgumentException("Catalog contains no services");
+        }
+        
+        Set<String> ids = new HashSet<>();
+        for (AwsService service : services) {
+            if (service == null || service.getId() == null || service.getName() == null
+                    || service.getCategory() == null || service.getCostLevel() == null
+                    || service.getScalability() == null || service.getOperationalEffort() == null
+                    || service.getUseCases() == null) {
+                throw new IllegalArgumentException("Incomplete service entry: " + service);
+            }
+            if (!ids.add(service.getId())) {
+                throw new IllegalArgumentException("Duplicate service id: " + service.getId());
+            }
+        }
+        
+        validatePricing(pricing);
+    }
+    
+    /**
+     * Reject pricing tables with missing entries or negative or non-finite prices
+     */
+    public static void validatePricing(Map<String, Map<String, Double>> pricing) {
+        if (pricing == null) {
+            throw new IllegalArgumentException("Pricing table is missing");
+        }
+        for (Map.Entry<String, Map<String, Double>> entry : pricing.entrySet()) {
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("Missing pricing for " + entry.getKey());
+            }
+            for (Map.Entry<String, Double> price : entry.getValue().entrySet()) {
+                Double value = price.getValue();
+                if (value == null || value < 0 || !Double.isFinite(value)) {
+                    throw new IllegalArgumentException(
+                        "Invalid price " + price.getKey() + "=" + value + " for " + entry.getKey());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Region definitions, from {@code catalog.directory} if present there. They are
+     * read on demand rather than with the catalog, so startup does not parse them.
+     */
+    public List<Region> readRegions() throws IOException {
+        return readCatalogFile(REGIONS_FILE, new TypeReference<List<Region>>() {});
+    }
+    
+    /**
+     * Scoring policies, from {@code catalog.directory} if present there
+     */
+    public ScoringPolicies readScoringPolicies() throws IOException {
+        return readCatalogFile(SCORING_POLICIES_FILE, new TypeReference<ScoringPolicies>() {});
+    }
+    
+    /**
+     * Directory watched for catalog overrides, or null if only classpath data is used
+     */
+    public Path getCatalogDirectory() {
+        return catalogDirectory == null || catalogDirectory.isBlank() ? null : Path.of(catalogDirectory);
     }
     
-    private void loadServices() throws IOException {
-        ClassPathResource resource = new ClassPathResource("data/aws-services.json");
-        allServices = objectMapper.readValue(
-            resource.getInputStream(),
-            new TypeReference<List<AwsService>>() {}
-        );
+    /**
+     * Replace the service catalog and pricing table, e.g. with an updated price list.
+     * The new snapshot is published with a single reference swap; readers never block.
+     */
+    public void updateCatalog(List<AwsService> services, Map<String, Map<String, Double>> pricing) {
+        updateCatalog(BinaryCatalog.encode(services, pricing));
     }
     
-    private void loadPricing() throws IOException {
-        ClassPathResource resource = new ClassPathResource("data/pricing-table.json");
-        pricingTable = objectMapper.readValue(
-            resource.getInputStream(),
-            new TypeReference<Map<String, Map<String, Double>>>() {}
-        );
+    /**
+     * Replace the catalog with an already validated binary catalog
+     */
+    public synchronized void updateCatalog(BinaryCatalog catalog) {
+        long version = snapshot != null ? snapshot.getVersion() + 1 : 1;
+        CatalogSnapshot updated = new CatalogSnapshot(version, catalog);
+        snapshot = updated;
+        eventPublisher.publishEvent(new CatalogUpdatedEvent(updated));
+    }
+    
+    /**
+     * Current catalog snapshot, or the snapshot pinned for the current thread
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot pinned = pinnedSnapshot.get();
+        return pinned != null ? pinned : snapshot;
+    }
+    
+    /**
+     * Run work with the given snapshot pinned for the current thread, so every lookup
+     * it makes sees the same catalog even if a reload happens meanwhile
+     */
+    public <T> T withSnapshot(CatalogSnapshot catalog, Supplier<T> work) {
+        CatalogSnapshot previous = pinnedSnapshot.get();
+        pinnedSnapshot.set(catalog);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                pinnedSnapshot.set(previous);
+            } else {
+                pinnedSnapshot.remove();
+            }
+        }
+    }
+    
+    /**
+     * Monotonic version of the loaded catalog, incremented on every change
+     */
+    public long getCatalogVersion() {
+        return getSnapshot().getVersion();
     }
     
     public List<AwsService> getAllServices() {
-        return new ArrayList<>(allServices);
+        return getSnapshot().getServices();
     }
     
     public AwsService getServiceById(String id) {
-        return allServices.stream()
-            .filter(s -> s.getId().equals(id))
-            .findFirst()
-            .orElse(null);
+        return getSnapshot().getServiceById(id);
     }
     
     public List<AwsService> getServicesByCategory(String category) {
-        return allServices.stream()
-            .filter(s -> s.getCategory().equals(category))
-            .collect(Collectors.toList());
+        return getSnapshot().getServicesByCategory(category);
     }
     
     public List<AwsService> getMandatoryServices() {
-        return allServices.stream()
-            .filter(AwsService::isMandatory)
-            .collect(Collectors.toList());
+        return getSnapshot().getMandatoryServices();
     }
     
     public Map<String, Double> getPricingForService(String serviceId) {
-        return pricingTable.get(serviceId);
+        return getSnapshot().getPricing(serviceId);
     }
     
     public Map<String, Map<String, Double>> getAllPricing() {
-        return pricingTable;
+        return getSnapshot().getPricingTable();
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Publish the highest-precedence catalog available; returns where it came from
+     */
+    private String load() throws IOException {
+        Path directory = getCatalogDirectory();
+        if (directory != null && Files.isRegularFile(directory.resolve(BinaryCatalog.FILE_NAME))) {
+            updateCatalog(checkNotEmpty(BinaryCatalog.open(directory.resolve(BinaryCatalog.FILE_NAME))));
+            return directory.resolve(BinaryCatalog.FILE_NAME).toString();
+        }
+        
+        boolean overridden = directory != null && (Files.isRegularFile(directory.resolve(SERVICES_FILE))
+            || Files.isRegularFile(directory.resolve(PRICING_FILE)));
+        if (!overridden) {
+            BinaryCatalog bundled = readBundledCatalog();
+            if (bundled != null) {
+                updateCatalog(bundled);
+                return "classpath:" + BinaryCatalog.BUNDLED_RESOURCE;
+            }
+        }
+        
+        List<AwsService> services = readCatalogFile(SERVICES_FILE, new TypeReference<List<AwsService>>() {});
+        Map<String, Map<String, Double>> pricing =
+            readCatalogFile(PRICING_FILE, new TypeReference<Map<String, Map<String, Double>>>() {});
+        
+        validateCatalog(services, pricing);
+        updateCatalog(services, pricing);
+        return overridden ? directory + " (JSON)" : "classpath:data (JSON)";
+    }
+    
+    /**
+     * The catalog compiled at build time, or null if it is missing or unusable
+     */
+    private BinaryCatalog readBundledCatalog() throws IOException {
+        ClassPathResource resource = new ClassPathResource(BinaryCatalog.BUNDLED_RESOURCE);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return checkNotEmpty(BinaryCatalog.read(in));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring bundled compiled catalog, reading JSON instead: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static BinaryCatalog checkNotEmpty(BinaryCatalog catalog) {
+        if (catalog.size() == 0) {
+            throw new IllegalArgumentException("Catalog contains no services");
+        }
+        return catalog;
+    }
+    
+    private <T> T readCatalogFile(String fileName, TypeReference<T> type) throws IOException {
+        Path directory = getCatalogDirectory();
+        if (directory != null && Files.isRegularFile(directory.resolve(fileName))) {
+            try (InputStream in = Files.newInputStream(directory.resolve(fileName))) {
+                return objectMapper.readValue(in, type);
+            }
+        }
+        
+        ClassPathResource resource = new ClassPathResource("data/" + fileName);
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, type);
+        }
     }
 }
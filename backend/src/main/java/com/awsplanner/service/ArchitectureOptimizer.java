@@ -0,0 +1,153 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.ServiceScore;
+import com.awsplanner.model.UserRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Fits the ranked architecture to the budget.
+ *
+ * The decision engine picks the top-scoring service per category regardless of
+ * cost. When that architecture exceeds the monthly budget, this service searches
+ * for the highest total score over the same categories whose summed service
+ * costs, plus the mandatory services, stay within budget ({@link BudgetSolver}).
+ */
+@Service
+public class ArchitectureOptimizer {
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    /**
+     * Scored choices per category for a requirement; depends only on the fields
+     * used for selection, so it can be reused across storage sizes and budgets
+     * within one budget band
+     */
+    public static final class Candidates {
+        
+        private final List<String> categories = new ArrayList<>();
+        private final List<List<AwsService>> services = new ArrayList<>();
+        private final double[][] scores;
+        
+        Candidates(Map<String, List<ServiceScore>> byCategory) {
+            scores = new double[byCategory.size()][];
+            for (Map.Entry<String, List<ServiceScore>> entry : byCategory.entrySet()) {
+                List<AwsService> choices = new ArrayList<>(entry.getValue().size());
+                double[] choiceScores = new double[entry.getValue().size()];
+                for (ServiceScore score : entry.getValue()) {
+                    choiceScores[choices.size()] = score.getScore();
+                    choices.add(score.getService());
+                }
+                scores[categories.size()] = choiceScores;
+                categories.add(entry.getKey());
+                services.add(choices);
+            }
+        }
+        
+        public List<String> getCategories() {
+            return categories;
+        }
+        
+        /**
+         * Candidate services of a category, in the order of its scores
+         */
+        public List<AwsService> getServices(int category) {
+            return services.get(category);
+        }
+        
+        public double[][] getScores() {
+            return scores;
+        }
+    }
+    
+    public Candidates candidates(UserRequirement req) {
+        return new Candidates(decisionEngine.scoreByCategory(req));
+    }
+    
+    /**
+     * The selected architecture if it fits the budget, otherwise the best-scoring
+     * architecture over the same categories that does, or the selection unchanged
+     * if no combination fits
+     */
+    public List<AwsService> fitToBudget(List<AwsService> selected, UserRequirement req) {
+        if (costEstimation.calculateMonthlyCost(selected, req) <= req.getMonthlyBudget()) {
+            return selected;
+        }
+        List<AwsService> fitted = fit(candidates(req), selected, req);
+        return fitted != null ? fitted : selected;
+    }
+    
+    /**
+     * Best-scoring architecture within the requirement's budget and storage,
+     * replacing each category of the selection; null if nothing fits
+     */
+    public List<AwsService> fit(Candidates candidates, List<AwsService> selected, UserRequirement req) {
+        double[] usage = costEstimation.usageVector(req);
+        return fit(candidates, selected, service -> costEstimation.calculateServiceCost(service, usage),
+                   req.getMonthlyBudget());
+    }
+    
+    /**
+     * Best-scoring architecture within a budget given the monthly cost of each
+     * candidate and selected service; null if nothing fits
+     */
+    public List<AwsService> fit(Candidates candidates, List<AwsService> selected,
+                                ToDoubleFunction<AwsService> serviceCost, double budget) {
+        // Services outside the searched categories (mandatory ones) are kept and paid first
+        Set<String> searched = new HashSet<>(candidates.categories);
+        double fixedCost = 0.0;
+        for (AwsService service : selected) {
+            if (!searched.contains(service.getCategory())) {
+                fixedCost += serviceCost.applyAsDouble(service);
+            }
+        }
+        
+        double[][] costs = costs(candidates, serviceCost);
+        int[] choice = new BudgetSolver(candidates.scores, costs).solve(budget - fixedCost);
+        if (choice == null) {
+            return null;
+        }
+        
+        Map<String, AwsService> chosen = new HashMap<>();
+        for (int k = 0; k < choice.length; k++) {
+            chosen.put(candidates.categories.get(k), candidates.services.get(k).get(choice[k]));
+        }
+        
+        // Keep the category order of the ranked selection
+        List<AwsService> fitted = new ArrayList<>(selected.size());
+        for (AwsService service : selected) {
+            fitted.add(chosen.getOrDefault(service.getCategory(), service));
+        }
+        return fitted;
+    }
+    
+    /**
+     * Monthly cost of every candidate, per category, for the given usage vector
+     */
+    public double[][] costs(Candidates candidates, double[] usage) {
+        return costs(candidates, service -> costEstimation.calculateServiceCost(service, usage));
+    }
+    
+    /**
+     * Monthly cost of every candidate, per category, from already known service costs
+     */
+    public double[][] costs(Candidates candidates, ToDoubleFunction<AwsService> serviceCost) {
+        double[][] costs = new double[candidates.categories.size()][];
+        for (int k = 0; k < costs.length; k++) {
+            List<AwsService> choices = candidates.services.get(k);
+            costs[k] = new double[choices.size()];
+            for (int i = 0; i < choices.size(); i++) {
+                costs[k][i] = serviceCost.applyAsDouble(choices.get(i));
+            }
+        }
+        return costs;
+    }
+}
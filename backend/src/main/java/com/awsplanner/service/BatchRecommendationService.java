@@ -0,0 +1,172 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.BatchResult;
+import com.awsplanner.model.UserRequirement;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates large batches of requirements in parallel and streams the results.
+ *
+ * Input is a JSON array or NDJSON stream of requirements, read incrementally with
+ * Jackson's streaming parser. At most {@code maxInFlight} requirements are parsed but
+ * not yet written at any time, so memory stays flat regardless of batch size. Results
+ * are written as NDJSON in completion order, each tagged with its batch index.
+ */
+@Service
+public class BatchRecommendationService {
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${recommendation.batch.threads:0}")
+    private int threads;
+    
+    @Value("${recommendation.batch.max-in-flight:64}")
+    private int maxInFlight;
+    
+    private ExecutorService executor;
+    
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "batch-recommend-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Read requirements from the input and write one NDJSON result line per requirement
+     */
+    public void process(InputStream in, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        CompletionService<BatchResult> completion = new ExecutorCompletionService<>(executor);
+        int inFlight = 0;
+        int index = 0;
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                JsonNode node = objectMapper.readTree(parser);
+                int itemIndex = index++;
+                completion.submit(() -> evaluate(itemIndex, node));
+                inFlight++;
+                
+                // Write whatever has completed, and block only when the window is full
+                Future<BatchResult> done;
+                while ((done = completion.poll()) != null) {
+                    write(writer, out, done);
+                    inFlight--;
+                }
+                if (inFlight >= maxInFlight) {
+                    write(writer, out, completion.take());
+                    inFlight--;
+                }
+                
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // Syntax errors end the batch; items read so far are still answered
+            write(writer, out, BatchResult.error(index, "Malformed batch input: " + e.getOriginalMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch processing interrupted", e);
+        }
+        
+        try {
+            while (inFlight > 0) {
+                write(writer, out, completion.take());
+                inFlight--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch processing interrupted", e);
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private BatchResult evaluate(int index, JsonNode node) {
+        try {
+            UserRequirement requirement = objectMapper.treeToValue(node, UserRequirement.class);
+            
+            Set<ConstraintViolation<UserRequirement>> violations = validator.validate(requirement);
+            if (!violations.isEmpty()) {
+                return BatchResult.error(index, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            }
+            
+            return new BatchResult(index, recommendationService.recommend(requirement), null);
+            
+        } catch (JsonProcessingException e) {
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+            return BatchResult.error(index, cause instanceof IllegalArgumentException
+                ? cause.getMessage()
+                : "Malformed requirement: " + e.getOriginalMessage());
+            
+        } catch (IllegalArgumentException e) {
+            return BatchResult.error(index, e.getMessage());
+            
+        } catch (Exception e) {
+            return BatchResult.error(index, "Internal server error: " + e.getMessage());
+        }
+    }
+    
+    private void write(ObjectWriter writer, OutputStream out, Future<BatchResult> done)
+            throws IOException, InterruptedException {
+        try {
+            write(writer, out, done.get());
+        } catch (ExecutionException e) {
+            // evaluate() handles its own exceptions, so only errors end up here
+            throw new IOException("Batch item failed", e.getCause());
+        }
+    }
+    
+    private void write(ObjectWriter writer, OutputStream out, BatchResult result) throws IOException {
+        out.write(writer.writeValueAsBytes(result));
+        out.write('\n');
+        out.flush();
+    }
+}
@@ -0,0 +1,290 @@
+package com.awsplanner.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Branch-and-bound search for the highest-scoring choice of one candidate per
+ * category whose summed cost fits a budget (a multiple-choice knapsack).
+ *
+ * Each category is first reduced to its Pareto front (no candidate that costs
+ * at least as much for no more score survives), sorted by cost. The search then
+ * branches on categories with the widest score range first, trying candidates
+ * from the highest score down, and prunes a branch when
+ * <ul>
+ *   <li>the cheapest completion of the remaining categories exceeds the budget, or</li>
+ *   <li>the LP relaxation of the remaining categories cannot beat the best solution
+ *       found. The relaxation starts from every category's cheapest candidate and
+ *       buys score increments along the upper convex hulls of the fronts, best
+ *       score per dollar first, the last one fractionally.</li>
+ * </ul>
+ */
+public final class BudgetSolver {
+    
+    private static final double EPSILON = 1e-9;
+    static final long MAX_NODES = 2_000_000;
+    
+    private final long maxNodes;
+    private final int categories;
+    private final int[] order;            // search depth -> category
+    private final int[][] front;          // category -> candidate indexes on the Pareto front, by cost
+    private final double[][] frontCost;
+    private final double[][] frontScore;
+    private final double[] suffixMinCost; // depth -> cheapest completion from that depth
+    private final double[] suffixMinScore; // depth -> score of that cheapest completion
+    private final int[] depthOf;          // category -> search depth
+    private final int[] stepCategory;     // convex hull steps of all fronts, best ratio first
+    private final double[] stepCost;
+    private final double[] stepScore;
+    private final int[] stepTarget;       // front index a hull step moves its category to
+    
+    private int[] path;
+    private int[] best;
+    private double bestScore;
+    private double bestCost;
+    private long nodes;
+    
+    /**
+     * @param scores per category, the score of each candidate
+     * @param costs  per category, the cost of each candidate
+     */
+    public BudgetSolver(double[][] scores, double[][] costs) {
+        this(scores, costs, MAX_NODES);
+    }
+    
+    /**
+     * Solver that visits at most the given number of search nodes per solve
+     */
+    BudgetSolver(double[][] scores, double[][] costs, long maxNodes) {
+        this.maxNodes = maxNodes;
+        this.categories = scores.length;
+        this.front = new int[categories][];
+        this.frontCost = new double[categories][];
+        this.frontScore = new double[categories][];
+        
+        double[] spread = new double[categories];
+        for (int k = 0; k < categories; k++) {
+            buildFront(k, scores[k], costs[k]);
+            int last = frontScore[k].length - 1;
+            spread[k] = last >= 0 ? frontScore[k][last] - frontScore[k][0] : 0.0;
+        }
+        
+        Integer[] bySpread = new Integer[categories];
+        for (int k = 0; k < categories; k++) {
+            bySpread[k] = k;
+        }
+        Arrays.sort(bySpread, Comparator.comparingDouble((Integer k) -> -spread[k]).thenComparingInt(k -> k));
+        this.order = Arrays.stream(bySpread).mapToInt(Integer::intValue).toArray();
+        
+        this.depthOf = new int[categories];
+        this.suffixMinCost = new double[categories + 1];
+        this.suffixMinScore = new double[categories + 1];
+        for (int d = categories - 1; d >= 0; d--) {
+            int k = order[d];
+            depthOf[k] = d;
+            boolean empty = frontCost[k].length == 0;
+            suffixMinCost[d] = suffixMinCost[d + 1] + (empty ? Double.POSITIVE_INFINITY : frontCost[k][0]);
+            suffixMinScore[d] = suffixMinScore[d + 1] + (empty ? 0.0 : frontScore[k][0]);
+        }
+        
+        // Hull steps of each category have decreasing ratios, so one global sort by
+        // ratio keeps every category's steps in hull order
+        List<double[]> steps = new ArrayList<>();
+        for (int k = 0; k < categories; k++) {
+            int[] hull = upperHull(frontCost[k], frontScore[k]);
+            for (int h = 1; h < hull.length; h++) {
+                double cost = frontCost[k][hull[h]] - frontCost[k][hull[h - 1]];
+                double gain = frontScore[k][hull[h]] - frontScore[k][hull[h - 1]];
+                steps.add(new double[]{k, cost, gain, gain / cost, hull[h]});
+            }
+        }
+        steps.sort(Comparator.comparingDouble((double[] step) -> -step[3]));
+        
+        this.stepCategory = new int[steps.size()];
+        this.stepCost = new double[steps.size()];
+        this.stepScore = new double[steps.size()];
+        this.stepTarget = new int[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            stepCategory[i] = (int) steps.get(i)[0];
+            stepCost[i] = steps.get(i)[1];
+            stepScore[i] = steps.get(i)[2];
+            stepTarget[i] = (int) steps.get(i)[4];
+        }
+    }
+    
+    /**
+     * Best candidate index per category within the budget, or null if nothing fits.
+     * Among equal scores the cheaper solution wins.
+     */
+    public int[] solve(double budget) {
+        path = new int[categories];
+        best = null;
+        bestScore = Double.NEGATIVE_INFINITY;
+        bestCost = Double.POSITIVE_INFINITY;
+        nodes = 0;
+        
+        if (suffixMinCost[0] <= budget + EPSILON) {
+            seedIncumbent(budget);
+            search(0, 0.0, 0.0, budget);
+        }
+        return best;
+    }
+    
+    /**
+     * Search nodes visited by the last solve; the search stops early, keeping the
+     * best solution so far, if this reaches the node limit
+     */
+    public long getNodes() {
+        return nodes;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private void search(int depth, double cost, double score, double budget) {
+        if (nodes >= maxNodes) {
+            return;
+        }
+        nodes++;
+        
+        if (depth == categories) {
+            if (score > bestScore + EPSILON || (score > bestScore - EPSILON && cost < bestCost - EPSILON)) {
+                bestScore = score;
+                bestCost = cost;
+                best = new int[categories];
+                for (int d = 0; d < categories; d++) {
+                    best[order[d]] = front[order[d]][path[d]];
+                }
+            }
+            return;
+        }
+        
+        double remaining = budget - cost;
+        double bound = score + upperBound(depth, remaining);
+        if (bound < bestScore - EPSILON
+                || (bound < bestScore + EPSILON && cost + suffixMinCost[depth] >= bestCost - EPSILON)) {
+            return;
+        }
+        
+        int k = order[depth];
+        double allowance = remaining - suffixMinCost[depth + 1];
+        for (int i = lastAffordable(frontCost[k], allowance); i >= 0; i--) {
+            path[depth] = i;
+            search(depth + 1, cost + frontCost[k][i], score + frontScore[k][i], budget);
+        }
+    }
+    
+    /**
+     * Start from the integer part of the LP relaxation: cheapest candidates, then whole
+     * hull steps by ratio while they fit. A category stops at its first step that does
+     * not fit, since its later steps build on it.
+     */
+    private void seedIncumbent(double budget) {
+        int[] chosen = new int[categories];
+        boolean[] stopped = new boolean[categories];
+        double left = budget - suffixMinCost[0];
+        double cost = suffixMinCost[0];
+        double score = suffixMinScore[0];
+        
+        for (int i = 0; i < stepCategory.length; i++) {
+            int k = stepCategory[i];
+            if (stopped[k]) {
+                continue;
+            }
+            if (stepCost[i] <= left + EPSILON) {
+                left -= stepCost[i];
+                cost += stepCost[i];
+                score += stepScore[i];
+                chosen[k] = stepTarget[i];
+            } else {
+                stopped[k] = true;
+            }
+        }
+        
+        best = new int[categories];
+        for (int k = 0; k < categories; k++) {
+            best[k] = front[k][chosen[k]];
+        }
+        bestScore = score;
+        bestCost = cost;
+    }
+    
+    /**
+     * LP relaxation bound on the score of the categories from the given depth on
+     */
+    private double upperBound(int depth, double remaining) {
+        double budget = remaining - suffixMinCost[depth];
+        if (budget < -EPSILON) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        
+        double bound = suffixMinScore[depth];
+        for (int i = 0; i < stepCategory.length && budget > 0; i++) {
+            if (depthOf[stepCategory[i]] < depth) {
+                continue; // Category already decided
+            }
+            if (stepCost[i] <= budget) {
+                budget -= stepCost[i];
+                bound += stepScore[i];
+            } else {
+                bound += stepScore[i] * budget / stepCost[i];
+                budget = 0;
+            }
+        }
+        return bound;
+    }
+    
+    /**
+     * Indexes of the upper convex hull of a front sorted by increasing cost and score
+     */
+    private static int[] upperHull(double[] cost, double[] score) {
+        int[] hull = new int[cost.length];
+        int size = 0;
+        for (int i = 0; i < cost.length; i++) {
+            // Drop the last point while it lies on or below the segment to the new point
+            while (size >= 2) {
+                int a = hull[size - 2];
+                int b = hull[size - 1];
+                double cross = (cost[b] - cost[a]) * (score[i] - score[a])
+                             - (score[b] - score[a]) * (cost[i] - cost[a]);
+                if (cross < 0) {
+                    break;
+                }
+                size--;
+            }
+            hull[size++] = i;
+        }
+        return Arrays.copyOf(hull, size);
+    }
+    
+    private static int lastAffordable(double[] cost, double allowance) {
+        int lo = 0;
+        int hi = cost.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cost[mid] <= allowance + EPSILON) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Keep candidates that are strictly better in score than every cheaper one
+     */
+    private void buildFront(int k, double[] scores, double[] costs) {
+        front[k] = ParetoFrontier.paretoIndexes(scores, costs);
+        int count = front[k].length;
+        frontCost[k] = new double[count];
+        frontScore[k] = new double[count];
+        for (int i = 0; i < count; i++) {
+            frontCost[k][i] = costs[front[k][i]];
+            frontScore[k][i] = scores[front[k][i]];
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.awsplanner.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized response body with a strong ETag derived from its bytes, optionally
+ * with a precompressed gzip variant carrying its own strong ETag
+ */
+public final class CachedResponse {
+    
+    private final byte[] body;
+    private final String etag;
+    private final byte[] gzipBody;
+    private final String gzipEtag;
+    
+    public CachedResponse(byte[] body) {
+        this(body, false);
+    }
+    
+    private CachedResponse(byte[] body, boolean compress) {
+        this.body = body;
+        this.etag = strongEtag(body);
+        this.gzipBody = compress ? gzip(body) : null;
+        // A different content coding is a different representation, so it needs its own tag
+        this.gzipEtag = compress ? etag.substring(0, etag.length() - 1) + "-gzip\"" : null;
+    }
+    
+    /**
+     * Response with a gzip variant compressed once up front
+     */
+    public static CachedResponse compressed(byte[] body) {
+        return new CachedResponse(body, true);
+    }
+    
+    /**
+     * Response body; shared, must not be modified
+     */
+    public byte[] getBody() {
+        return body;
+    }
+    
+    /**
+     * Quoted strong entity tag
+     */
+    public String getEtag() {
+        return etag;
+    }
+    
+    public boolean hasGzip() {
+        return gzipBody != null;
+    }
+    
+    /**
+     * Gzip-compressed body, or null without a gzip variant; shared, must not be modified
+     */
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+    
+    public String getGzipEtag() {
+        return gzipEtag;
+    }
+    
+    /**
+     * Whether an If-None-Match header value matches this response.
+     * If-None-Match uses weak comparison (RFC 9110 section 13.1.2), so a W/ prefix
+     * on a tag in the header is ignored.
+     */
+    public boolean matches(String ifNoneMatch) {
+        return matches(ifNoneMatch, etag);
+    }
+    
+    /**
+     * Whether an If-None-Match header value matches the gzip variant
+     */
+    public boolean matchesGzip(String ifNoneMatch) {
+        return gzipEtag != null && matches(ifNoneMatch, gzipEtag);
+    }
+    
+    private static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            // 128 bits of the digest are plenty to tell representations apart
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
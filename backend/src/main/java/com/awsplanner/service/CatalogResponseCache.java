@@ -0,0 +1,115 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.CatalogUpdatedEvent;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serialized responses of the static catalog endpoints.
+ *
+ * The service list only changes with the catalog and the use cases never do, so
+ * both are serialized (compactly) and gzipped once per catalog version and served
+ * as cached bytes. The service list is rebuilt on the thread that published a new
+ * catalog; a request racing a reload serializes the new version itself.
+ */
+@Service
+public class CatalogResponseCache {
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private ObjectWriter writer;
+    private CachedResponse useCases;
+    private volatile VersionedResponse services;
+    
+    /**
+     * Serialized service list of one catalog version
+     */
+    private static final class VersionedResponse {
+        
+        final long catalogVersion;
+        final CachedResponse response;
+        
+        VersionedResponse(long catalogVersion, CachedResponse response) {
+            this.catalogVersion = catalogVersion;
+            this.response = response;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        
+        Map<String, String> types = new LinkedHashMap<>();
+        for (ApplicationType type : ApplicationType.values()) {
+            types.put(type.getValue(), type.getDisplayName());
+        }
+        useCases = CachedResponse.compressed(serialize(types));
+        getServices();
+    }
+    
+    /**
+     * Serialized service list of the current catalog
+     */
+    public CachedResponse getServices() {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        VersionedResponse current = services;
+        if (current == null || current.catalogVersion != catalog.getVersion()) {
+            current = publish(catalog);
+        }
+        return current.response;
+    }
+    
+    /**
+     * Serialized map of supported use cases
+     */
+    public CachedResponse getUseCases() {
+        return useCases;
+    }
+    
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        publish(event.getSnapshot());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Serialize a snapshot's services and keep them unless a newer version is already cached
+     */
+    private VersionedResponse publish(CatalogSnapshot catalog) {
+        VersionedResponse built = new VersionedResponse(
+            catalog.getVersion(), CachedResponse.compressed(serialize(catalog.getServices())));
+        
+        synchronized (this) {
+            if (services == null || services.catalogVersion < built.catalogVersion) {
+                services = built;
+            }
+        }
+        return built;
+    }
+    
+    private byte[] serialize(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
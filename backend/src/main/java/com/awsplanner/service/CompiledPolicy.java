@@ -0,0 +1,411 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.ScoringPolicy;
+import com.awsplanner.model.ScoringRule;
+import com.awsplanner.model.ScoringWeights;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.CatalogSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scoring policy compiled into lookup tables.
+ *
+ * Selection depends on the requirement only through its key: application type,
+ * traffic, operational effort, database need and the policy's budget band. Each
+ * rule's conditions are resolved to the set of keys they hold for when the policy
+ * is compiled. Binding the policy to a catalog ({@link #bind}) then partitions the
+ * services into classes that no rule tells apart and folds every rule into one
+ * adjustment and one exclusion flag per key and class. Scoring a service is
+ * therefore a fixed number of array lookups, however many rules the policy has.
+ */
+public final class CompiledPolicy {
+    
+    private static final int LEVELS = Level.values().length;
+    
+    private final ScoringPolicy definition;
+    private final double costWeight;
+    private final double scalabilityWeight;
+    private final double operationalWeight;
+    private final double useCaseWeight;
+    private final double[] budgetThresholds;
+    private final double[][] costMatch;
+    private final double[][] scalabilityMatch;
+    private final double[][] operationalMatch;
+    private final double[] useCaseMatch;
+    private final int bands;
+    private final int size;
+    private final List<ScoringRule> rules;
+    private final BitSet[] ruleKeys;
+    
+    private CompiledPolicy(ScoringPolicy definition) {
+        ScoringWeights weights = definition.getWeights();
+        this.definition = definition;
+        this.costWeight = weights.getCost();
+        this.scalabilityWeight = weights.getScalability();
+        this.operationalWeight = weights.getOperational();
+        this.useCaseWeight = weights.getUseCase();
+        this.budgetThresholds = definition.getBudgetThresholds().clone();
+        this.costMatch = copy(definition.getCostMatch());
+        this.scalabilityMatch = copy(definition.getScalabilityMatch());
+        this.operationalMatch = copy(definition.getOperationalMatch());
+        this.useCaseMatch = definition.getUseCaseMatch().clone();
+        this.bands = budgetThresholds.length + 1;
+        this.size = ApplicationType.values().length * LEVELS * LEVELS * 2 * bands;
+        this.rules = definition.getRules() != null ? List.copyOf(definition.getRules()) : List.of();
+        this.ruleKeys = new BitSet[rules.size()];
+        for (int r = 0; r < ruleKeys.length; r++) {
+            ruleKeys[r] = matchingKeys(rules.get(r));
+        }
+    }
+    
+    /**
+     * Validate and compile a policy definition
+     */
+    public static CompiledPolicy compile(ScoringPolicy policy) {
+        validate(policy);
+        return new CompiledPolicy(policy);
+    }
+    
+    /**
+     * Table index of a requirement, or -1 if it is incomplete
+     */
+    public int keyOf(UserRequirement req) {
+        if (req.getApplicationType() == null || req.getTraffic() == null
+                || req.getOperationalEffort() == null
+                || req.getDatabaseNeeded() == null || req.getMonthlyBudget() == null) {
+            return -1;
+        }
+        return keyOf(req.getApplicationType(), req.getTraffic(), req.getOperationalEffort(),
+                     req.getDatabaseNeeded(), budgetBand(req.getMonthlyBudget()));
+    }
+    
+    public int keyOf(ApplicationType applicationType, Level traffic, Level operationalEffort,
+                     boolean databaseNeeded, int band) {
+        int key = applicationType.ordinal();
+        key = key * LEVELS + traffic.ordinal();
+        key = key * LEVELS + operationalEffort.ordinal();
+        key = key * 2 + (databaseNeeded ? 1 : 0);
+        return key * bands + band;
+    }
+    
+    /**
+     * Budget band of a budget: the number of thresholds at or below it
+     */
+    public int budgetBand(double budget) {
+        int band = 0;
+        while (band < budgetThresholds.length && budget >= budgetThresholds[band]) {
+            band++;
+        }
+        return band;
+    }
+    
+    /**
+     * A budget inside the given band
+     */
+    public double bandRepresentative(int band) {
+        return band == 0 ? 0.0 : budgetThresholds[band - 1];
+    }
+    
+    /**
+     * Weighted score of the match values of a service, before rule adjustments
+     */
+    public double score(double costMatchScore, double scalabilityMatchScore,
+                        double operationalMatchScore, double useCaseMatchScore) {
+        return (costMatchScore * costWeight) +
+               (scalabilityMatchScore * scalabilityWeight) +
+               (operationalMatchScore * operationalWeight) +
+               (useCaseMatchScore * useCaseWeight);
+    }
+    
+    public double costMatch(int band, Level serviceCostLevel) {
+        return costMatch[band][serviceCostLevel.ordinal()];
+    }
+    
+    public double scalabilityMatch(Level traffic, Level serviceScalability) {
+        return scalabilityMatch[traffic.ordinal()][serviceScalability.ordinal()];
+    }
+    
+    public double operationalMatch(Level preference, Level serviceEffort) {
+        return operationalMatch[preference.ordinal()][serviceEffort.ordinal()];
+    }
+    
+    public double useCaseMatch(int supportedUseCases) {
+        return useCaseMatch[Math.min(supportedUseCases, useCaseMatch.length - 1)];
+    }
+    
+    public String getName() {
+        return definition.getName();
+    }
+    
+    public ScoringPolicy getDefinition() {
+        return definition;
+    }
+    
+    public double[] getBudgetThresholds() {
+        return budgetThresholds.clone();
+    }
+    
+    public int getBandCount() {
+        return bands;
+    }
+    
+    /**
+     * Number of requirement keys
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Fold the rules into per-key tables over the services of a catalog
+     */
+    public Binding bind(CatalogSnapshot catalog) {
+        int services = catalog.size();
+        
+        // Refine one class of all services by each rule's targets: services end up
+        // in the same class exactly when every rule targets both or neither
+        int[] serviceClass = new int[services];
+        int classes = 1;
+        List<Integer> representatives = new ArrayList<>(List.of(0));
+        for (ScoringRule rule : rules) {
+            if (targetsAll(rule)) {
+                continue;
+            }
+            int[] split = new int[classes * 2];
+            Arrays.fill(split, -1);
+            List<Integer> refined = new ArrayList<>();
+            for (int ordinal = 0; ordinal < services; ordinal++) {
+                int slot = serviceClass[ordinal] * 2 + (targets(rule, catalog.getService(ordinal)) ? 1 : 0);
+                if (split[slot] < 0) {
+                    split[slot] = refined.size();
+                    refined.add(ordinal);
+                }
+                serviceClass[ordinal] = split[slot];
+            }
+            classes = refined.size();
+            representatives = refined;
+        }
+        
+        double[] adjustments = null;
+        boolean[] excluded = null;
+        for (int r = 0; r < rules.size(); r++) {
+            ScoringRule rule = rules.get(r);
+            for (int c = 0; c < classes && services > 0; c++) {
+                if (!targets(rule, catalog.getService(representatives.get(c)))) {
+                    continue;
+                }
+                for (int key = ruleKeys[r].nextSetBit(0); key >= 0; key = ruleKeys[r].nextSetBit(key + 1)) {
+                    if (rule.getAdjust() != 0.0) {
+                        adjustments = adjustments != null ? adjustments : new double[size * classes];
+                        adjustments[key * classes + c] += rule.getAdjust();
+                    }
+                    if (rule.isExclude()) {
+                        excluded = excluded != null ? excluded : new boolean[size * classes];
+                        excluded[key * classes + c] = true;
+                    }
+                }
+            }
+        }
+        
+        return new Binding(this, catalog.getVersion(), serviceClass, classes, adjustments, excluded);
+    }
+    
+    /**
+     * A policy's rules resolved against one catalog version
+     */
+    public static final class Binding {
+        
+        private final CompiledPolicy policy;
+        private final long catalogVersion;
+        private final int[] serviceClass; // By catalog ordinal
+        private final int classes;
+        private final double[] adjustments; // [key * classes + class]; null if no rule adjusts scores
+        private final boolean[] excluded; // [key * classes + class]; null if no rule excludes
+        
+        private Binding(CompiledPolicy policy, long catalogVersion, int[] serviceClass, int classes,
+                        double[] adjustments, boolean[] excluded) {
+            this.policy = policy;
+            this.catalogVersion = catalogVersion;
+            this.serviceClass = serviceClass;
+            this.classes = classes;
+            this.adjustments = adjustments;
+            this.excluded = excluded;
+        }
+        
+        /**
+         * Score added by the rules to a service; zero for keys or ordinals below zero
+         */
+        public double adjustment(int key, int ordinal) {
+            if (adjustments == null || key < 0 || ordinal < 0) {
+                return 0.0;
+            }
+            return adjustments[key * classes + serviceClass[ordinal]];
+        }
+        
+        public boolean hasAdjustments() {
+            return adjustments != null;
+        }
+        
+        public boolean isExcluded(int key, int ordinal) {
+            return excluded != null && key >= 0 && ordinal >= 0 && excluded[key * classes + serviceClass[ordinal]];
+        }
+        
+        public boolean hasExclusions() {
+            return excluded != null;
+        }
+        
+        public CompiledPolicy getPolicy() {
+            return policy;
+        }
+        
+        public long getCatalogVersion() {
+            return catalogVersion;
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Keys whose requirements meet all of a rule's conditions
+     */
+    private BitSet matchingKeys(ScoringRule rule) {
+        BitSet keys = new BitSet(size);
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (Level traffic : Level.values()) {
+                for (Level effort : Level.values()) {
+                    for (boolean databaseNeeded : new boolean[]{false, true}) {
+                        for (int band = 0; band < bands; band++) {
+                            if (anyOrContains(rule.getApplicationType(), applicationType)
+                                    && anyOrContains(rule.getTraffic(), traffic)
+                                    && anyOrContains(rule.getOperationalEffort(), effort)
+                                    && (rule.getDatabaseNeeded() == null || rule.getDatabaseNeeded() == databaseNeeded)
+                                    && anyOrContains(rule.getBudgetBand(), band)) {
+                                keys.set(keyOf(applicationType, traffic, effort, databaseNeeded, band));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+    
+    private static boolean targets(ScoringRule rule, AwsService service) {
+        return anyOrContains(rule.getServices(), service.getId())
+            && anyOrContains(rule.getCategories(), service.getCategory())
+            && anyOrContains(rule.getServiceCostLevel(), service.getCostLevel())
+            && anyOrContains(rule.getServiceScalability(), service.getScalability())
+            && anyOrContains(rule.getServiceEffort(), service.getOperationalEffort());
+    }
+    
+    private static boolean targetsAll(ScoringRule rule) {
+        return isEmpty(rule.getServices()) && isEmpty(rule.getCategories())
+            && isEmpty(rule.getServiceCostLevel()) && isEmpty(rule.getServiceScalability())
+            && isEmpty(rule.getServiceEffort());
+    }
+    
+    private static <T> boolean anyOrContains(List<T> values, T value) {
+        return isEmpty(values) || values.contains(value);
+    }
+    
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+    
+    private static double[][] copy(double[][] matrix) {
+        double[][] copy = new double[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+    
+    /**
+     * Reject incomplete policies, tables of the wrong shape and invalid rules
+     */
+    private static void validate(ScoringPolicy policy) {
+        if (policy == null || policy.getName() == null || policy.getName().isBlank()) {
+            throw new IllegalArgumentException("Scoring policy without a name");
+        }
+        String name = "Scoring policy '" + policy.getName() + "': ";
+        ScoringWeights weights = policy.getWeights();
+        if (weights == null) {
+            throw new IllegalArgumentException(name + "weights are missing");
+        }
+        for (double weight : new double[]{weights.getCost(), weights.getScalability(),
+                                          weights.getOperational(), weights.getUseCase()}) {
+            if (!Double.isFinite(weight) || weight < 0) {
+                throw new IllegalArgumentException(name + "weights must be finite and non-negative");
+            }
+        }
+        
+        double[] thresholds = policy.getBudgetThresholds();
+        if (thresholds == null) {
+            throw new IllegalArgumentException(name + "budgetThresholds are missing");
+        }
+        for (int i = 0; i < thresholds.length; i++) {
+            if (!(thresholds[i] > 0) || !Double.isFinite(thresholds[i]) || (i > 0 && thresholds[i] <= thresholds[i - 1])) {
+                throw new IllegalArgumentException(name + "budgetThresholds must be positive and ascending");
+            }
+        }
+        
+        checkMatrix(name + "costMatch", policy.getCostMatch(), thresholds.length + 1);
+        checkMatrix(name + "scalabilityMatch", policy.getScalabilityMatch(), LEVELS);
+        checkMatrix(name + "operationalMatch", policy.getOperationalMatch(), LEVELS);
+        if (policy.getUseCaseMatch() == null || policy.getUseCaseMatch().length == 0) {
+            throw new IllegalArgumentException(name + "useCaseMatch is missing");
+        }
+        checkValues(name + "useCaseMatch", policy.getUseCaseMatch());
+        
+        if (policy.getRules() == null) {
+            return;
+        }
+        Set<String> ruleNames = new HashSet<>();
+        for (ScoringRule rule : policy.getRules()) {
+            if (rule == null || rule.getName() == null || !ruleNames.add(rule.getName())) {
+                throw new IllegalArgumentException(name + "every rule needs a unique name");
+            }
+            if (!Double.isFinite(rule.getAdjust())) {
+                throw new IllegalArgumentException(name + "rule '" + rule.getName() + "' has an invalid adjust");
+            }
+            if (rule.getBudgetBand() != null) {
+                for (Integer band : rule.getBudgetBand()) {
+                    if (band == null || band < 0 || band > thresholds.length) {
+                        throw new IllegalArgumentException(
+                            name + "rule '" + rule.getName() + "' refers to budget band " + band
+                            + "; bands are 0 to " + thresholds.length);
+                    }
+                }
+            }
+        }
+    }
+    
+    private static void checkMatrix(String name, double[][] matrix, int rows) {
+        if (matrix == null || matrix.length != rows) {
+            throw new IllegalArgumentException(name + " needs " + rows + " rows");
+        }
+        for (double[] row : matrix) {
+            if (row == null || row.length != LEVELS) {
+                throw new IllegalArgumentException(name + " needs " + LEVELS + " values per row");
+            }
+            checkValues(name, row);
+        }
+    }
+    
+    private static void checkValues(String name, double[] values) {
+        for (double value : values) {
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException(name + " contains a non-finite value");
+            }
+        }
+    }
+}
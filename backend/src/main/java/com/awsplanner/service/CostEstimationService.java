@@ -1,11 +1,14 @@
 package com.awsplanner.service;
 
 import com.awsplanner.model.*;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.PricingVectors;
 import com.awsplanner.repository.ServiceKnowledgeBase;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Service for calculating AWS service costs and validating budgets
@@ -19,15 +22,38 @@ public class CostEstimationService {
     @Autowired
     private RequirementService requirementService;
     
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    /**
+     * Bits of the reasons given for a recommended service
+     */
+    private static final int FULLY_MANAGED = 1;
+    private static final int COST_EFFECTIVE = 1 << 1;
+    private static final int AUTO_SCALES = 1 << 2;
+    private static final int USE_CASE_FIT = 1 << 3;
+    
+    /**
+     * Reason text by [application type][reason bits]; rendering a reason is a lookup
+     */
+    private static final String[][] REASON_TEXT = buildReasonText();
+    
     /**
      * Calculate monthly cost for selected services
      */
     public double calculateMonthlyCost(List<AwsService> services, UserRequirement req) {
+        double[] usage = usageVector(req);
+        return calculateMonthlyCost(services, service -> calculateServiceCost(service, usage));
+    }
+    
+    /**
+     * Calculate monthly cost for selected services from already known service costs
+     */
+    public double calculateMonthlyCost(List<AwsService> services, ToDoubleFunction<AwsService> serviceCost) {
         double totalCost = 0.0;
         
         for (AwsService service : services) {
-            double serviceCost = calculateServiceCost(service, req);
-            totalCost += serviceCost;
+            totalCost += serviceCost.applyAsDouble(service);
         }
         
         return Math.round(totalCost * 100.0) / 100.0; // Round to 2 decimal places
@@ -37,40 +63,70 @@ public class CostEstimationService {
      * Calculate cost for individual service
      */
     public double calculateServiceCost(AwsService service, UserRequirement req) {
-        Map<String, Double> pricing = knowledgeBase.getPricingForService(service.getId());
+        return calculateServiceCost(service, usageVector(req));
+    }
+    
+    /**
+     * Calculate cost for individual service as a dot product of its compiled
+     * pricing coefficients with a precomputed usage vector
+     */
+    public double calculateServiceCost(AwsService service, double[] usage) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        int ordinal = catalog.ordinalOf(service.getId());
         
-        if (pricing == null) {
+        if (ordinal < 0) {
             return 0.0;
         }
         
-        double cost = pricing.getOrDefault("baseCost", 0.0);
-        
-        // Add traffic-based costs
-        int trafficRequests = requirementService.normalizeTraffic(req.getTraffic());
-        
-        if (pricing.containsKey("perTrafficUnit")) {
-            // Traffic unit = 10k requests
-            int trafficUnits = trafficRequests / 10000;
-            cost += pricing.get("perTrafficUnit") * trafficUnits;
-        }
-        
-        if (pricing.containsKey("perMillionRequests")) {
-            double millionRequests = trafficRequests / 1000000.0;
-            cost += pricing.get("perMillionRequests") * millionRequests;
-        }
+        double cost = catalog.getPricingVectors().dot(ordinal, usage);
+        return Math.round(cost * 100.0) / 100.0;
+    }
+    
+    /**
+     * Calculate monthly cost of a fixed set of services for several storage sizes.
+     * Service costs are linear in storage, so each service's storage-independent
+     * part is priced once and the per-GB coefficient applied per storage value.
+     */
+    public double[] calculateMonthlyCostCurve(List<AwsService> services, UserRequirement req,
+                                              int[] storageValues) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        PricingVectors pricing = catalog.getPricingVectors();
+        double[] usage = usageVector(req);
+        usage[PricingVectors.STORAGE_GB] = 0.0;
         
-        // Add storage-based costs
-        if (pricing.containsKey("perGB") || pricing.containsKey("perStorageGB")) {
-            double perGB = pricing.getOrDefault("perGB", 
-                                               pricing.getOrDefault("perStorageGB", 0.0));
-            cost += perGB * req.getStorageGB();
+        double[] totals = new double[storageValues.length];
+        for (AwsService service : services) {
+            int ordinal = catalog.ordinalOf(service.getId());
+            if (ordinal < 0) {
+                continue;
+            }
+            
+            double fixedCost = pricing.dot(ordinal, usage);
+            double perGB = pricing.coefficient(ordinal, PricingVectors.STORAGE_GB);
+            for (int i = 0; i < storageValues.length; i++) {
+                totals[i] += Math.round((fixedCost + perGB * storageValues[i]) * 100.0) / 100.0;
+            }
         }
         
-        if (pricing.containsKey("perGBStorage")) {
-            cost += pricing.get("perGBStorage") * req.getStorageGB();
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = Math.round(totals[i] * 100.0) / 100.0;
         }
+        return totals;
+    }
+    
+    /**
+     * Build the usage vector of a requirement over the pricing dimensions
+     */
+    public double[] usageVector(UserRequirement req) {
+        int trafficRequests = requirementService.normalizeTraffic(req.getTraffic());
         
-        return Math.round(cost * 100.0) / 100.0;
+        double[] usage = new double[PricingVectors.DIMENSIONS];
+        usage[PricingVectors.BASE] = 1.0;
+        usage[PricingVectors.TRAFFIC_UNITS] = trafficRequests / 10000; // Traffic unit = 10k requests
+        usage[PricingVectors.MILLION_REQUESTS] = trafficRequests / 1000000.0;
+        usage[PricingVectors.STORAGE_GB] = req.getStorageGB();
+        usage[PricingVectors.GB_SECONDS] = 0.0; // Compute duration is not captured by requirements
+        return usage;
     }
     
     /**
@@ -83,7 +139,7 @@ public class CostEstimationService {
     public boolean validateBudget(double totalCost, double budget) {
         return totalCost <= budget;
     }
-
+    
     /**
      * Generate optional upgrade suggestions if under budget
      */
@@ -101,7 +157,8 @@ public class CostEstimationService {
                            (req.getStorageGB() > 100 ? "50.00" : "25.00") + ")");
             }
             
-            if (req.getApplicationType().equals("backend-api") || req.getApplicationType().equals("full-stack")) {
+            if (req.getApplicationType() == ApplicationType.BACKEND_API
+                    || req.getApplicationType() == ApplicationType.FULL_STACK) {
                 upgrades.add("Security: Add AWS WAF for enhanced protection (+$30.00)");
                 upgrades.add("Performance: Enable Global Accelerator for lower latency (+$20.00)");
             }
@@ -121,13 +178,22 @@ public class CostEstimationService {
      */
     public List<RecommendedService> createRecommendedServices(
             List<AwsService> services, UserRequirement req) {
+        double[] usage = usageVector(req);
+        return createRecommendedServices(services, req, service -> calculateServiceCost(service, usage));
+    }
+    
+    /**
+     * Create list of recommended services from already known service costs
+     */
+    public List<RecommendedService> createRecommendedServices(
+            List<AwsService> services, UserRequirement req, ToDoubleFunction<AwsService> serviceCost) {
         
         List<RecommendedService> recommended = new ArrayList<>();
         
         for (AwsService service : services) {
-            double cost = calculateServiceCost(service, req);
+            double cost = serviceCost.applyAsDouble(service);
             String reason = generateReason(service, req);
-             
+            
             RecommendedService recService = new RecommendedService(
                 service.getName(),
                 service.getCategory(),
@@ -146,11 +212,24 @@ public class CostEstimationService {
      */
     public List<AlternativeArchitecture> suggestAlternatives(
             List<AwsService> currentServices, UserRequirement req) {
+        double[] usage = usageVector(req);
+        return suggestAlternatives(currentServices, req, decisionEngine.scoreByCategory(req),
+                                   service -> calculateServiceCost(service, usage));
+    }
+    
+    /**
+     * Suggest alternative architectures from already scored candidates
+     * (per category, as from scoreByCategory) and known service costs
+     */
+    public List<AlternativeArchitecture> suggestAlternatives(
+            List<AwsService> currentServices, UserRequirement req,
+            Map<String, List<ServiceScore>> candidates, ToDoubleFunction<AwsService> serviceCost) {
         
         List<AlternativeArchitecture> alternatives = new ArrayList<>();
         
         // Budget-optimized alternative
-        AlternativeArchitecture budgetOptimized = createBudgetOptimizedArchitecture(req);
+        AlternativeArchitecture budgetOptimized =
+            createBudgetOptimizedArchitecture(currentServices, candidates, serviceCost);
         if (budgetOptimized != null) {
             alternatives.add(budgetOptimized);
         }
@@ -170,95 +249,96 @@ public class CostEstimationService {
     // ==================== Helper Methods ====================
     
     private String generateReason(AwsService service, UserRequirement req) {
-        List<String> reasons = new ArrayList<>();
+        int reasons = 0;
         
         // Add specific reasons based on service and requirements
-        if (service.getOperationalEffort().equals("low") && 
-            req.getOperationalEffort().equals("low")) {
-            reasons.add("Fully managed, minimal maintenance");
+        if (service.getOperationalEffort() == Level.LOW && 
+            req.getOperationalEffort() == Level.LOW) {
+            reasons |= FULLY_MANAGED;
         }
         
-        if (service.getCostLevel().equals("low")) {
-            reasons.add("Cost-effective");
+        if (service.getCostLevel() == Level.LOW) {
+            reasons |= COST_EFFECTIVE;
         }
         
-        if (service.getScalability().equals("high") && 
-            req.getTraffic().equals("high")) {
-            reasons.add("Scales automatically to handle high traffic");
+        if (service.getScalability() == Level.HIGH && 
+            req.getTraffic() == Level.HIGH) {
+            reasons |= AUTO_SCALES;
         }
         
         if (service.getUseCases().contains(req.getApplicationType())) {
-            reasons.add("Optimized for " + req.getApplicationType().replace("-", " "));
+            reasons |= USE_CASE_FIT;
         }
         
-        if (reasons.isEmpty()) {
+        if (reasons == 0) {
             return service.getDescription();
         }
         
-        return String.join(", ", reasons);
+        return REASON_TEXT[req.getApplicationType().ordinal()][reasons];
     }
     
-    private AlternativeArchitecture createBudgetOptimizedArchitecture(UserRequirement req) {
-        List<String> services = new ArrayList<>();
-        double totalCost = 0.0;
+    /**
+     * Text of every reason combination per application type, built once
+     */
+    private static String[][] buildReasonText() {
+        ApplicationType[] types = ApplicationType.values();
+        String[][] text = new String[types.length][USE_CASE_FIT << 1];
         
-        switch (req.getApplicationType()) {
-            case "static-website":
-                services.add("Amazon S3");
-                services.add("Amazon CloudFront");
-                services.add("AWS IAM");
-                totalCost = 5.0; // Approximate
-                break;
-                
-            case "backend-api":
-                services.add("AWS Lambda");
-                services.add("Amazon API Gateway");
-                if (req.getDatabaseNeeded()) {
-                    services.add("Amazon DynamoDB");
-                    totalCost = 15.0;
-                } else {
-                    totalCost = 8.0;
+        for (ApplicationType type : types) {
+            for (int mask = 1; mask < text[type.ordinal()].length; mask++) {
+                List<String> reasons = new ArrayList<>();
+                if ((mask & FULLY_MANAGED) != 0) {
+                    reasons.add("Fully managed, minimal maintenance");
                 }
-                services.add("Amazon CloudWatch");
-                services.add("AWS IAM");
-                break;
-                
-            case "full-stack":
-                services.add("AWS Lambda");
-                services.add("Amazon S3");
-                services.add("Amazon CloudFront");
-                if (req.getDatabaseNeeded()) {
-                    services.add("Amazon DynamoDB");
+                if ((mask & COST_EFFECTIVE) != 0) {
+                    reasons.add("Cost-effective");
                 }
-                services.add("Amazon CloudWatch");
-                services.add("AWS IAM");
-                totalCost = req.getDatabaseNeeded() ? 25.0 : 15.0;
-                break;
-                
-            case "file-storage":
-                services.add("Amazon S3");
-                services.add("AWS IAM");
-                totalCost = 10.0;
-                break;
-                
-            case "event-driven":
-                services.add("AWS Lambda");
-                services.add("Amazon SQS");
-                services.add("Amazon SNS");
-                services.add("Amazon CloudWatch");
-                services.add("AWS IAM");
-                totalCost = 12.0;
-                break;
-                
-            default:
-                return null;
+                if ((mask & AUTO_SCALES) != 0) {
+                    reasons.add("Scales automatically to handle high traffic");
+                }
+                if ((mask & USE_CASE_FIT) != 0) {
+                    reasons.add("Optimized for " + type.getValue().replace("-", " "));
+                }
+                text[type.ordinal()][mask] = String.join(", ", reasons).intern();
+            }
+        }
+        return text;
+    }
+    
+    /**
+     * Cheapest eligible service in each category of the current architecture
+     * (best score among equally priced ones), keeping the mandatory services
+     */
+    private AlternativeArchitecture createBudgetOptimizedArchitecture(List<AwsService> currentServices,
+                                                                      Map<String, List<ServiceScore>> candidates,
+                                                                      ToDoubleFunction<AwsService> serviceCost) {
+        List<AwsService> services = new ArrayList<>(currentServices.size());
+        for (AwsService current : currentServices) {
+            AwsService cheapest = current;
+            double cheapestCost = Double.POSITIVE_INFINITY;
+            double cheapestScore = Double.NEGATIVE_INFINITY;
+            
+            for (ServiceScore candidate : candidates.getOrDefault(current.getCategory(), List.of())) {
+                double cost = serviceCost.applyAsDouble(candidate.getService());
+                if (cost < cheapestCost || (cost == cheapestCost && candidate.getScore() > cheapestScore)) {
+                    cheapest = candidate.getService();
+                    cheapestCost = cost;
+                    cheapestScore = candidate.getScore();
+                }
+            }
+            services.add(cheapest);
+        }
+        
+        List<String> names = new ArrayList<>(services.size());
+        for (AwsService service : services) {
+            names.add(service.getName());
         }
         
         return new AlternativeArchitecture(
             "Budget-Optimized",
-            services,
-            totalCost,
-            "Serverless and managed services for minimal cost"
+            names,
+            calculateMonthlyCost(services, serviceCost),
+            "Lowest-cost eligible service in each category"
         );
     }
     
@@ -267,7 +347,7 @@ public class CostEstimationService {
         double totalCost = 0.0;
         
         switch (req.getApplicationType()) {
-            case "backend-api":
+            case BACKEND_API:
                 services.add("Amazon ECS");
                 services.add("Amazon Aurora");
                 services.add("Amazon CloudFront");
@@ -275,8 +355,8 @@ public class CostEstimationService {
                 services.add("AWS IAM");
                 totalCost = 120.0;
                 break;
-                
-            case "full-stack":
+            
+            case FULL_STACK:
                 services.add("Amazon ECS");
                 services.add("Amazon Aurora");
                 services.add("Amazon S3");
@@ -285,7 +365,7 @@ public class CostEstimationService {
                 services.add("AWS IAM");
                 totalCost = 150.0;
                 break;
-                
+            
             default:
                 return null; // Performance optimization not applicable
         }
@@ -1,14 +1,25 @@
 package com.awsplanner.service;
 
+import com.awsplanner.model.ApplicationType;
 import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.ScoreReason;
+import com.awsplanner.model.ScoringPolicies;
+import com.awsplanner.model.ScoringPolicy;
 import com.awsplanner.model.ServiceScore;
 import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.CatalogUpdatedEvent;
 import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Core decision engine service - implements deterministic, rule-based logic
@@ -23,15 +34,66 @@ public class DecisionEngineService {
     @Autowired
     private RequirementService requirementService;
     
+    private static final Logger logger = LoggerFactory.getLogger(DecisionEngineService.class);
+    
+    private volatile Policies policies;
+    private volatile Tables tables;
+    
+    @PostConstruct
+    public void init() throws IOException {
+        policies = loadPolicies();
+        getDecisionTable();
+    }
+    
     /**
-     * Main method to get recommended services based on user requirements
+     * Main method to get recommended services based on user requirements.
+     * Resolved from the precompiled decision table; requirements outside the
+     * table space, or arriving while the table for a just-published catalog is
+     * still being built, fall back to the live pipeline instead of waiting.
      */
     public List<AwsService> getRecommendedServices(UserRequirement req) {
+        CompiledPolicy policy = policyFor(req.getPolicy());
+        int key = policy.keyOf(req);
+        DecisionTable table = tableFor(policy);
+        
+        if (key < 0 || table == null || table.getCatalogVersion() != knowledgeBase.getCatalogVersion()) {
+            return selectServices(req);
+        }
+        return table.get(key);
+    }
+    
+    /**
+     * Re-read the scoring policies and rebuild the decision tables on the thread
+     * that published the new catalog. Invalid policies are logged and the previous
+     * ones kept.
+     */
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        try {
+            policies = loadPolicies();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Keeping previous scoring policies: {}", e.getMessage());
+        }
+        
+        CatalogSnapshot catalog = event.getSnapshot();
+        Policies current = policies;
+        Tables built = knowledgeBase.withSnapshot(catalog, () -> buildTables(catalog, current));
+        publish(built);
+    }
+    
+    /**
+     * Run the full filter, score and rank pipeline for a requirement
+     */
+    public List<AwsService> selectServices(UserRequirement req) {
+        return selectServices(req, bindingFor(policyFor(req.getPolicy())));
+    }
+    
+    private List<AwsService> selectServices(UserRequirement req, CompiledPolicy.Binding binding) {
         // Step 1: Filter services based on requirements
-        List<AwsService> eligibleServices = filterServices(req);
+        List<AwsService> eligibleServices = filterServices(req, binding);
         
         // Step 2: Score eligible services
-        List<ServiceScore> scoredServices = scoreServices(eligibleServices, req);
+        List<ServiceScore> scoredServices = scoreServices(eligibleServices, req, binding);
         
         // Step 3: Rank and select top services per category
         List<AwsService> selectedServices = rankAndSelect(scoredServices);
@@ -43,43 +105,157 @@ public class DecisionEngineService {
     }
     
     /**
-     * Filter services based on use case and constraints
+     * Get the default policy's decision table for the current catalog, building the
+     * tables of all policies first if needed. Blocks while building; used at startup
+     * and by tooling, not on the request path.
+     */
+    public DecisionTable getDecisionTable() {
+        return getDecisionTable(null);
+    }
+    
+    /**
+     * Get a policy's decision table (the default policy's if name is null) for the
+     * current catalog, building the tables first if needed.
+     * Throws IllegalArgumentException for unknown policy names.
+     */
+    public DecisionTable getDecisionTable(String policyName) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        Tables current = tables;
+        
+        if (isStale(current, catalog)) {
+            synchronized (this) {
+                current = tables;
+                if (isStale(current, catalog)) {
+                    Policies loaded = policies;
+                    current = knowledgeBase.withSnapshot(catalog, () -> buildTables(catalog, loaded));
+                    publish(current);
+                }
+            }
+        }
+        
+        String name = policyName != null ? policyName : current.policies().defaultPolicy().getName();
+        DecisionTable table = current.byPolicy().get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown scoring policy '" + name + "'");
+        }
+        return table;
+    }
+    
+    /**
+     * Compiled scoring policy by name, or the default policy if name is null.
+     * Throws IllegalArgumentException for unknown names.
+     */
+    public CompiledPolicy policyFor(String name) {
+        Policies current = policies;
+        if (name == null) {
+            return current.defaultPolicy();
+        }
+        
+        CompiledPolicy policy = current.byName().get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException(
+                "Unknown scoring policy '" + name + "'. Must be one of: " + String.join(", ", current.byName().keySet()));
+        }
+        return policy;
+    }
+    
+    /**
+     * Definitions of the loaded scoring policies, in file order
+     */
+    public List<ScoringPolicy> getPolicies() {
+        List<ScoringPolicy> definitions = new ArrayList<>();
+        for (CompiledPolicy policy : policies.byName().values()) {
+            definitions.add(policy.getDefinition());
+        }
+        return definitions;
+    }
+    
+    public String getDefaultPolicyName() {
+        return policies.defaultPolicy().getName();
+    }
+    
+    /**
+     * Whether the requirement's policy excludes services by rule, which makes
+     * eligibility depend on every field of the requirement's key
+     */
+    public boolean hasExclusions(UserRequirement req) {
+        return bindingFor(policyFor(req.getPolicy())).hasExclusions();
+    }
+    
+    /**
+     * Filter services based on use case and constraints.
+     * Candidates are computed by set algebra on the catalog's ordinal bitsets.
      */
     public List<AwsService> filterServices(UserRequirement req) {
-        List<AwsService> allServices = knowledgeBase.getAllServices();
+        return filterServices(req, bindingFor(policyFor(req.getPolicy())));
+    }
+    
+    private List<AwsService> filterServices(UserRequirement req, CompiledPolicy.Binding binding) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        
+        BitSet candidates = (BitSet) catalog.getUseCaseBits(req.getApplicationType()).clone();
+        candidates.andNot(catalog.getMandatoryBits()); // Mandatory services added later
         
-        return allServices.stream()
-            .filter(service -> !service.isMandatory()) // Mandatory services added later
-            .filter(service -> matchesUseCase(service, req.getApplicationType()))
-            .filter(service -> matchesOperationalEffort(service, req.getOperationalEffort()))
-            .filter(service -> matchesDatabaseRequirement(service, req))
-            .collect(Collectors.toList());
+        // Only users who want full control accept high-effort services
+        if (req.getOperationalEffort() != Level.HIGH) {
+            candidates.andNot(catalog.getEffortBits(Level.HIGH));
+        }
+        
+        // If database not needed, filter out database services
+        if (!req.getDatabaseNeeded()) {
+            candidates.andNot(catalog.getCategoryBits("database"));
+        }
+        
+        // Services excluded by the policy's rules for this requirement
+        int key = binding.hasExclusions() ? binding.getPolicy().keyOf(req) : -1;
+        
+        List<AwsService> eligible = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (!binding.isExcluded(key, i)) {
+                eligible.add(catalog.getService(i));
+            }
+        }
+        return eligible;
     }
     
     /**
      * Score services based on how well they match requirements
-     * Scoring formula: score = (costMatch * 0.4) + (scalabilityMatch * 0.3) + 
-     *                          (operationalMatch * 0.2) + (useCaseMatch * 0.1)
+     * Scoring formula (default policy): score = (costMatch * 0.4) + (scalabilityMatch * 0.3) + 
+     *                                           (operationalMatch * 0.2) + (useCaseMatch * 0.1)
+     * Weights, match tables and rule adjustments come from the requirement's scoring
+     * policy; each is a lookup into a table compiled from it.
      */
     public List<ServiceScore> scoreServices(List<AwsService> eligible, UserRequirement req) {
+        return scoreServices(eligible, req, bindingFor(policyFor(req.getPolicy())));
+    }
+    
+    private List<ServiceScore> scoreServices(List<AwsService> eligible, UserRequirement req,
+                                             CompiledPolicy.Binding binding) {
+        CompiledPolicy policy = binding.getPolicy();
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        int band = policy.budgetBand(req.getMonthlyBudget());
+        int key = binding.hasAdjustments() ? policy.keyOf(req) : -1;
         List<ServiceScore> scored = new ArrayList<>();
         
         for (AwsService service : eligible) {
-            double costMatchScore = calculateCostMatch(service, req);
-            double scalabilityMatchScore = calculateScalabilityMatch(service, req);
-            double operationalMatchScore = calculateOperationalMatch(service, req);
-            double useCaseMatchScore = calculateUseCaseMatch(service, req);
+            double costMatchScore = policy.costMatch(band, service.getCostLevel());
+            double scalabilityMatchScore = policy.scalabilityMatch(req.getTraffic(), service.getScalability());
+            double operationalMatchScore =
+                policy.operationalMatch(req.getOperationalEffort(), service.getOperationalEffort());
+            double useCaseMatchScore = calculateUseCaseMatch(policy, service, req);
             
-            double totalScore = (costMatchScore * 0.4) + 
-                               (scalabilityMatchScore * 0.3) + 
-                               (operationalMatchScore * 0.2) + 
-                               (useCaseMatchScore * 0.1);
+            double totalScore = policy.score(costMatchScore, scalabilityMatchScore,
+                                             operationalMatchScore, useCaseMatchScore);
+            if (key >= 0) {
+                totalScore += binding.adjustment(key, catalog.ordinalOf(service.getId()));
+            }
             
-            String reason = buildReason(service, costMatchScore, scalabilityMatchScore, 
+            // Reasons are kept as a bitmask; text is only rendered if asked for
+            int reasons = buildReasons(costMatchScore, scalabilityMatchScore,
                                        operationalMatchScore, useCaseMatchScore);
             
             ServiceScore score = new ServiceScore(
-                service, totalScore, reason,
+                service, totalScore, reasons,
                 costMatchScore, scalabilityMatchScore, 
                 operationalMatchScore, useCaseMatchScore
             );
@@ -90,6 +266,74 @@ public class DecisionEngineService {
         return scored;
     }
     
+    /**
+     * Rescore previously scored services for a changed requirement under the same
+     * policy. Match scores whose inputs did not change are reused; the total and
+     * reasons are recomputed from them exactly as by scoreServices.
+     */
+    public List<ServiceScore> rescoreServices(List<ServiceScore> previous, UserRequirement before,
+                                              UserRequirement req) {
+        CompiledPolicy.Binding binding = bindingFor(policyFor(req.getPolicy()));
+        CompiledPolicy policy = binding.getPolicy();
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        int band = policy.budgetBand(req.getMonthlyBudget());
+        boolean costChanged = band != policy.budgetBand(before.getMonthlyBudget());
+        boolean scalabilityChanged = req.getTraffic() != before.getTraffic();
+        boolean operationalChanged = req.getOperationalEffort() != before.getOperationalEffort();
+        boolean useCaseChanged = req.getApplicationType() != before.getApplicationType();
+        int key = binding.hasAdjustments() ? policy.keyOf(req) : -1;
+        List<ServiceScore> scored = new ArrayList<>(previous.size());
+        
+        for (ServiceScore old : previous) {
+            AwsService service = old.getService();
+            double costMatchScore = costChanged
+                ? policy.costMatch(band, service.getCostLevel()) : old.getCostMatchScore();
+            double scalabilityMatchScore = scalabilityChanged
+                ? policy.scalabilityMatch(req.getTraffic(), service.getScalability()) : old.getScalabilityMatchScore();
+            double operationalMatchScore = operationalChanged
+                ? policy.operationalMatch(req.getOperationalEffort(), service.getOperationalEffort())
+                : old.getOperationalMatchScore();
+            double useCaseMatchScore = useCaseChanged
+                ? calculateUseCaseMatch(policy, service, req) : old.getUseCaseMatchScore();
+            
+            double totalScore = policy.score(costMatchScore, scalabilityMatchScore,
+                                             operationalMatchScore, useCaseMatchScore);
+            if (key >= 0) {
+                totalScore += binding.adjustment(key, catalog.ordinalOf(service.getId()));
+            }
+            
+            int reasons = buildReasons(costMatchScore, scalabilityMatchScore,
+                                       operationalMatchScore, useCaseMatchScore);
+            scored.add(new ServiceScore(
+                service, totalScore, reasons,
+                costMatchScore, scalabilityMatchScore,
+                operationalMatchScore, useCaseMatchScore
+            ));
+        }
+        
+        return scored;
+    }
+    
+    /**
+     * Eligible services scored and grouped by category, in catalog order.
+     * These are the per-category choices that rankAndSelect picks its top from.
+     */
+    public Map<String, List<ServiceScore>> scoreByCategory(UserRequirement req) {
+        CompiledPolicy.Binding binding = bindingFor(policyFor(req.getPolicy()));
+        return groupByCategory(scoreServices(filterServices(req, binding), req, binding));
+    }
+    
+    /**
+     * Scored services grouped by category, keeping their order within each category
+     */
+    public Map<String, List<ServiceScore>> groupByCategory(List<ServiceScore> scored) {
+        Map<String, List<ServiceScore>> byCategory = new LinkedHashMap<>();
+        for (ServiceScore score : scored) {
+            byCategory.computeIfAbsent(score.getService().getCategory(), k -> new ArrayList<>()).add(score);
+        }
+        return byCategory;
+    }
+    
     /**
      * Rank services and select top service per category
      */
@@ -114,165 +358,115 @@ public class DecisionEngineService {
     
     // ==================== Helper Methods ====================
     
-    private boolean matchesUseCase(AwsService service, String applicationType) {
-        return service.getUseCases().contains(applicationType);
+    private double calculateUseCaseMatch(CompiledPolicy policy, AwsService service, UserRequirement req) {
+        List<ApplicationType> useCases = service.getUseCases();
+        
+        if (!useCases.contains(req.getApplicationType())) {
+            return 50.0; // Shouldn't happen due to filtering, but safe default
+        }
+        
+        // More specific services get higher scores
+        return policy.useCaseMatch(useCases.size());
     }
     
-    private boolean matchesOperationalEffort(AwsService service, String operationalEffort) {
-        // If user wants low operational effort, exclude high-effort services
-        if (operationalEffort.equals("low")) {
-            return !service.getOperationalEffort().equals("high");
-        }
-        // If user wants high operational effort (more control), allow all
-        if (operationalEffort.equals("high")) {
-            return true;
-        }
-        // Medium effort: exclude only high-effort services
-        return !service.getOperationalEffort().equals("high");
+    /**
+     * Decision table of a policy for the current catalog, or null if not built yet
+     */
+    private DecisionTable tableFor(CompiledPolicy policy) {
+        Tables current = tables;
+        DecisionTable table = current != null ? current.byPolicy().get(policy.getName()) : null;
+        return table != null && table.getPolicy() == policy ? table : null;
     }
     
-    private boolean matchesDatabaseRequirement(AwsService service, UserRequirement req) {
-        // If database not needed, filter out database services
-        if (!req.getDatabaseNeeded() && service.getCategory().equals("database")) {
-            return false;
+    /**
+     * Policy rules bound to the current (or pinned) catalog: taken from the decision
+     * table if it matches, bound on the spot otherwise (e.g. during a reload)
+     */
+    private CompiledPolicy.Binding bindingFor(CompiledPolicy policy) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        DecisionTable table = tableFor(policy);
+        if (table != null && table.getCatalogVersion() == catalog.getVersion()) {
+            return table.getBinding();
         }
-        return true;
+        return policy.bind(catalog);
     }
     
-    private double calculateCostMatch(AwsService service, UserRequirement req) {
-        String costLevel = service.getCostLevel();
-        double budget = req.getMonthlyBudget();
-        
-        // Budget-based scoring
-        if (budget < 50) {
-            // Low budget: prefer low-cost services
-            return switch (costLevel) {
-                case "low" -> 100.0;
-                case "medium" -> 50.0;
-                case "high" -> 20.0;
-                default -> 50.0;
-            };
-        } else if (budget < 200) {
-            // Medium budget: prefer medium-cost services
-            return switch (costLevel) {
-                case "low" -> 80.0;
-                case "medium" -> 100.0;
-                case "high" -> 60.0;
-                default -> 70.0;
-            };
-        } else {
-            // High budget: all services acceptable, slight preference for high-performance
-            return switch (costLevel) {
-                case "low" -> 70.0;
-                case "medium" -> 90.0;
-                case "high" -> 100.0;
-                default -> 80.0;
-            };
+    private Tables buildTables(CatalogSnapshot catalog, Policies policies) {
+        Map<String, DecisionTable> byPolicy = new HashMap<>();
+        for (CompiledPolicy policy : policies.byName().values()) {
+            CompiledPolicy.Binding binding = policy.bind(catalog);
+            byPolicy.put(policy.getName(), DecisionTable.build(binding, req -> selectServices(req, binding)));
         }
+        return new Tables(catalog.getVersion(), policies, byPolicy);
     }
     
-    private double calculateScalabilityMatch(AwsService service, UserRequirement req) {
-        String scalability = service.getScalability();
-        String traffic = req.getTraffic();
-        
-        // Match scalability to traffic needs
-        if (traffic.equals("high")) {
-            return switch (scalability) {
-                case "high" -> 100.0;
-                case "medium" -> 60.0;
-                case "low" -> 30.0;
-                default -> 50.0;
-            };
-        } else if (traffic.equals("medium")) {
-            return switch (scalability) {
-                case "high" -> 90.0;
-                case "medium" -> 100.0;
-                case "low" -> 50.0;
-                default -> 70.0;
-            };
-        } else { // low traffic
-            return switch (scalability) {
-                case "high" -> 80.0; // Still good, might be over-engineered
-                case "medium" -> 90.0;
-                case "low" -> 100.0;
-                default -> 80.0;
-            };
+    /**
+     * Publish tables unless newer ones, or ones for newer policies, are already published
+     */
+    private synchronized void publish(Tables built) {
+        if (tables == null || tables.catalogVersion() < built.catalogVersion()
+                || (tables.catalogVersion() == built.catalogVersion() && tables.policies() != policies)) {
+            tables = built;
         }
     }
     
-    private double calculateOperationalMatch(AwsService service, UserRequirement req) {
-        String serviceEffort = service.getOperationalEffort();
-        String userPreference = req.getOperationalEffort();
-        
-        // Exact match gets highest score
-        if (serviceEffort.equals(userPreference)) {
-            return 100.0;
-        }
-        
-        // Partial matches
-        if (userPreference.equals("low")) {
-            return switch (serviceEffort) {
-                case "low" -> 100.0;
-                case "medium" -> 60.0;
-                case "high" -> 30.0;
-                default -> 50.0;
-            };
-        } else if (userPreference.equals("medium")) {
-            return switch (serviceEffort) {
-                case "low" -> 80.0;
-                case "medium" -> 100.0;
-                case "high" -> 60.0;
-                default -> 70.0;
-            };
-        } else { // high preference (user wants control)
-            return switch (serviceEffort) {
-                case "low" -> 50.0;
-                case "medium" -> 80.0;
-                case "high" -> 100.0;
-                default -> 70.0;
-            };
-        }
+    private boolean isStale(Tables current, CatalogSnapshot catalog) {
+        return current == null || current.catalogVersion() != catalog.getVersion() || current.policies() != policies;
     }
     
-    private double calculateUseCaseMatch(AwsService service, UserRequirement req) {
-        // If service is specifically optimized for this use case, give bonus
-        List<String> useCases = service.getUseCases();
+    /**
+     * Read and compile the scoring policy file
+     */
+    private Policies loadPolicies() throws IOException {
+        ScoringPolicies file = knowledgeBase.readScoringPolicies();
+        if (file == null || file.getPolicies() == null || file.getPolicies().isEmpty()) {
+            throw new IllegalArgumentException(ServiceKnowledgeBase.SCORING_POLICIES_FILE + " defines no policies");
+        }
         
-        if (useCases.contains(req.getApplicationType())) {
-            // More specific services get higher scores
-            if (useCases.size() <= 2) {
-                return 100.0; // Specialized service
-            } else if (useCases.size() <= 4) {
-                return 80.0; // Moderately specialized
-            } else {
-                return 60.0; // General purpose
+        Map<String, CompiledPolicy> byName = new LinkedHashMap<>();
+        for (ScoringPolicy definition : file.getPolicies()) {
+            CompiledPolicy policy = CompiledPolicy.compile(definition);
+            if (byName.put(policy.getName(), policy) != null) {
+                throw new IllegalArgumentException("Duplicate scoring policy '" + policy.getName() + "'");
             }
         }
         
-        return 50.0; // Shouldn't happen due to filtering, but safe default
+        CompiledPolicy defaultPolicy = byName.get(file.getDefaultPolicy());
+        if (defaultPolicy == null) {
+            throw new IllegalArgumentException("Default scoring policy '" + file.getDefaultPolicy() + "' is not defined");
+        }
+        return new Policies(Collections.unmodifiableMap(byName), defaultPolicy);
     }
     
-    private String buildReason(AwsService service, double costScore, double scalabilityScore,
-                               double operationalScore, double useCaseScore) {
-        List<String> reasons = new ArrayList<>();
+    private int buildReasons(double costScore, double scalabilityScore,
+                             double operationalScore, double useCaseScore) {
+        int reasons = 0;
         
         if (costScore >= 80) {
-            reasons.add("cost-effective");
+            reasons |= ScoreReason.COST_EFFECTIVE.bit();
         }
         if (scalabilityScore >= 80) {
-            reasons.add("scales well");
+            reasons |= ScoreReason.SCALES_WELL.bit();
         }
         if (operationalScore >= 80) {
-            reasons.add("matches operational preference");
+            reasons |= ScoreReason.MATCHES_OPERATIONAL_PREFERENCE.bit();
         }
         if (useCaseScore >= 80) {
-            reasons.add("optimized for use case");
+            reasons |= ScoreReason.OPTIMIZED_FOR_USE_CASE.bit();
         }
         
-        if (reasons.isEmpty()) {
-            return "Suitable for requirements";
-        }
-        
-        return String.join(", ", reasons);
+        return reasons;
+    }
+    
+    /**
+     * Compiled scoring policies by name, in file order
+     */
+    private record Policies(Map<String, CompiledPolicy> byName, CompiledPolicy defaultPolicy) {
+    }
+    
+    /**
+     * Decision table of every policy for one catalog version
+     */
+    private record Tables(long catalogVersion, Policies policies, Map<String, DecisionTable> byPolicy) {
     }
 }
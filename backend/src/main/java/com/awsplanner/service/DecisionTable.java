@@ -0,0 +1,72 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.UserRequirement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Precompiled service selection for every point of the finite requirement space.
+ *
+ * Service selection only depends on application type, traffic, operational effort,
+ * database need and the budget band used by cost-match scoring, so the whole space
+ * (5 x 3 x 3 x 2 x bands, 270 entries for the default policy) is evaluated once per
+ * catalog version and scoring policy, and requests resolve their architecture with
+ * a single array lookup.
+ */
+public final class DecisionTable {
+    
+    private final CompiledPolicy.Binding binding;
+    private final List<AwsService>[] selections;
+    
+    private DecisionTable(CompiledPolicy.Binding binding, List<AwsService>[] selections) {
+        this.binding = binding;
+        this.selections = selections;
+    }
+    
+    /**
+     * Evaluate the selection function for every key of a policy's requirement space
+     */
+    @SuppressWarnings("unchecked")
+    static DecisionTable build(CompiledPolicy.Binding binding, Function<UserRequirement, List<AwsService>> selector) {
+        CompiledPolicy policy = binding.getPolicy();
+        List<AwsService>[] selections = new List[policy.size()];
+        
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (Level traffic : Level.values()) {
+                for (Level effort : Level.values()) {
+                    for (boolean databaseNeeded : new boolean[]{false, true}) {
+                        for (int band = 0; band < policy.getBandCount(); band++) {
+                            UserRequirement req = new UserRequirement(applicationType, traffic, 0,
+                                databaseNeeded, effort, policy.bandRepresentative(band), policy.getName());
+                            selections[policy.keyOf(req)] =
+                                Collections.unmodifiableList(selector.apply(req));
+                        }
+                    }
+                }
+            }
+        }
+        
+        return new DecisionTable(binding, selections);
+    }
+    
+    public List<AwsService> get(int key) {
+        return selections[key];
+    }
+    
+    public CompiledPolicy.Binding getBinding() {
+        return binding;
+    }
+    
+    public CompiledPolicy getPolicy() {
+        return binding.getPolicy();
+    }
+    
+    public long getCatalogVersion() {
+        return binding.getCatalogVersion();
+    }
+}
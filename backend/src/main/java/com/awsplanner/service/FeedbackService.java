@@ -0,0 +1,250 @@
+package com.awsplanner.service;
+
+import com.awsplanner.metrics.LatencyHistogram;
+import com.awsplanner.metrics.MetricsSource;
+import com.awsplanner.model.Feedback;
+import com.awsplanner.model.FeedbackEntry;
+import com.awsplanner.model.FeedbackPage;
+import com.awsplanner.repository.FeedbackLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, group-committed feedback persistence.
+ *
+ * Request threads only enqueue a submission on a bounded lock-free queue and
+ * return; when the queue is full the submission is rejected so the caller can
+ * back off. A single writer thread drains the queue in batches, appends each batch
+ * to the {@link FeedbackLog} and commits it with one fsync. A submission counts
+ * against the queue bound until its batch is durable.
+ *
+ * Admission and shutdown share one atomic word, the outstanding count plus a
+ * closed bit, so a submission is either refused or counted before shutdown; the
+ * writer only exits, and closes the log, once the count is back to zero.
+ */
+@Service
+public class FeedbackService implements MetricsSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackService.class);
+    
+    private static final String ENTRIES = "feedback_entries_total";
+    private static final String QUEUE_DEPTH = "feedback_queue_depth";
+    private static final String COMMIT_DURATION = "feedback_commit_duration_seconds";
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long SHUTDOWN_WAIT_MILLIS = 10_000;
+    private static final int CLOSED = Integer.MIN_VALUE; // Bit of outstanding set once shutdown starts
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${feedback.directory:data/feedback}")
+    private String directory;
+    
+    @Value("${feedback.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${feedback.max-batch:512}")
+    private int maxBatch;
+    
+    @Value("${feedback.segment-bytes:67108864}")
+    private long segmentBytes;
+    
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger outstanding = new AtomicInteger(); // Queued or not yet durable, plus CLOSED
+    private final LongAdder written = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    
+    private FeedbackLog log;
+    private ObjectWriter writer;
+    private Thread writerThread;
+    
+    /**
+     * Submission waiting for the writer, with the id it was appended under
+     */
+    private static final class Pending {
+        
+        final Feedback feedback;
+        final long receivedAt;
+        long id;
+        
+        Pending(Feedback feedback, long receivedAt) {
+            this.feedback = feedback;
+            this.receivedAt = receivedAt;
+        }
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        log = FeedbackLog.open(Path.of(directory), segmentBytes);
+        writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        writerThread = new Thread(this::drain, "feedback-writer");
+        writerThread.start();
+        logger.info("Feedback log at {} with {} entries", directory, log.getCommittedId());
+    }
+    
+    /**
+     * Stop accepting submissions and wait for the accepted ones to be committed.
+     * The writer closes the log when it is done; if that takes longer than the wait,
+     * it keeps draining in the background.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        outstanding.getAndUpdate(state -> state | CLOSED);
+        LockSupport.unpark(writerThread);
+        writerThread.join(SHUTDOWN_WAIT_MILLIS);
+        if (writerThread.isAlive()) {
+            logger.warn("Feedback writer still has {} entries to commit after {} ms",
+                outstanding.get() & ~CLOSED, SHUTDOWN_WAIT_MILLIS);
+        }
+    }
+    
+    /**
+     * Queue a submission for persistence; false if the queue is full or the
+     * service is shutting down
+     */
+    public boolean submit(Feedback feedback) {
+        int state;
+        do {
+            state = outstanding.get();
+            if ((state & CLOSED) != 0 || state >= queueCapacity) {
+                rejected.increment();
+                return false;
+            }
+        } while (!outstanding.compareAndSet(state, state + 1));
+        
+        queue.offer(new Pending(feedback, System.currentTimeMillis()));
+        LockSupport.unpark(writerThread);
+        return true;
+    }
+    
+    /**
+     * Committed feedback with ids above afterId, oldest first
+     */
+    public FeedbackPage list(long afterId, int limit) {
+        try {
+            List<FeedbackEntry> entries = new ArrayList<>();
+            for (byte[] record : log.read(afterId, limit)) {
+                entries.add(objectMapper.readValue(record, FeedbackEntry.class));
+            }
+            Long nextAfterId = null;
+            if (!entries.isEmpty() && entries.get(entries.size() - 1).getId() < log.getCommittedId()) {
+                nextAfterId = entries.get(entries.size() - 1).getId();
+            }
+            return new FeedbackPage(entries, nextAfterId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP ").append(ENTRIES).append(" Feedback submissions by outcome\n");
+        out.append("# TYPE ").append(ENTRIES).append(" counter\n");
+        out.append(ENTRIES).append("{result=\"written\"} ").append(written.sum()).append('\n');
+        out.append(ENTRIES).append("{result=\"rejected\"} ").append(rejected.sum()).append('\n');
+        
+        out.append("# HELP ").append(QUEUE_DEPTH).append(" Feedback submissions not yet durable\n");
+        out.append("# TYPE ").append(QUEUE_DEPTH).append(" gauge\n");
+        out.append(QUEUE_DEPTH).append(' ').append(outstanding.get() & ~CLOSED).append('\n');
+        
+        out.append("# HELP ").append(COMMIT_DURATION).append(" Latency of writing and syncing one feedback batch\n");
+        out.append("# TYPE ").append(COMMIT_DURATION).append(" histogram\n");
+        commitLatency.writePrometheus(out, COMMIT_DURATION, "log=\"feedback\"");
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Writer loop: take up to maxBatch submissions, append and commit them together.
+     * Runs until shutdown has started and every counted submission is durable, since
+     * an admitted submission may still be on its way into the queue.
+     */
+    private void drain() {
+        try {
+            drainUntilClosed();
+        } finally {
+            try {
+                log.close();
+            } catch (IOException e) {
+                logger.error("Failed to close feedback log", e);
+            }
+        }
+    }
+    
+    private void drainUntilClosed() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (outstanding.get() != CLOSED) {
+            Pending next;
+            while (batch.size() < maxBatch && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            
+            try {
+                commit(batch);
+                outstanding.addAndGet(-batch.size());
+                written.add(batch.size());
+                batch.clear();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to persist {} feedback entries, retrying", batch.size(), e);
+                retainUncommitted(batch);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS));
+            }
+        }
+    }
+    
+    private void commit(List<Pending> batch) throws IOException {
+        long start = System.nanoTime();
+        for (Pending pending : batch) {
+            Feedback feedback = pending.feedback;
+            FeedbackEntry entry = new FeedbackEntry(log.getNextId(),
+                Instant.ofEpochMilli(pending.receivedAt).toString(),
+                feedback.getName(), feedback.getEmail(), feedback.getMessage(), feedback.getType());
+            pending.id = log.append(writer.writeValueAsBytes(entry));
+        }
+        log.commit();
+        commitLatency.record(System.nanoTime() - start);
+    }
+    
+    /**
+     * After a failed commit, drop the entries that became durable anyway (a segment
+     * roll syncs the full segment) and reset the log to append the rest again
+     */
+    private void retainUncommitted(List<Pending> batch) {
+        try {
+            log.rollback();
+        } catch (IOException e) {
+            logger.error("Failed to roll back feedback log", e);
+        }
+        long committedId = log.getCommittedId();
+        int before = batch.size();
+        batch.removeIf(pending -> pending.id != 0 && pending.id <= committedId);
+        outstanding.addAndGet(batch.size() - before);
+        written.add(before - batch.size());
+        batch.forEach(pending -> pending.id = 0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.FrontierPoint;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cost vs. fit score trade-off curve for a requirement.
+ *
+ * Every architecture picks one eligible service per category, as the decision
+ * engine does, plus the mandatory services. The response lists the architectures
+ * on the Pareto frontier ({@link ParetoFrontier}), cheapest first: each costs more
+ * than the previous one and scores better.
+ */
+@Service
+public class FrontierService {
+    
+    @Autowired
+    private RequirementService requirementService;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    @Value("${recommendation.frontier.threads:0}")
+    private int threads;
+    
+    @Value("${recommendation.frontier.max-points:10000}")
+    private int maxPoints;
+    
+    private ForkJoinPool pool;
+    
+    @PostConstruct
+    public void init() {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Pareto-optimal architectures for a requirement, cheapest first.
+     * Throws IllegalArgumentException for invalid requirements, and
+     * ParetoFrontier.TooLargeException if the frontier has more points than the
+     * configured limit.
+     */
+    public List<FrontierPoint> frontier(UserRequirement req) {
+        requirementService.validateRequirements(req);
+        return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(), () -> computeFrontier(req));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private List<FrontierPoint> computeFrontier(UserRequirement req) {
+        ArchitectureOptimizer.Candidates candidates = architectureOptimizer.candidates(req);
+        double[] usage = costEstimation.usageVector(req);
+        ParetoFrontier frontier = ParetoFrontier.compute(
+            candidates.getScores(), architectureOptimizer.costs(candidates, usage), maxPoints, pool);
+        
+        List<AwsService> mandatory = knowledgeBase.getMandatoryServices();
+        double mandatoryCost = 0.0;
+        for (AwsService service : mandatory) {
+            mandatoryCost += costEstimation.calculateServiceCost(service, usage);
+        }
+        
+        int categories = candidates.getCategories().size();
+        List<FrontierPoint> points = new ArrayList<>(frontier.size());
+        for (int p = 0; p < frontier.size(); p++) {
+            int[] choice = frontier.getChoice(p);
+            List<String> services = new ArrayList<>(categories + mandatory.size());
+            for (int k = 0; k < categories; k++) {
+                services.add(candidates.getServices(k).get(choice[k]).getName());
+            }
+            for (AwsService service : mandatory) {
+                services.add(service.getName());
+            }
+            
+            double totalCost = Math.round((frontier.getCost(p) + mandatoryCost) * 100.0) / 100.0;
+            double score = categories > 0 ? frontier.getScore(p) / categories : 0.0;
+            points.add(new FrontierPoint(services, totalCost, Math.round(score * 100.0) / 100.0,
+                                         totalCost <= req.getMonthlyBudget()));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,415 @@
+package com.awsplanner.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Pareto frontier of total score against total cost over every choice of one
+ * candidate per category: the combinations for which no other combination costs
+ * at most as much and scores more.
+ *
+ * The frontier of a range of categories is the pruned pairwise sum of the frontiers
+ * of its two halves, so categories are split recursively into fork/join tasks and
+ * the cross product is never built. A merge walks the pairwise sums in cost order
+ * (a k-way merge over the rows of the sum matrix), keeps a sum only if it scores
+ * more than every cheaper one, and moves each row straight past the sums that are
+ * already dominated. Large merges are split by rows or columns into further tasks,
+ * and their partial frontiers are unioned.
+ *
+ * Adding categories never shrinks a frontier, so the build stops with a
+ * {@link TooLargeException} as soon as the frontier of some range of categories
+ * grows past the point limit, rather than after the whole frontier is built.
+ */
+public final class ParetoFrontier {
+    
+    private static final double EPSILON = 1e-9;
+    private static final long SPLIT_THRESHOLD = 1 << 14; // Sum matrices below this merge on one thread
+    
+    private static final ParetoFrontier EMPTY =
+        new ParetoFrontier(new double[0], new double[0], new int[0][]);
+    
+    private final double[] cost;   // Strictly increasing
+    private final double[] score;  // Strictly increasing
+    private final int[][] choice;  // Candidate index per category of each point
+    
+    private ParetoFrontier(double[] cost, double[] score, int[][] choice) {
+        this.cost = cost;
+        this.score = score;
+        this.choice = choice;
+    }
+    
+    /**
+     * @param scores per category, the score of each candidate
+     * @param costs  per category, the cost of each candidate
+     * @param pool   pool running the merge tasks
+     */
+    public static ParetoFrontier compute(double[][] scores, double[][] costs, ForkJoinPool pool) {
+        return compute(scores, costs, Integer.MAX_VALUE, pool);
+    }
+    
+    /**
+     * Frontier of at most maxPoints points; throws {@link TooLargeException} if the
+     * frontier has more
+     */
+    public static ParetoFrontier compute(double[][] scores, double[][] costs, int maxPoints, ForkJoinPool pool) {
+        if (scores.length == 0) {
+            return new ParetoFrontier(new double[]{0.0}, new double[]{0.0}, new int[][]{{}});
+        }
+        return pool.invoke(new CategoryTask(scores, costs, 0, scores.length, maxPoints));
+    }
+    
+    /**
+     * Number of points, cheapest first; zero if some category has no candidates
+     */
+    public int size() {
+        return cost.length;
+    }
+    
+    public double getCost(int point) {
+        return cost[point];
+    }
+    
+    public double getScore(int point) {
+        return score[point];
+    }
+    
+    /**
+     * Candidate index chosen in each category for a point
+     */
+    public int[] getChoice(int point) {
+        return choice[point].clone();
+    }
+    
+    /**
+     * Indexes of the candidates on the Pareto front of a single category, cheapest
+     * first; among equal costs only the best score can survive
+     */
+    static int[] paretoIndexes(double[] scores, double[] costs) {
+        Integer[] byCost = new Integer[scores.length];
+        for (int i = 0; i < byCost.length; i++) {
+            byCost[i] = i;
+        }
+        // Cheapest first; among equal costs the best score first
+        Arrays.sort(byCost, (a, b) -> {
+            int byPrice = Double.compare(costs[a], costs[b]);
+            return byPrice != 0 ? byPrice : Double.compare(scores[b], scores[a]);
+        });
+        
+        int[] kept = new int[byCost.length];
+        int count = 0;
+        double bestSoFar = Double.NEGATIVE_INFINITY;
+        for (int i : byCost) {
+            if (scores[i] > bestSoFar + EPSILON) {
+                kept[count++] = i;
+                bestSoFar = scores[i];
+            }
+        }
+        return Arrays.copyOf(kept, count);
+    }
+    
+    /**
+     * Thrown when a frontier has more points than the limit it is computed with
+     */
+    public static final class TooLargeException extends RuntimeException {
+        
+        private final int limit;
+        
+        TooLargeException(int limit) {
+            super("Pareto frontier has more than " + limit + " architectures, the server limit");
+            this.limit = limit;
+        }
+        
+        public int getLimit() {
+            return limit;
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static ParetoFrontier leaf(double[] scores, double[] costs, int limit) {
+        int[] front = paretoIndexes(scores, costs);
+        if (front.length > limit) {
+            throw new TooLargeException(limit);
+        }
+        double[] cost = new double[front.length];
+        double[] score = new double[front.length];
+        int[][] choice = new int[front.length][];
+        for (int p = 0; p < front.length; p++) {
+            cost[p] = costs[front[p]];
+            score[p] = scores[front[p]];
+            choice[p] = new int[]{front[p]};
+        }
+        return new ParetoFrontier(cost, score, choice);
+    }
+    
+    /**
+     * Frontier of the sums of rows [rowFrom, rowTo) of a and columns [colFrom, colTo) of b;
+     * stops once it has more than limit points
+     */
+    private static ParetoFrontier merge(ParetoFrontier a, int rowFrom, int rowTo,
+                                        ParetoFrontier b, int colFrom, int colTo, int limit) {
+        int rows = rowTo - rowFrom;
+        int[] column = new int[rows];   // Next column of each row
+        int[] heap = new int[rows];     // Rows by the cost of their next sum
+        int heapSize = 0;
+        for (int r = 0; r < rows; r++) {
+            column[r] = colFrom;
+            heap[heapSize] = r;
+            siftUp(heap, heapSize++, a, rowFrom, b, column);
+        }
+        
+        Builder out = new Builder(Math.max(rows, colTo - colFrom), limit);
+        double best = Double.NEGATIVE_INFINITY;
+        while (heapSize > 0) {
+            int r = heap[0];
+            int i = rowFrom + r;
+            int j = column[r];
+            double sumScore = a.score[i] + b.score[j];
+            if (sumScore > best + EPSILON) {
+                out.add(a.cost[i] + b.cost[j], sumScore, a.choice[i], b.choice[j]);
+                best = sumScore;
+            }
+            
+            // Later columns cost more, so only ones that score above the best so far can survive
+            int next = firstAbove(b.score, j + 1, colTo, best - a.score[i] + EPSILON);
+            if (next < colTo) {
+                column[r] = next;
+            } else {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, a, rowFrom, b, column);
+        }
+        return out.build();
+    }
+    
+    /**
+     * Frontier of the points of two frontiers over the same categories; stops once it
+     * has more than limit points
+     */
+    private static ParetoFrontier union(ParetoFrontier x, ParetoFrontier y, int limit) {
+        Builder out = new Builder(x.size() + y.size(), limit);
+        double best = Double.NEGATIVE_INFINITY;
+        int i = 0;
+        int j = 0;
+        while (i < x.size() || j < y.size()) {
+            boolean takeX = j == y.size()
+                || (i < x.size() && (x.cost[i] < y.cost[j]
+                                     || (x.cost[i] == y.cost[j] && x.score[i] >= y.score[j])));
+            ParetoFrontier source = takeX ? x : y;
+            int p = takeX ? i++ : j++;
+            if (source.score[p] > best + EPSILON) {
+                out.add(source.cost[p], source.score[p], source.choice[p]);
+                best = source.score[p];
+            }
+        }
+        return out.build();
+    }
+    
+    /**
+     * First index in [from, to) whose score exceeds the threshold, or to if none does
+     */
+    private static int firstAbove(double[] scores, int from, int to, double threshold) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (scores[mid] > threshold) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Heap order: cheaper sum first, and among equal costs the higher score
+     */
+    private static boolean before(int r1, int r2, ParetoFrontier a, int rowFrom,
+                                  ParetoFrontier b, int[] column) {
+        double cost1 = a.cost[rowFrom + r1] + b.cost[column[r1]];
+        double cost2 = a.cost[rowFrom + r2] + b.cost[column[r2]];
+        if (cost1 != cost2) {
+            return cost1 < cost2;
+        }
+        return a.score[rowFrom + r1] + b.score[column[r1]] > a.score[rowFrom + r2] + b.score[column[r2]];
+    }
+    
+    private static void siftUp(int[] heap, int index, ParetoFrontier a, int rowFrom,
+                               ParetoFrontier b, int[] column) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(row, heap[parent], a, rowFrom, b, column)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+    
+    private static void siftDown(int[] heap, int size, ParetoFrontier a, int rowFrom,
+                                 ParetoFrontier b, int[] column) {
+        if (size == 0) {
+            return;
+        }
+        int row = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child], a, rowFrom, b, column)) {
+                child++;
+            }
+            if (!before(heap[child], row, a, rowFrom, b, column)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+    
+    /**
+     * Growable point arrays for a frontier under construction. Points only ever
+     * extend the frontier, so passing the limit is final.
+     */
+    private static final class Builder {
+        
+        private final int limit;
+        private double[] cost;
+        private double[] score;
+        private int[][] choice;
+        private int size;
+        
+        Builder(int capacity, int limit) {
+            this.limit = limit;
+            int initial = Math.max(Math.min(capacity, limit), 8);
+            cost = new double[initial];
+            score = new double[initial];
+            choice = new int[initial][];
+        }
+        
+        void add(double pointCost, double pointScore, int[] left, int[] right) {
+            int[] combined = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, combined, left.length, right.length);
+            add(pointCost, pointScore, combined);
+        }
+        
+        /**
+         * Append a point scoring above the last one; a point that costs the same as
+         * the last one, up to rounding of the summed costs, replaces it
+         */
+        void add(double pointCost, double pointScore, int[] pointChoice) {
+            if (size > 0 && pointCost - cost[size - 1] <= EPSILON) {
+                size--;
+            }
+            if (size == limit) {
+                throw new TooLargeException(limit);
+            }
+            if (size == cost.length) {
+                cost = Arrays.copyOf(cost, size * 2);
+                score = Arrays.copyOf(score, size * 2);
+                choice = Arrays.copyOf(choice, size * 2);
+            }
+            cost[size] = pointCost;
+            score[size] = pointScore;
+            choice[size++] = pointChoice;
+        }
+        
+        ParetoFrontier build() {
+            return new ParetoFrontier(Arrays.copyOf(cost, size), Arrays.copyOf(score, size),
+                                      Arrays.copyOf(choice, size));
+        }
+    }
+    
+    /**
+     * Frontier of the categories [from, to): both halves in parallel, then merged
+     */
+    private static final class CategoryTask extends RecursiveTask<ParetoFrontier> {
+        
+        private final double[][] scores;
+        private final double[][] costs;
+        private final int from;
+        private final int to;
+        private final int limit;
+        
+        CategoryTask(double[][] scores, double[][] costs, int from, int to, int limit) {
+            this.scores = scores;
+            this.costs = costs;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+        }
+        
+        @Override
+        protected ParetoFrontier compute() {
+            if (to - from == 1) {
+                return leaf(scores[from], costs[from], limit);
+            }
+            int mid = (from + to) >>> 1;
+            CategoryTask left = new CategoryTask(scores, costs, from, mid, limit);
+            left.fork();
+            ParetoFrontier right = new CategoryTask(scores, costs, mid, to, limit).compute();
+            ParetoFrontier leftFront = left.join();
+            if (leftFront.size() == 0 || right.size() == 0) {
+                return EMPTY;
+            }
+            return new MergeTask(leftFront, 0, leftFront.size(), right, 0, right.size(), limit).compute();
+        }
+    }
+    
+    /**
+     * Merge of a block of the sum matrix, split along its longer side while large.
+     * Only the whole matrix is held to the limit: the frontier of one block can have
+     * more points than that of the whole.
+     */
+    private static final class MergeTask extends RecursiveTask<ParetoFrontier> {
+        
+        private final ParetoFrontier a;
+        private final int rowFrom;
+        private final int rowTo;
+        private final ParetoFrontier b;
+        private final int colFrom;
+        private final int colTo;
+        private final int limit;
+        
+        MergeTask(ParetoFrontier a, int rowFrom, int rowTo, ParetoFrontier b, int colFrom, int colTo, int limit) {
+            this.a = a;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.b = b;
+            this.colFrom = colFrom;
+            this.colTo = colTo;
+            this.limit = limit;
+        }
+        
+        @Override
+        protected ParetoFrontier compute() {
+            int rows = rowTo - rowFrom;
+            int columns = colTo - colFrom;
+            if ((long) rows * columns <= SPLIT_THRESHOLD || (rows == 1 && columns == 1)) {
+                return merge(a, rowFrom, rowTo, b, colFrom, colTo, limit);
+            }
+            
+            MergeTask first;
+            MergeTask second;
+            if (rows >= columns) {
+                int mid = (rowFrom + rowTo) >>> 1;
+                first = new MergeTask(a, rowFrom, mid, b, colFrom, colTo, Integer.MAX_VALUE);
+                second = new MergeTask(a, mid, rowTo, b, colFrom, colTo, Integer.MAX_VALUE);
+            } else {
+                int mid = (colFrom + colTo) >>> 1;
+                first = new MergeTask(a, rowFrom, rowTo, b, colFrom, mid, Integer.MAX_VALUE);
+                second = new MergeTask(a, rowFrom, rowTo, b, mid, colTo, Integer.MAX_VALUE);
+            }
+            first.fork();
+            ParetoFrontier secondFront = second.compute();
+            return union(first.join(), secondFront, limit);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.awsplanner.service;
+
+import com.awsplanner.repository.PricingVectors;
+
+/**
+ * Month-by-month pricing of a fixed set of services.
+ *
+ * Usage is laid out dimension-major, {@code usage[d][month]}, so pricing a service
+ * over the whole horizon is, per pricing dimension, one multiply-add of a scalar
+ * coefficient across a contiguous month array. These loops are branch-free and
+ * unit-stride, which C2 compiles to packed SIMD instructions, so no explicit
+ * vector code is needed. Costs are rounded like
+ * {@code CostEstimationService.calculateMonthlyCost}: per service and month, then
+ * per month in total.
+ */
+public final class ProjectionEngine {
+    
+    private ProjectionEngine() {
+    }
+    
+    /**
+     * Compound a starting value month by month:
+     * {@code value[m] = value[m - 1] * (1 + rate) * factors[m] + deltas[m]},
+     * with {@code value[-1] * (1 + rate)} taken as the start. Values never drop below zero.
+     */
+    public static double[] grow(double start, double rate, double[] factors, double[] deltas) {
+        double[] values = new double[factors.length];
+        double growth = 1.0 + rate;
+        double value = start;
+        for (int m = 0; m < values.length; m++) {
+            if (m > 0) {
+                value *= growth;
+            }
+            value = Math.max(0.0, value * factors[m] + deltas[m]);
+            values[m] = value;
+        }
+        return values;
+    }
+    
+    /**
+     * Usage series over the pricing dimensions, {@code usage[d][month]}, built the
+     * same way as {@code CostEstimationService.usageVector} for each month
+     */
+    public static double[][] usage(double[] trafficRequests, double[] storageGB) {
+        int months = trafficRequests.length;
+        double[][] usage = new double[PricingVectors.DIMENSIONS][months];
+        double[] base = usage[PricingVectors.BASE];
+        double[] trafficUnits = usage[PricingVectors.TRAFFIC_UNITS];
+        double[] millionRequests = usage[PricingVectors.MILLION_REQUESTS];
+        
+        for (int m = 0; m < months; m++) {
+            base[m] = 1.0;
+            trafficUnits[m] = Math.floor(trafficRequests[m] / 10000); // Whole 10k-request units
+            millionRequests[m] = trafficRequests[m] / 1000000.0;
+        }
+        System.arraycopy(storageGB, 0, usage[PricingVectors.STORAGE_GB], 0, months);
+        return usage; // GB_SECONDS stays zero: compute duration is not captured by requirements
+    }
+    
+    /**
+     * Rounded monthly cost of each service, {@code costs[service][month]}.
+     * Negative ordinals (services not in the catalog) cost nothing.
+     */
+    public static double[][] serviceCosts(PricingVectors pricing, int[] ordinals, double[][] usage) {
+        int months = usage[0].length;
+        double[][] costs = new double[ordinals.length][months];
+        
+        for (int s = 0; s < ordinals.length; s++) {
+            if (ordinals[s] < 0) {
+                continue;
+            }
+            double[] cost = costs[s];
+            for (int d = 0; d < PricingVectors.DIMENSIONS; d++) {
+                double coefficient = pricing.coefficient(ordinals[s], d);
+                if (coefficient == 0.0) {
+                    continue;
+                }
+                double[] amount = usage[d];
+                for (int m = 0; m < months; m++) {
+                    cost[m] += coefficient * amount[m];
+                }
+            }
+            for (int m = 0; m < months; m++) {
+                cost[m] = Math.round(cost[m] * 100.0) / 100.0;
+            }
+        }
+        return costs;
+    }
+    
+    /**
+     * Rounded total cost per month of the given service cost series
+     */
+    public static double[] monthlyTotals(double[][] serviceCosts, int months) {
+        double[] totals = new double[months];
+        for (double[] cost : serviceCosts) {
+            for (int m = 0; m < months; m++) {
+                totals[m] += cost[m];
+            }
+        }
+        for (int m = 0; m < months; m++) {
+            totals[m] = Math.round(totals[m] * 100.0) / 100.0;
+        }
+        return totals;
+    }
+}
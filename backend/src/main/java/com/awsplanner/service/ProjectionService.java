@@ -0,0 +1,122 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.*;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Multi-month cost projections.
+ *
+ * The architecture is selected and fitted to the budget once, for the starting
+ * requirement, as for /api/recommend. Traffic and storage then follow their
+ * compound growth rates and step changes, and every month of every service is
+ * priced from the compiled pricing coefficients by {@link ProjectionEngine}.
+ * With no growth and no steps, each month costs what /api/recommend reports.
+ */
+@Service
+public class ProjectionService {
+    
+    @Autowired
+    private RequirementService requirementService;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    /**
+     * Throws IllegalArgumentException for invalid requirements or steps
+     */
+    public CostProjection project(ProjectionRequest request) {
+        UserRequirement req = request.getRequirement();
+        requirementService.validateRequirements(req);
+        int months = request.getMonths();
+        
+        double[] noDeltas = new double[months];
+        double[] noFactors = new double[months];
+        Arrays.fill(noFactors, 1.0);
+        double[] trafficFactors = noFactors.clone();
+        double[] storageDeltas = new double[months];
+        if (request.getSteps() != null) {
+            for (ProjectionStep step : request.getSteps()) {
+                if (step == null || step.getMonth() == null) {
+                    throw new IllegalArgumentException("Step month is required");
+                }
+                if (step.getMonth() > months) {
+                    throw new IllegalArgumentException(
+                        "Step month " + step.getMonth() + " is beyond the " + months + "-month projection");
+                }
+                int m = step.getMonth() - 1;
+                trafficFactors[m] *= orDefault(step.getTrafficMultiplier(), 1.0);
+                storageDeltas[m] += orDefault(step.getStorageDeltaGB(), 0.0);
+            }
+        }
+        
+        double[] trafficRequests = ProjectionEngine.grow(requirementService.normalizeTraffic(req.getTraffic()),
+            orDefault(request.getTrafficGrowthRate(), 0.0), trafficFactors, noDeltas);
+        double[] storageGB = ProjectionEngine.grow(req.getStorageGB(),
+            orDefault(request.getStorageGrowthRate(), 0.0), noFactors, storageDeltas);
+        
+        return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(),
+            () -> computeProjection(req, trafficRequests, storageGB));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private CostProjection computeProjection(UserRequirement req, double[] trafficRequests, double[] storageGB) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        int months = trafficRequests.length;
+        
+        List<AwsService> services = architectureOptimizer.fitToBudget(
+            decisionEngine.getRecommendedServices(req), req);
+        int[] ordinals = new int[services.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = catalog.ordinalOf(services.get(i).getId());
+        }
+        
+        double[][] usage = ProjectionEngine.usage(trafficRequests, storageGB);
+        double[][] costs = ProjectionEngine.serviceCosts(catalog.getPricingVectors(), ordinals, usage);
+        double[] totals = ProjectionEngine.monthlyTotals(costs, months);
+        
+        List<ServiceProjection> serviceProjections = new ArrayList<>(services.size());
+        for (int i = 0; i < ordinals.length; i++) {
+            AwsService service = services.get(i);
+            serviceProjections.add(new ServiceProjection(
+                service.getName(), service.getCategory(), costs[i], sum(costs[i])));
+        }
+        
+        double[] cumulative = new double[months];
+        double running = 0.0;
+        Integer firstMonthOverBudget = null;
+        for (int m = 0; m < months; m++) {
+            running += totals[m];
+            cumulative[m] = Math.round(running * 100.0) / 100.0;
+            if (firstMonthOverBudget == null && totals[m] > req.getMonthlyBudget()) {
+                firstMonthOverBudget = m + 1;
+            }
+        }
+        
+        return new CostProjection(months, trafficRequests, storageGB, serviceProjections,
+                                  totals, cumulative, cumulative[months - 1], firstMonthOverBudget);
+    }
+    
+    private static double sum(double[] values) {
+        double total = 0.0;
+        for (double value : values) {
+            total += value;
+        }
+        return Math.round(total * 100.0) / 100.0;
+    }
+    
+    private static double orDefault(Double value, double fallback) {
+        return value != null ? value : fallback;
+    }
+}
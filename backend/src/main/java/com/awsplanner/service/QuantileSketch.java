@@ -0,0 +1,113 @@
+package com.awsplanner.service;
+
+/**
+ * Fixed-size, mergeable quantile sketch with relative error guarantees.
+ *
+ * Positive values are counted in logarithmic buckets, bucket i covering
+ * (gamma^(i-1), gamma^i] with {@code gamma = (1 + a) / (1 - a)}, so any reported
+ * quantile is within relative accuracy a of a value that was added. Values at or
+ * below zero share one bucket. The bucket range is fixed, so a sketch takes the
+ * same memory however many values it holds, and merging is an element-wise sum of
+ * counts: the result does not depend on how values were split across sketches or
+ * the order sketches were merged in. Positive values below 0.01 share the lowest
+ * bucket. Values above {@link #MAX_VALUE} are not bucketed but counted as overflow,
+ * and a quantile that falls among them is reported as infinite rather than as a
+ * wrong finite value; min and max are kept exactly.
+ */
+public final class QuantileSketch {
+    
+    public static final double RELATIVE_ACCURACY = 0.005;
+    public static final double MAX_VALUE = 1e12; // Largest value with the relative accuracy guarantee
+    
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_INDEX = index(1e-2);
+    private static final int MAX_INDEX = index(MAX_VALUE);
+    
+    private final long[] counts = new long[MAX_INDEX - MIN_INDEX + 1];
+    private long zeroCount;
+    private long overflowCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    
+    public void add(double value) {
+        if (value > MAX_VALUE) {
+            overflowCount++;
+        } else if (value > 0.0) {
+            counts[Math.max(MIN_INDEX, index(value)) - MIN_INDEX]++;
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+    
+    /**
+     * Add the counts of another sketch to this one
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        overflowCount += other.overflowCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+    
+    /**
+     * Value at quantile q in [0, 1] (lower nearest rank); NaN if the sketch is empty,
+     * positive infinity if the rank falls among values above MAX_VALUE
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return clamp(0.0);
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return clamp(2 * Math.pow(GAMMA, i + MIN_INDEX) / (GAMMA + 1));
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Number of values above MAX_VALUE
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+    
+    public double getMin() {
+        return min;
+    }
+    
+    public double getMax() {
+        return max;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+    
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
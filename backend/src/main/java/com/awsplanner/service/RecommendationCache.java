@@ -0,0 +1,308 @@
+package com.awsplanner.service;
+
+import com.awsplanner.metrics.MetricsSource;
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.Recommendation;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.CatalogUpdatedEvent;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of serialized recommendation responses.
+ *
+ * Entries are keyed on the parsed requirement plus the catalog version, so
+ * equivalent request bodies share an entry and a catalog change makes every
+ * older entry unreachable (they are also dropped eagerly on the update event).
+ * Concurrent misses for one key wait for a single computation. Entries expire
+ * after a TTL; when the cache is full, the oldest entry not read since it was
+ * last considered is evicted (second-chance / CLOCK order).
+ */
+@Service
+public class RecommendationCache implements MetricsSource {
+    
+    private static final String REQUESTS = "recommendation_cache_requests_total";
+    private static final String EVICTIONS = "recommendation_cache_evictions_total";
+    private static final String ENTRIES = "recommendation_cache_entries";
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Value("${recommendation.cache.max-entries:1024}")
+    private int maxEntries;
+    
+    @Value("${recommendation.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    private final ConcurrentHashMap<Key, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node> clock = new ConcurrentLinkedQueue<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    /**
+     * Result of a cache lookup
+     */
+    public static final class Lookup {
+        
+        private final CachedResponse response;
+        private final boolean hit;
+        
+        Lookup(CachedResponse response, boolean hit) {
+            this.response = response;
+            this.hit = hit;
+        }
+        
+        public CachedResponse getResponse() {
+            return response;
+        }
+        
+        /**
+         * True if the response was served from the cache or by another request's computation
+         */
+        public boolean isHit() {
+            return hit;
+        }
+    }
+    
+    /**
+     * Get the cached response for a requirement, computing and caching it on a miss.
+     * The computation runs with the current catalog snapshot pinned. Failures are
+     * not cached; they propagate to the caller and to requests waiting on it.
+     */
+    public Lookup get(UserRequirement requirement, Supplier<Recommendation> compute) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        Key key = Key.of(requirement, policyNameOf(requirement), catalog.getVersion());
+        
+        if (key == null || maxEntries <= 0) {
+            bypasses.increment();
+            return new Lookup(serialize(knowledgeBase.withSnapshot(catalog, compute)), false);
+        }
+        
+        while (true) {
+            CompletableFuture<Entry> future = entries.get(key);
+            
+            if (future == null) {
+                CompletableFuture<Entry> created = new CompletableFuture<>();
+                future = entries.putIfAbsent(key, created);
+                if (future == null) {
+                    misses.increment();
+                    return new Lookup(load(key, created, catalog, compute), false);
+                }
+            }
+            
+            Entry entry = await(future);
+            if (entry.isExpired()) {
+                if (entries.remove(key, future)) {
+                    clock.remove(entry.node);
+                    expirations.increment();
+                }
+                continue;
+            }
+            
+            entry.referenced = true;
+            hits.increment();
+            return new Lookup(entry.response, true);
+        }
+    }
+    
+    /**
+     * Drop all entries; requests that are computing keep their own results
+     */
+    public void invalidate() {
+        int size = entries.size();
+        entries.clear();
+        clock.clear();
+        invalidations.add(size);
+    }
+    
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        invalidate();
+    }
+    
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP ").append(REQUESTS).append(" Recommendation cache lookups by result\n");
+        out.append("# TYPE ").append(REQUESTS).append(" counter\n");
+        out.append(REQUESTS).append("{result=\"hit\"} ").append(hits.sum()).append('\n');
+        out.append(REQUESTS).append("{result=\"miss\"} ").append(misses.sum()).append('\n');
+        out.append(REQUESTS).append("{result=\"bypass\"} ").append(bypasses.sum()).append('\n');
+        
+        out.append("# HELP ").append(EVICTIONS).append(" Recommendation cache entries removed by reason\n");
+        out.append("# TYPE ").append(EVICTIONS).append(" counter\n");
+        out.append(EVICTIONS).append("{reason=\"size\"} ").append(sizeEvictions.sum()).append('\n');
+        out.append(EVICTIONS).append("{reason=\"expired\"} ").append(expirations.sum()).append('\n');
+        out.append(EVICTIONS).append("{reason=\"catalog\"} ").append(invalidations.sum()).append('\n');
+        
+        out.append("# HELP ").append(ENTRIES).append(" Recommendation cache entries, including in-flight ones\n");
+        out.append("# TYPE ").append(ENTRIES).append(" gauge\n");
+        out.append(ENTRIES).append(' ').append(entries.size()).append('\n');
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private CachedResponse load(Key key, CompletableFuture<Entry> created,
+                                CatalogSnapshot catalog, Supplier<Recommendation> compute) {
+        Node node = new Node(key, created);
+        clock.add(node);
+        evictIfFull();
+        
+        try {
+            CachedResponse response = serialize(knowledgeBase.withSnapshot(catalog, compute));
+            created.complete(new Entry(response, node,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            return response;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, created);
+            clock.remove(node);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Evict in CLOCK order until the cache is within bounds. Entries read since they
+     * were last passed get a second chance, as do entries still being computed.
+     */
+    private void evictIfFull() {
+        int budget = 2 * maxEntries + 2; // Every node gets at most one second chance
+        while (entries.size() > maxEntries && budget-- > 0) {
+            Node node = clock.poll();
+            if (node == null) {
+                return;
+            }
+            if (entries.get(node.key) != node.future) {
+                continue; // Already removed
+            }
+            
+            Entry entry = node.future.getNow(null);
+            if (entry == null && !node.future.isDone()) {
+                clock.add(node);
+                continue;
+            }
+            if (entry != null && entry.referenced && !entry.isExpired()) {
+                entry.referenced = false;
+                clock.add(node);
+                continue;
+            }
+            
+            if (entries.remove(node.key, node.future)) {
+                sizeEvictions.increment();
+            }
+        }
+    }
+    
+    private CachedResponse serialize(Recommendation recommendation) {
+        try {
+            return new CachedResponse(objectMapper.writeValueAsBytes(recommendation));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize recommendation", e);
+        }
+    }
+    
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Name of the policy a requirement is scored with, so omitting the policy and
+     * naming the default one share an entry; null if the policy is unknown
+     */
+    private String policyNameOf(UserRequirement requirement) {
+        try {
+            return decisionEngine.policyFor(requirement.getPolicy()).getName();
+        } catch (IllegalArgumentException e) {
+            return null; // Not cached; the computation reports it
+        }
+    }
+    
+    /**
+     * Normalized requirement: parsed field values and the resolved policy name, so
+     * formatting, field order and an omitted default policy do not matter
+     */
+    private record Key(ApplicationType applicationType, Level traffic, int storageGB,
+                       boolean databaseNeeded, Level operationalEffort, double monthlyBudget,
+                       String policy, long catalogVersion) {
+        
+        /**
+         * Key for a requirement scored with the named policy, or null if it is
+         * incomplete or its policy unknown and will fail validation
+         */
+        static Key of(UserRequirement req, String policy, long catalogVersion) {
+            if (policy == null || req.getApplicationType() == null || req.getTraffic() == null
+                    || req.getStorageGB() == null || req.getDatabaseNeeded() == null
+                    || req.getOperationalEffort() == null || req.getMonthlyBudget() == null) {
+                return null;
+            }
+            // 0.0 and -0.0 produce the same response but are distinct in record equality
+            double budget = req.getMonthlyBudget() == 0.0 ? 0.0 : req.getMonthlyBudget();
+            return new Key(req.getApplicationType(), req.getTraffic(), req.getStorageGB(),
+                req.getDatabaseNeeded(), req.getOperationalEffort(), budget, policy, catalogVersion);
+        }
+    }
+    
+    private static final class Node {
+        
+        final Key key;
+        final CompletableFuture<Entry> future;
+        
+        Node(Key key, CompletableFuture<Entry> future) {
+            this.key = key;
+            this.future = future;
+        }
+    }
+    
+    private static final class Entry {
+        
+        final CachedResponse response;
+        final Node node;
+        final long expiresAtNanos;
+        volatile boolean referenced;
+        
+        Entry(CachedResponse response, Node node, long expiresAtNanos) {
+            this.response = response;
+            this.node = node;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+        
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
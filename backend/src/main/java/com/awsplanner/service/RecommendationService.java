@@ -0,0 +1,129 @@
+package com.awsplanner.service;
+
+import com.awsplanner.metrics.PipelineMetrics;
+import com.awsplanner.metrics.PipelineStage;
+import com.awsplanner.metrics.PipelineTrace;
+import com.awsplanner.model.*;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Orchestrates the recommendation pipeline: validate, select, fit to budget,
+ * cost, alternatives, upgrades and response assembly. Each stage is timed
+ * through a {@link PipelineTrace}.
+ */
+@Service
+public class RecommendationService {
+    
+    @Autowired
+    private RequirementService requirementService;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    @Autowired
+    private PipelineMetrics metrics;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    /**
+     * Build the complete recommendation for a requirement.
+     * Throws IllegalArgumentException for invalid requirements.
+     */
+    public Recommendation recommend(UserRequirement requirement) {
+        return recommend(requirement, metrics.newTrace());
+    }
+    
+    /**
+     * Build the complete recommendation, recording stage timings in the given trace
+     */
+    public Recommendation recommend(UserRequirement requirement, PipelineTrace trace) {
+        // Pin one catalog snapshot so a concurrent reload cannot mix catalog versions
+        return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(),
+            () -> runPipeline(requirement, trace));
+    }
+    
+    private Recommendation runPipeline(UserRequirement requirement, PipelineTrace trace) {
+        try {
+            // Step 1: Validate requirements
+            trace.begin(PipelineStage.VALIDATE);
+            requirementService.validateRequirements(requirement);
+            
+            // Step 2: Get recommended services from decision engine
+            trace.begin(PipelineStage.SELECT);
+            List<AwsService> selectedServices = decisionEngine.getRecommendedServices(requirement);
+            
+            // Step 2b: Trade scores for cost if the ranked architecture exceeds the budget
+            trace.begin(PipelineStage.FIT);
+            selectedServices = architectureOptimizer.fitToBudget(selectedServices, requirement);
+            
+            // Step 3: Calculate costs
+            trace.begin(PipelineStage.COST);
+            List<RecommendedService> recommendedServices = 
+                costEstimation.createRecommendedServices(selectedServices, requirement);
+            
+            double totalCost = costEstimation.calculateMonthlyCost(selectedServices, requirement);
+            boolean withinBudget = costEstimation.validateBudget(totalCost, requirement.getMonthlyBudget());
+            
+            // Step 4: Generate alternatives
+            trace.begin(PipelineStage.ALTERNATIVES);
+            List<AlternativeArchitecture> alternatives = 
+                costEstimation.suggestAlternatives(selectedServices, requirement);
+            
+            // Step 5: Generate optional upgrades
+            trace.begin(PipelineStage.UPGRADES);
+            List<String> optionalUpgrades = 
+                costEstimation.generateUpgrades(totalCost, requirement.getMonthlyBudget(), requirement);
+            
+            // Step 6: Build response
+            trace.begin(PipelineStage.BUILD);
+            Recommendation recommendation = buildRecommendation(requirement, recommendedServices, totalCost,
+                                                                withinBudget, alternatives, optionalUpgrades);
+            
+            trace.finish();
+            return recommendation;
+        
+        } catch (RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Assemble the response from the results of the pipeline stages
+     */
+    static Recommendation buildRecommendation(UserRequirement requirement,
+                                              List<RecommendedService> recommendedServices,
+                                              double totalCost, boolean withinBudget,
+                                              List<AlternativeArchitecture> alternatives,
+                                              List<String> optionalUpgrades) {
+        Recommendation recommendation = new Recommendation();
+        recommendation.setArchitecture(recommendedServices);
+        recommendation.setTotalCost(totalCost);
+        recommendation.setBudget(requirement.getMonthlyBudget());
+        recommendation.setWithinBudget(withinBudget);
+        recommendation.setAlternatives(alternatives);
+        recommendation.setOptionalUpgrades(optionalUpgrades);
+        
+        if (!withinBudget) {
+            recommendation.setMessage(
+                "Warning: Recommended architecture exceeds budget by $" + 
+                Math.round((totalCost - requirement.getMonthlyBudget()) * 100.0) / 100.0 + 
+                ". Consider the budget-optimized alternative."
+            );
+        } else {
+            recommendation.setMessage("Architecture fits within your budget!");
+        }
+        return recommendation;
+    }
+}
@@ -0,0 +1,120 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.RegionComparison;
+import com.awsplanner.model.RegionCost;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.RegionalPricing;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cost of the recommended architecture in every region.
+ *
+ * The architecture is selected and fitted to the budget as for /api/recommend
+ * (at base prices), then priced in all regions in one pass over
+ * {@link RegionalPricing}. Regional pricing is compiled on first use for each
+ * catalog version; so is a failure to compile it, which is rethrown until a reload
+ * (any change in the catalog directory, including to the region file) replaces it.
+ */
+@Service
+public class RegionalCostService {
+    
+    @Autowired
+    private RequirementService requirementService;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    private volatile Compiled compiled;
+    
+    /**
+     * Recommended architecture with its monthly cost per region, cheapest first.
+     * Throws IllegalArgumentException for invalid requirements.
+     */
+    public RegionComparison compareRegions(UserRequirement req) {
+        requirementService.validateRequirements(req);
+        return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(), () -> computeComparison(req));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private RegionComparison computeComparison(UserRequirement req) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        RegionalPricing regional = pricingFor(catalog);
+        
+        List<AwsService> services = architectureOptimizer.fitToBudget(
+            decisionEngine.getRecommendedServices(req), req);
+        int[] ordinals = new int[services.size()];
+        List<String> names = new ArrayList<>(services.size());
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = catalog.ordinalOf(services.get(i).getId());
+            names.add(services.get(i).getName());
+        }
+        
+        double[] totals = regional.monthlyCosts(ordinals, costEstimation.usageVector(req));
+        List<RegionCost> regions = new ArrayList<>(totals.length);
+        for (int r = 0; r < totals.length; r++) {
+            regions.add(new RegionCost(regional.getCode(r), regional.getName(r), totals[r],
+                                       totals[r] <= req.getMonthlyBudget()));
+        }
+        regions.sort(Comparator.comparingDouble(RegionCost::getTotalCost)); // Stable: ties keep file order
+        return new RegionComparison(names, regions);
+    }
+    
+    /**
+     * Regional pricing compiled against the given snapshot
+     */
+    private RegionalPricing pricingFor(CatalogSnapshot catalog) {
+        Compiled current = compiled;
+        if (current == null || current.catalogVersion() != catalog.getVersion()) {
+            current = compile(catalog);
+            synchronized (this) {
+                if (compiled == null || compiled.catalogVersion() < current.catalogVersion()) {
+                    compiled = current;
+                }
+            }
+        }
+        
+        if (current.failure() != null) {
+            throw current.failure();
+        }
+        return current.pricing();
+    }
+    
+    private Compiled compile(CatalogSnapshot catalog) {
+        try {
+            return new Compiled(catalog.getVersion(), RegionalPricing.compile(catalog, knowledgeBase.readRegions()),
+                                null);
+        } catch (IOException e) {
+            return new Compiled(catalog.getVersion(), null, new UncheckedIOException(e));
+        } catch (IllegalArgumentException e) {
+            // A broken region file is a server fault, not a bad request
+            return new Compiled(catalog.getVersion(), null, new IllegalStateException(
+                "Invalid " + ServiceKnowledgeBase.REGIONS_FILE + ": " + e.getMessage(), e));
+        }
+    }
+    
+    /**
+     * Regional pricing of one catalog version, or why it could not be compiled
+     */
+    private record Compiled(long catalogVersion, RegionalPricing pricing, RuntimeException failure) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.awsplanner.service;
 
+import com.awsplanner.model.Level;
 import com.awsplanner.model.UserRequirement;
 import org.springframework.stereotype.Service;
 
@@ -12,25 +13,27 @@ public class RequirementService {
     /**
      * Validates user requirements
      * Note: Basic validation is handled by @Valid annotation in controller
-     * This method performs additional business logic validation
+     * This method performs additional business logic validation.
+     * Application type and levels are bound to enums during deserialization, so only
+     * their presence needs checking here.
      */
     public void validateRequirements(UserRequirement req) {
         // Validate application type
-        if (!isValidApplicationType(req.getApplicationType())) {
+        if (req.getApplicationType() == null) {
             throw new IllegalArgumentException(
                 "Invalid application type. Must be one of: static-website, backend-api, full-stack, file-storage, event-driven"
             );
         }
         
         // Validate traffic level
-        if (!isValidLevel(req.getTraffic())) {
+        if (req.getTraffic() == null) {
             throw new IllegalArgumentException(
                 "Invalid traffic level. Must be one of: low, medium, high"
             );
         }
         
         // Validate operational effort
-        if (!isValidLevel(req.getOperationalEffort())) {
+        if (req.getOperationalEffort() == null) {
             throw new IllegalArgumentException(
                 "Invalid operational effort. Must be one of: low, medium, high"
             );
@@ -43,12 +46,11 @@ public class RequirementService {
      * medium: 50,000 requests/month
      * high: 200,000 requests/month
      */
-    public int normalizeTraffic(String traffic) {
-        return switch (traffic.toLowerCase()) {
-            case "low" -> 10000;
-            case "medium" -> 50000;
-            case "high" -> 200000;
-            default -> 10000;
+    public int normalizeTraffic(Level traffic) {
+        return switch (traffic) {
+            case LOW -> 10000;
+            case MEDIUM -> 50000;
+            case HIGH -> 200000;
         };
     }
     
@@ -68,15 +70,7 @@ public class RequirementService {
     /**
      * Maps operational effort to maintenance level
      */
-    public String normalizeOperationalEffort(String effort) {
-        return effort.toLowerCase(); // Already in correct format
-    }
-    
-    private boolean isValidApplicationType(String type) {
-        return type != null && type.matches("static-website|backend-api|full-stack|file-storage|event-driven");
-    }
-    
-    private boolean isValidLevel(String level) {
-        return level != null && level.matches("low|medium|high");
+    public String normalizeOperationalEffort(Level effort) {
+        return effort.getValue(); // Already in correct format
     }
 }
@@ -0,0 +1,329 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.*;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.PricingVectors;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Monte Carlo simulation of monthly cost under uncertain traffic and storage.
+ *
+ * The architecture is selected and fitted to the budget once, for the requirement
+ * as given, as for /api/recommend. Each trial draws traffic and storage and prices
+ * that architecture from the compiled pricing coefficients, rounded like
+ * {@code CostEstimationService.calculateMonthlyCost}. Trial costs go straight into
+ * a {@link QuantileSketch} and are never stored. A simulation in which some trial
+ * costs more than the sketch can report ({@link QuantileSketch#MAX_VALUE} a month)
+ * is rejected rather than summarised with clamped percentiles.
+ *
+ * Trials are split recursively into fork/join tasks, and each split hands the left
+ * half a {@link SplittableRandom#split()} of its parent's generator. The split tree
+ * only depends on the trial count, so every chunk of trials sees the same random
+ * stream on any number of threads, and merged sketches and counts are exact sums:
+ * a seed always yields the same result.
+ */
+@Service
+public class SimulationService {
+    
+    private static final long CHUNK_TRIALS = 1 << 16; // Trials run by one task without splitting
+    private static final double MAX_PARAMETER = 1e12; // Requests per month or GB
+    private static final double MAX_SIGMA = 3.0;      // Lognormal spread; e^3 is a factor of 20 per standard deviation
+    
+    @Autowired
+    private RequirementService requirementService;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    @Value("${recommendation.simulation.threads:0}")
+    private int threads;
+    
+    @Value("${recommendation.simulation.default-trials:1000000}")
+    private long defaultTrials;
+    
+    @Value("${recommendation.simulation.max-trials:10000000}")
+    private long maxTrials;
+    
+    private ForkJoinPool pool;
+    
+    @PostConstruct
+    public void init() {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Throws IllegalArgumentException for invalid requirements or distributions
+     */
+    public SimulationResult simulate(SimulationRequest request) {
+        UserRequirement req = request.getRequirement();
+        requirementService.validateRequirements(req);
+        
+        long trials = request.getTrials() != null ? request.getTrials() : defaultTrials;
+        if (trials > maxTrials) {
+            throw new IllegalArgumentException("Trials must be at most " + maxTrials);
+        }
+        long seed = request.getSeed() != null ? request.getSeed() : new SplittableRandom().nextLong();
+        ToDoubleFunction<SplittableRandom> traffic =
+            sampler("traffic", request.getTraffic(), requirementService.normalizeTraffic(req.getTraffic()));
+        ToDoubleFunction<SplittableRandom> storage =
+            sampler("storage", request.getStorage(), req.getStorageGB());
+        
+        return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(),
+            () -> runSimulation(req, traffic, storage, trials, seed));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private SimulationResult runSimulation(UserRequirement req, ToDoubleFunction<SplittableRandom> traffic,
+                                           ToDoubleFunction<SplittableRandom> storage, long trials, long seed) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        List<AwsService> services = architectureOptimizer.fitToBudget(
+            decisionEngine.getRecommendedServices(req), req);
+        
+        TrialModel model = new TrialModel(catalog, services, traffic, storage, req.getMonthlyBudget());
+        Tally tally = pool.invoke(new TrialTask(model, trials, new SplittableRandom(seed)));
+        QuantileSketch sketch = tally.sketch;
+        if (sketch.getOverflowCount() > 0) {
+            throw new IllegalArgumentException(sketch.getOverflowCount() + " of " + trials
+                + " trials cost more than $" + String.format("%.0f", QuantileSketch.MAX_VALUE)
+                + " a month, beyond what the simulation can report; narrow the traffic or storage distribution");
+        }
+        
+        List<String> names = new ArrayList<>(services.size());
+        for (AwsService service : services) {
+            names.add(service.getName());
+        }
+        return new SimulationResult(
+            names, trials, seed,
+            costEstimation.calculateMonthlyCost(services, req),
+            round(tally.totalCost / trials),
+            sketch.getMin(),
+            round(sketch.quantile(0.50)),
+            round(sketch.quantile(0.90)),
+            round(sketch.quantile(0.99)),
+            sketch.getMax(),
+            (double) tally.overBudget / trials,
+            QuantileSketch.RELATIVE_ACCURACY);
+    }
+    
+    /**
+     * Sampler for a distribution, or the fallback value if there is none
+     */
+    private static ToDoubleFunction<SplittableRandom> sampler(String name, Distribution distribution,
+                                                              double fallback) {
+        if (distribution == null) {
+            return random -> fallback;
+        }
+        
+        switch (distribution.getType()) {
+            case FIXED -> {
+                double value = parameter(name, "value", distribution.getValue());
+                return random -> value;
+            }
+            case UNIFORM -> {
+                double min = parameter(name, "min", distribution.getMin());
+                double max = parameter(name, "max", distribution.getMax());
+                requireOrdered(name, min, max);
+                return random -> min + (max - min) * random.nextDouble();
+            }
+            case TRIANGULAR -> {
+                double min = parameter(name, "min", distribution.getMin());
+                double mode = parameter(name, "mode", distribution.getMode());
+                double max = parameter(name, "max", distribution.getMax());
+                requireOrdered(name, min, mode);
+                requireOrdered(name, mode, max);
+                double range = max - min;
+                double split = range > 0 ? (mode - min) / range : 0.0;
+                return random -> {
+                    double u = random.nextDouble();
+                    return u < split ? min + Math.sqrt(u * range * (mode - min))
+                                     : max - Math.sqrt((1 - u) * range * (max - mode));
+                };
+            }
+            case NORMAL -> {
+                double mean = parameter(name, "mean", distribution.getMean());
+                double stdDev = parameter(name, "stdDev", distribution.getStdDev());
+                return random -> Math.max(0.0, mean + stdDev * random.nextGaussian());
+            }
+            case LOGNORMAL -> {
+                double median = parameter(name, "median", distribution.getMedian());
+                double sigma = parameter(name, "sigma", distribution.getSigma());
+                if (sigma > MAX_SIGMA) {
+                    throw new IllegalArgumentException(
+                        "The " + name + " distribution needs sigma <= " + MAX_SIGMA);
+                }
+                return random -> median * Math.exp(sigma * random.nextGaussian());
+            }
+            default -> throw new IllegalArgumentException("Unsupported " + name + " distribution");
+        }
+    }
+    
+    /**
+     * A required, non-negative distribution parameter of at most MAX_PARAMETER
+     */
+    private static double parameter(String name, String parameter, Double value) {
+        if (value == null || !Double.isFinite(value) || value < 0) {
+            throw new IllegalArgumentException(
+                "The " + name + " distribution needs a non-negative '" + parameter + "'");
+        }
+        if (value > MAX_PARAMETER) {
+            throw new IllegalArgumentException(
+                "The " + name + " distribution's '" + parameter + "' must be at most " + String.format("%.0f", MAX_PARAMETER));
+        }
+        return value;
+    }
+    
+    private static void requireOrdered(String name, double lower, double upper) {
+        if (upper < lower) {
+            throw new IllegalArgumentException("The " + name + " distribution needs min <= mode <= max");
+        }
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+    
+    /**
+     * Round to cents like CostEstimationService. Above 2^53 cents a double has no
+     * fractional cents left to round, and Math.round would saturate at Long.MAX_VALUE.
+     */
+    private static double roundCents(double value) {
+        return value < 0x1p53 / 100.0 ? Math.round(value * 100.0) / 100.0 : value;
+    }
+    
+    /**
+     * Selected services as coefficient arrays, with the input samplers
+     */
+    private static final class TrialModel {
+        
+        private final double[] base;
+        private final double[] perTrafficUnit;
+        private final double[] perMillionRequests;
+        private final double[] perGB;
+        private final ToDoubleFunction<SplittableRandom> traffic;
+        private final ToDoubleFunction<SplittableRandom> storage;
+        private final double budget;
+        
+        TrialModel(CatalogSnapshot catalog, List<AwsService> services, ToDoubleFunction<SplittableRandom> traffic,
+                   ToDoubleFunction<SplittableRandom> storage, double budget) {
+            PricingVectors pricing = catalog.getPricingVectors();
+            int n = services.size();
+            base = new double[n];
+            perTrafficUnit = new double[n];
+            perMillionRequests = new double[n];
+            perGB = new double[n];
+            for (int i = 0; i < n; i++) {
+                int ordinal = catalog.ordinalOf(services.get(i).getId());
+                if (ordinal < 0) {
+                    continue; // Not in the catalog: costs nothing
+                }
+                base[i] = pricing.coefficient(ordinal, PricingVectors.BASE);
+                perTrafficUnit[i] = pricing.coefficient(ordinal, PricingVectors.TRAFFIC_UNITS);
+                perMillionRequests[i] = pricing.coefficient(ordinal, PricingVectors.MILLION_REQUESTS);
+                perGB[i] = pricing.coefficient(ordinal, PricingVectors.STORAGE_GB);
+            }
+            this.traffic = traffic;
+            this.storage = storage;
+            this.budget = budget;
+        }
+        
+        /**
+         * Run trials into a new tally. Usage is built as by
+         * {@code CostEstimationService.usageVector}; compute duration is zero.
+         */
+        Tally run(long trials, SplittableRandom random) {
+            Tally tally = new Tally();
+            for (long t = 0; t < trials; t++) {
+                double requests = traffic.applyAsDouble(random);
+                double gb = storage.applyAsDouble(random);
+                double trafficUnits = Math.floor(requests / 10000);
+                double millionRequests = requests / 1000000.0;
+                
+                double total = 0.0;
+                for (int i = 0; i < base.length; i++) {
+                    double cost = base[i] + perTrafficUnit[i] * trafficUnits
+                                  + perMillionRequests[i] * millionRequests + perGB[i] * gb;
+                    total += roundCents(cost);
+                }
+                total = roundCents(total);
+                
+                tally.sketch.add(total);
+                tally.totalCost += total;
+                if (total > budget) {
+                    tally.overBudget++;
+                }
+            }
+            return tally;
+        }
+    }
+    
+    /**
+     * Aggregate of a range of trials. Sketch and counts merge exactly; the cost sum
+     * is a double, which cannot overflow, and tallies always merge in the same
+     * split-tree order, so a seed still yields the same mean.
+     */
+    private static final class Tally {
+        
+        private final QuantileSketch sketch = new QuantileSketch();
+        private double totalCost;
+        private long overBudget;
+        
+        Tally merge(Tally other) {
+            sketch.merge(other.sketch);
+            totalCost += other.totalCost;
+            overBudget += other.overBudget;
+            return this;
+        }
+    }
+    
+    private static final class TrialTask extends RecursiveTask<Tally> {
+        
+        private final TrialModel model;
+        private final long trials;
+        private final SplittableRandom random;
+        
+        TrialTask(TrialModel model, long trials, SplittableRandom random) {
+            this.model = model;
+            this.trials = trials;
+            this.random = random;
+        }
+        
+        @Override
+        protected Tally compute() {
+            if (trials <= CHUNK_TRIALS) {
+                return model.run(trials, random);
+            }
+            long half = trials / 2;
+            TrialTask left = new TrialTask(model, half, random.split());
+            TrialTask right = new TrialTask(model, trials - half, random);
+            left.fork();
+            Tally tally = right.compute();
+            return tally.merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.*;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Budget and storage sensitivity sweeps.
+ *
+ * Service selection only changes at the budget band thresholds and storage never
+ * affects it, so a sweep resolves one architecture and one storage cost curve per
+ * budget band and fills the grid from those, instead of running the pipeline per point.
+ * Only points where that ranked architecture exceeds the budget are fitted to it
+ * individually, as the recommendation pipeline does.
+ */
+@Service
+public class SweepService {
+    
+    private static final int MAX_GRID_POINTS = 1_000_000;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    public SweepResult sweep(SweepRequest request) {
+        return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(), () -> runSweep(request));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private SweepResult runSweep(SweepRequest request) {
+        if (request.getBudgetMax() < request.getBudgetMin()) {
+            throw new IllegalArgumentException("Maximum budget must not be below minimum budget");
+        }
+        if (request.getStorageMax() < request.getStorageMin()) {
+            throw new IllegalArgumentException("Maximum storage must not be below minimum storage");
+        }
+        if ((long) request.getBudgetSteps() * request.getStorageSteps() > MAX_GRID_POINTS) {
+            throw new IllegalArgumentException("Sweep grid must not exceed " + MAX_GRID_POINTS + " points");
+        }
+        
+        double[] budgets = new double[request.getBudgetSteps()];
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = interpolate(request.getBudgetMin(), request.getBudgetMax(), i, budgets.length);
+        }
+        
+        int[] storageValues = new int[request.getStorageSteps()];
+        for (int i = 0; i < storageValues.length; i++) {
+            storageValues[i] = (int) Math.round(
+                interpolate(request.getStorageMin(), request.getStorageMax(), i, storageValues.length));
+        }
+        
+        // One selection and one cost curve per budget band touched by the sweep
+        CompiledPolicy policy = decisionEngine.policyFor(request.getPolicy());
+        int bands = policy.getBandCount();
+        List<List<AwsService>> selections = new ArrayList<>(Collections.nCopies(bands, null));
+        double[][] curves = new double[bands][];
+        
+        double[][] totalCosts = new double[budgets.length][];
+        for (int i = 0; i < budgets.length; i++) {
+            int band = policy.budgetBand(budgets[i]);
+            if (curves[band] == null) {
+                UserRequirement req = requirementFor(request, budgets[i]);
+                selections.set(band, decisionEngine.getRecommendedServices(req));
+                curves[band] = costEstimation.calculateMonthlyCostCurve(
+                    selections.get(band), req, storageValues);
+            }
+            totalCosts[i] = curves[band]; // Rows of the same band share one array
+        }
+        
+        fitToBudgets(request, policy, budgets, storageValues, selections, totalCosts);
+        
+        return new SweepResult(budgets, storageValues, totalCosts, findBreakpoints(request, policy, selections));
+    }
+    
+    /**
+     * Replace the cost of grid points where the ranked architecture exceeds the budget
+     * with the cost of the budget-fitted architecture. Budgets are visited from high to
+     * low: a solution that is optimal for one budget and also fits a lower budget of the
+     * same band is optimal there too, so each storage column is only re-solved when the
+     * previous solution stops fitting. Infeasibility carries down the same way.
+     */
+    @SuppressWarnings("unchecked")
+    private void fitToBudgets(SweepRequest request, CompiledPolicy policy, double[] budgets, int[] storageValues,
+                              List<List<AwsService>> selections, double[][] totalCosts) {
+        int bands = selections.size();
+        ArchitectureOptimizer.Candidates[] candidates = new ArchitectureOptimizer.Candidates[bands];
+        List<AwsService>[][] solutions = new List[bands][storageValues.length];
+        double[][] solutionCosts = new double[bands][storageValues.length];
+        boolean[][] infeasible = new boolean[bands][storageValues.length];
+        
+        for (int i = budgets.length - 1; i >= 0; i--) {
+            int band = policy.budgetBand(budgets[i]);
+            boolean copied = false;
+            
+            for (int j = 0; j < storageValues.length; j++) {
+                if (totalCosts[i][j] <= budgets[i] || infeasible[band][j]) {
+                    continue;
+                }
+                
+                if (solutions[band][j] == null || solutionCosts[band][j] > budgets[i]) {
+                    UserRequirement req = requirementFor(request, budgets[i]);
+                    req.setStorageGB(storageValues[j]);
+                    if (candidates[band] == null) {
+                        candidates[band] = architectureOptimizer.candidates(req);
+                    }
+                    
+                    List<AwsService> fitted = architectureOptimizer.fit(candidates[band], selections.get(band), req);
+                    if (fitted == null) {
+                        infeasible[band][j] = true;
+                        continue;
+                    }
+                    solutions[band][j] = fitted;
+                    solutionCosts[band][j] = costEstimation.calculateMonthlyCost(fitted, req);
+                }
+                
+                if (!copied) {
+                    totalCosts[i] = totalCosts[i].clone(); // Row no longer matches its band's curve
+                    copied = true;
+                }
+                totalCosts[i][j] = solutionCosts[band][j];
+            }
+        }
+    }
+    
+    /**
+     * Band thresholds inside the swept budget range where the ranked architecture changes
+     */
+    private List<SweepBreakpoint> findBreakpoints(SweepRequest request, CompiledPolicy policy,
+                                                  List<List<AwsService>> selections) {
+        List<SweepBreakpoint> breakpoints = new ArrayList<>();
+        double[] thresholds = policy.getBudgetThresholds();
+        
+        for (int band = 1; band < selections.size(); band++) {
+            double threshold = thresholds[band - 1];
+            if (threshold <= request.getBudgetMin() || threshold > request.getBudgetMax()) {
+                continue;
+            }
+            
+            List<String> below = serviceNames(selectionFor(request, policy, selections, band - 1));
+            List<String> above = serviceNames(selectionFor(request, policy, selections, band));
+            if (!new HashSet<>(below).equals(new HashSet<>(above))) {
+                breakpoints.add(new SweepBreakpoint(threshold, below, above));
+            }
+        }
+        
+        return breakpoints;
+    }
+    
+    private List<AwsService> selectionFor(SweepRequest request, CompiledPolicy policy,
+                                          List<List<AwsService>> selections, int band) {
+        if (selections.get(band) == null) {
+            double budget = policy.bandRepresentative(band);
+            selections.set(band, decisionEngine.getRecommendedServices(requirementFor(request, budget)));
+        }
+        return selections.get(band);
+    }
+    
+    private UserRequirement requirementFor(SweepRequest request, double budget) {
+        return new UserRequirement(
+            request.getApplicationType(),
+            request.getTraffic(),
+            0,
+            request.getDatabaseNeeded(),
+            request.getOperationalEffort(),
+            budget,
+            request.getPolicy()
+        );
+    }
+    
+    private List<String> serviceNames(List<AwsService> services) {
+        List<String> names = new ArrayList<>(services.size());
+        for (AwsService service : services) {
+            names.add(service.getName());
+        }
+        return names;
+    }
+    
+    private static double interpolate(double min, double max, int step, int steps) {
+        if (steps == 1) {
+            return min;
+        }
+        return min + (max - min) * step / (steps - 1);
+    }
+}
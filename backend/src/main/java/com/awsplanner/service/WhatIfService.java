@@ -0,0 +1,414 @@
+package com.awsplanner.service;
+
+import com.awsplanner.metrics.MetricsSource;
+import com.awsplanner.model.AlternativeArchitecture;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Recommendation;
+import com.awsplanner.model.RecommendedService;
+import com.awsplanner.model.ServiceScore;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.model.WhatIfResult;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.PricingVectors;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Incremental what-if sessions.
+ *
+ * A session keeps a requirement together with the intermediate results of the
+ * pipeline for it: the eligible services, their per-dimension match scores, the
+ * ranked selection and the monthly costs of the eligible and mandatory services,
+ * held in arrays sized to those services rather than to the catalog. A change
+ * to some fields reruns only the stages that depend on them:
+ * <ul>
+ *   <li>applicationType, operationalEffort, databaseNeeded: filter, score and rank;
+ *       only services that were not already eligible are priced</li>
+ *   <li>traffic: scalability match, rank, and prices of traffic-priced services</li>
+ *   <li>monthlyBudget: cost match and rank, only if the budget band changes</li>
+ *   <li>storageGB: prices of services with a per-GB price, nothing else</li>
+ * </ul>
+ * Fitting to the budget, alternatives and upgrades are redone from the cached
+ * scores and costs, so the recommendation equals a full /api/recommend run. A
+ * catalog or scoring policy change recomputes everything. Sessions expire after
+ * a period of inactivity; when the store is full, the least recently used one
+ * is dropped.
+ */
+@Service
+public class WhatIfService implements MetricsSource {
+    
+    static final String FILTER = "filter";
+    static final String SCORE = "score";
+    static final String RANK = "rank";
+    static final String PRICE = "price";
+    
+    private static final String SESSIONS = "whatif_sessions";
+    private static final String UPDATES = "whatif_updates_total";
+    private static final String STAGE_RUNS = "whatif_stage_runs_total";
+    private static final String REPRICED = "whatif_repriced_services_total";
+    private static final List<String> STAGES = List.of(FILTER, SCORE, RANK, PRICE);
+    
+    @Autowired
+    private RequirementService requirementService;
+    
+    @Autowired
+    private DecisionEngineService decisionEngine;
+    
+    @Autowired
+    private ArchitectureOptimizer architectureOptimizer;
+    
+    @Autowired
+    private CostEstimationService costEstimation;
+    
+    @Autowired
+    private ServiceKnowledgeBase knowledgeBase;
+    
+    @Value("${recommendation.sessions.max-sessions:10000}")
+    private int maxSessions;
+    
+    @Value("${recommendation.sessions.ttl-seconds:1800}")
+    private long ttlSeconds;
+    
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder repriced = new LongAdder();
+    private final Map<String, LongAdder> stageRuns = new ConcurrentHashMap<>();
+    
+    /**
+     * Start a session with a complete requirement.
+     * Throws IllegalArgumentException for invalid requirements.
+     */
+    public WhatIfResult create(UserRequirement requirement) {
+        UserRequirement req = merge(new UserRequirement(), requirement);
+        requirementService.validateRequirements(req);
+        
+        Session session = new Session(UUID.randomUUID().toString());
+        WhatIfResult result;
+        synchronized (session) {
+            result = apply(session, req);
+        }
+        
+        evictIfFull();
+        sessions.put(session.id, session);
+        return result;
+    }
+    
+    /**
+     * Apply the non-null fields of a change to a session and recommend again.
+     * Throws NoSuchElementException for unknown or expired sessions and
+     * IllegalArgumentException for invalid changes, which leave the session as it was.
+     */
+    public WhatIfResult update(String sessionId, UserRequirement change) {
+        Session session = lookup(sessionId);
+        if (change.getStorageGB() != null && change.getStorageGB() < 0) {
+            throw new IllegalArgumentException("Storage must be non-negative");
+        }
+        if (change.getMonthlyBudget() != null && !(change.getMonthlyBudget() >= 1)) {
+            throw new IllegalArgumentException("Budget must be at least $1");
+        }
+        
+        synchronized (session) {
+            updates.increment();
+            return apply(session, merge(session.requirement, change));
+        }
+    }
+    
+    /**
+     * End a session. Throws NoSuchElementException if it does not exist.
+     */
+    public void delete(String sessionId) {
+        if (sessions.remove(sessionId) == null) {
+            throw new NoSuchElementException("Unknown what-if session: " + sessionId);
+        }
+    }
+    
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP ").append(SESSIONS).append(" Open what-if sessions, including expired ones not yet dropped\n");
+        out.append("# TYPE ").append(SESSIONS).append(" gauge\n");
+        out.append(SESSIONS).append(' ').append(sessions.size()).append('\n');
+        
+        out.append("# HELP ").append(UPDATES).append(" Changes applied to what-if sessions\n");
+        out.append("# TYPE ").append(UPDATES).append(" counter\n");
+        out.append(UPDATES).append(' ').append(updates.sum()).append('\n');
+        
+        out.append("# HELP ").append(STAGE_RUNS).append(" Cached what-if stages rerun, by stage\n");
+        out.append("# TYPE ").append(STAGE_RUNS).append(" counter\n");
+        for (String stage : STAGES) {
+            LongAdder runs = stageRuns.get(stage);
+            out.append(STAGE_RUNS).append("{stage=\"").append(stage).append("\"} ")
+               .append(runs != null ? runs.sum() : 0).append('\n');
+        }
+        
+        out.append("# HELP ").append(REPRICED).append(" Services priced by what-if sessions\n");
+        out.append("# TYPE ").append(REPRICED).append(" counter\n");
+        out.append(REPRICED).append(' ').append(repriced.sum()).append('\n');
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Recompute a session for a new requirement with the current catalog pinned
+     */
+    private WhatIfResult apply(Session session, UserRequirement req) {
+        requirementService.validateRequirements(req);
+        decisionEngine.policyFor(req.getPolicy()); // Reject unknown policies before touching the session
+        try {
+            return knowledgeBase.withSnapshot(knowledgeBase.getSnapshot(), () -> recompute(session, req));
+        } catch (RuntimeException e) {
+            session.policy = null; // Cached results may be partly updated; rebuild on the next change
+            throw e;
+        }
+    }
+    
+    private WhatIfResult recompute(Session s, UserRequirement req) {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        CompiledPolicy policy = decisionEngine.policyFor(req.getPolicy());
+        UserRequirement before = s.requirement;
+        List<String> recomputed = new ArrayList<>(STAGES.size());
+        
+        boolean rebuild = s.policy != policy || s.catalogVersion != catalog.getVersion();
+        if (rebuild) {
+            s.catalogVersion = catalog.getVersion();
+            s.policy = policy;
+            s.pricedOrdinals = null;
+            s.costs = null;
+            s.usage = null;
+        }
+        
+        // Filter and score: eligibility depends on the key fields only through the
+        // policy's exclusion rules; match scores each depend on one field
+        boolean filter = rebuild
+            || req.getApplicationType() != before.getApplicationType()
+            || req.getOperationalEffort() != before.getOperationalEffort()
+            || !req.getDatabaseNeeded().equals(before.getDatabaseNeeded())
+            || (decisionEngine.hasExclusions(req) && policy.keyOf(req) != policy.keyOf(before));
+        boolean score = filter
+            || req.getTraffic() != before.getTraffic()
+            || policy.budgetBand(req.getMonthlyBudget()) != policy.budgetBand(before.getMonthlyBudget());
+        
+        if (filter) {
+            s.scored = decisionEngine.scoreServices(decisionEngine.filterServices(req), req);
+            s.ordinals = new int[s.scored.size()];
+            for (int i = 0; i < s.ordinals.length; i++) {
+                s.ordinals[i] = catalog.ordinalOf(s.scored.get(i).getService().getId());
+            }
+            indexPrices(s, catalog);
+            recomputed.add(FILTER);
+            recomputed.add(SCORE);
+        } else if (score) {
+            s.scored = decisionEngine.rescoreServices(s.scored, before, req);
+            recomputed.add(SCORE);
+        }
+        
+        if (score) {
+            s.byCategory = decisionEngine.groupByCategory(s.scored);
+            s.candidates = new ArchitectureOptimizer.Candidates(s.byCategory);
+            s.selection = decisionEngine.getRecommendedServices(req); // Ranked once per key in the decision table
+            recomputed.add(RANK);
+        }
+        
+        // Price: a service's cost only changes with the usage dimensions it has a price for
+        double[] usage = costEstimation.usageVector(req);
+        invalidatePrices(s, catalog.getPricingVectors(), usage);
+        int pricedCount = 0;
+        for (int i = 0; i < s.pricedOrdinals.length; i++) {
+            if (Double.isNaN(s.costs[i])) {
+                s.costs[i] = costEstimation.calculateServiceCost(catalog.getService(s.pricedOrdinals[i]), usage);
+                pricedCount++;
+            }
+        }
+        s.usage = usage;
+        if (pricedCount > 0) {
+            recomputed.add(PRICE);
+        }
+        
+        Recommendation recommendation = recommend(s, catalog, req);
+        s.requirement = req;
+        s.expiresAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        
+        for (String stage : recomputed) {
+            stageRuns.computeIfAbsent(stage, k -> new LongAdder()).increment();
+        }
+        repriced.add(pricedCount);
+        return new WhatIfResult(s.id, merge(new UserRequirement(), req), recomputed, pricedCount, recommendation);
+    }
+    
+    /**
+     * Fit, cost, alternatives, upgrades and response, from the cached scores and costs
+     */
+    private Recommendation recommend(Session s, CatalogSnapshot catalog, UserRequirement req) {
+        int[] pricedOrdinals = s.pricedOrdinals;
+        double[] costs = s.costs;
+        ToDoubleFunction<AwsService> serviceCost = service -> {
+            int index = Arrays.binarySearch(pricedOrdinals, catalog.ordinalOf(service.getId()));
+            return index >= 0 ? costs[index] : costEstimation.calculateServiceCost(service, s.usage);
+        };
+        
+        List<AwsService> services = s.selection;
+        if (costEstimation.calculateMonthlyCost(services, serviceCost) > req.getMonthlyBudget()) {
+            List<AwsService> fitted =
+                architectureOptimizer.fit(s.candidates, services, serviceCost, req.getMonthlyBudget());
+            if (fitted != null) {
+                services = fitted;
+            }
+        }
+        
+        List<RecommendedService> architecture = costEstimation.createRecommendedServices(services, req, serviceCost);
+        double totalCost = costEstimation.calculateMonthlyCost(services, serviceCost);
+        boolean withinBudget = costEstimation.validateBudget(totalCost, req.getMonthlyBudget());
+        List<AlternativeArchitecture> alternatives =
+            costEstimation.suggestAlternatives(services, req, s.byCategory, serviceCost);
+        List<String> upgrades = costEstimation.generateUpgrades(totalCost, req.getMonthlyBudget(), req);
+        
+        return RecommendationService.buildRecommendation(req, architecture, totalCost, withinBudget,
+                                                         alternatives, upgrades);
+    }
+    
+    /**
+     * Point the price arrays at the eligible and mandatory services, keeping the
+     * costs already known for services that stay
+     */
+    private static void indexPrices(Session s, CatalogSnapshot catalog) {
+        List<AwsService> mandatory = catalog.getMandatoryServices();
+        int[] ordinals = Arrays.copyOf(s.ordinals, s.ordinals.length + mandatory.size());
+        for (int i = 0; i < mandatory.size(); i++) {
+            ordinals[s.ordinals.length + i] = catalog.ordinalOf(mandatory.get(i).getId());
+        }
+        Arrays.sort(ordinals);
+        int count = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (i == 0 || ordinals[i] != ordinals[i - 1]) {
+                ordinals[count++] = ordinals[i];
+            }
+        }
+        ordinals = Arrays.copyOf(ordinals, count);
+        
+        double[] costs = new double[ordinals.length];
+        Arrays.fill(costs, Double.NaN);
+        
+        if (s.pricedOrdinals != null) {
+            int j = 0;
+            for (int i = 0; i < ordinals.length; i++) {
+                while (j < s.pricedOrdinals.length && s.pricedOrdinals[j] < ordinals[i]) {
+                    j++;
+                }
+                if (j < s.pricedOrdinals.length && s.pricedOrdinals[j] == ordinals[i]) {
+                    costs[i] = s.costs[j];
+                }
+            }
+        }
+        s.pricedOrdinals = ordinals;
+        s.costs = costs;
+    }
+    
+    /**
+     * Forget the cost of every service that has a price on a usage dimension that changed
+     */
+    private static void invalidatePrices(Session s, PricingVectors pricing, double[] usage) {
+        if (s.usage == null) {
+            return;
+        }
+        for (int d = 0; d < PricingVectors.DIMENSIONS; d++) {
+            if (usage[d] == s.usage[d]) {
+                continue;
+            }
+            for (int i = 0; i < s.pricedOrdinals.length; i++) {
+                if (pricing.coefficient(s.pricedOrdinals[i], d) != 0.0) {
+                    s.costs[i] = Double.NaN;
+                }
+            }
+        }
+    }
+    
+    private Session lookup(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null || session.isExpired()) {
+            if (session != null) {
+                sessions.remove(sessionId, session);
+            }
+            throw new NoSuchElementException("Unknown or expired what-if session: " + sessionId);
+        }
+        return session;
+    }
+    
+    /**
+     * Make room for one more session: drop expired sessions, then the least recently used
+     */
+    private void evictIfFull() {
+        if (sessions.size() < maxSessions) {
+            return;
+        }
+        sessions.values().removeIf(Session::isExpired);
+        
+        while (sessions.size() >= Math.max(maxSessions, 1)) {
+            Map.Entry<String, Session> oldest = null;
+            for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+                if (oldest == null || entry.getValue().expiresAtNanos - oldest.getValue().expiresAtNanos < 0) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            sessions.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+    
+    /**
+     * Copy of a requirement with the non-null fields of a change applied
+     */
+    private static UserRequirement merge(UserRequirement base, UserRequirement change) {
+        return new UserRequirement(
+            change.getApplicationType() != null ? change.getApplicationType() : base.getApplicationType(),
+            change.getTraffic() != null ? change.getTraffic() : base.getTraffic(),
+            change.getStorageGB() != null ? change.getStorageGB() : base.getStorageGB(),
+            change.getDatabaseNeeded() != null ? change.getDatabaseNeeded() : base.getDatabaseNeeded(),
+            change.getOperationalEffort() != null ? change.getOperationalEffort() : base.getOperationalEffort(),
+            change.getMonthlyBudget() != null ? change.getMonthlyBudget() : base.getMonthlyBudget(),
+            change.getPolicy() != null ? change.getPolicy() : base.getPolicy()
+        );
+    }
+    
+    /**
+     * Cached pipeline state of one session; guarded by the session's monitor
+     */
+    private static final class Session {
+        
+        final String id;
+        UserRequirement requirement;
+        long catalogVersion = -1;
+        CompiledPolicy policy; // Null until computed, or after a failed change
+        List<ServiceScore> scored; // Eligible services in catalog order
+        int[] ordinals; // Catalog ordinals of the scored services
+        Map<String, List<ServiceScore>> byCategory;
+        ArchitectureOptimizer.Candidates candidates;
+        List<AwsService> selection; // Ranked selection plus mandatory services
+        double[] usage;
+        int[] pricedOrdinals; // Catalog ordinals of the eligible and mandatory services, ascending
+        double[] costs; // Monthly cost of each of pricedOrdinals; NaN until priced
+        volatile long expiresAtNanos;
+        
+        Session(String id) {
+            this.id = id;
+        }
+        
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.awsplanner.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limit updates from synthetic latency windows, driven by an explicit clock
+ */
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+    
+    @Test
+    void admitsUpToTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(5, limiter.getInFlight());
+        
+        limiter.release(BASE_RTT, false, 0);
+        assertEquals(4, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+    
+    @Test
+    void limitGrowsWhileLatencyStaysAtTheBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 30, 0);
+        long now = 0;
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 5; i++) {
+            now = window(limiter, limiter.getLimit(), BASE_RTT, false, now);
+            assertTrue(limiter.getLimit() > previous);
+            previous = limiter.getLimit();
+        }
+        assertEquals(BASE_RTT, limiter.getMinRttNanos());
+        
+        for (int i = 0; i < 20; i++) {
+            now = window(limiter, limiter.getLimit(), BASE_RTT, false, now);
+        }
+        assertEquals(30, limiter.getLimit());
+    }
+    
+    @Test
+    void limitShrinksWhenRequestsQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 0);
+        long now = window(limiter, 20, BASE_RTT, false, 0);
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 5; i++) {
+            now = window(limiter, limiter.getLimit(), BASE_RTT * 10, false, now);
+            assertTrue(limiter.getLimit() < previous);
+            previous = limiter.getLimit();
+        }
+        assertEquals(BASE_RTT, limiter.getMinRttNanos());
+    }
+    
+    @Test
+    void failuresBackOffMultiplicativelyDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 0);
+        long now = window(limiter, 1, BASE_RTT, true, 0);
+        assertEquals(18, limiter.getLimit());
+        
+        for (int i = 0; i < 30; i++) {
+            now = window(limiter, 1, BASE_RTT, true, now);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+    
+    @Test
+    void windowsFarBelowTheLimitLeaveItUnchanged() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 0);
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            now = window(limiter, 2, BASE_RTT, false, now);
+        }
+        assertEquals(20, limiter.getLimit());
+    }
+    
+    @Test
+    void unsampledReleasesDoNotEndAWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 0);
+        assertTrue(limiter.tryAcquire());
+        limiter.releaseUnsampled(false);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getMinRttNanos());
+        assertEquals(20, limiter.getLimit());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Run one window of concurrent requests with the same latency; the last release
+     * ends the window. Returns the time the next window starts.
+     */
+    private static long window(AdaptiveConcurrencyLimiter limiter, int requests, long rttNanos, boolean dropped,
+                               long start) {
+        long end = start + WINDOW;
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < requests; i++) {
+            limiter.release(rttNanos, dropped, i == requests - 1 ? end : start);
+        }
+        return end;
+    }
+}
@@ -0,0 +1,77 @@
+package com.awsplanner.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Client identification and rejection responses
+ */
+class AdmissionFilterTest {
+    
+    private static final String HEADER = "X-Forwarded-For";
+    
+    @Test
+    void overRateClientsGet429WithRetryAfter() throws Exception {
+        AdmissionFilter filter = filter(null, 1);
+        assertEquals(200, send(filter, "203.0.113.7", null).getStatus());
+        
+        MockHttpServletResponse rejected = send(filter, "203.0.113.7", null);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("100", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        
+        assertEquals(200, send(filter, "203.0.113.8", null).getStatus());
+    }
+    
+    @Test
+    void clientIsTheAddressTheProxyAppended() throws Exception {
+        AdmissionFilter filter = filter(HEADER, 1);
+        assertEquals(200, send(filter, "10.0.0.1", "198.51.100.1, 203.0.113.7").getStatus());
+        // A different spoofed prefix is still the same client
+        assertEquals(429, send(filter, "10.0.0.1", "198.51.100.2, 203.0.113.7").getStatus());
+        assertEquals(429, send(filter, "10.0.0.1", "*, 203.0.113.7").getStatus());
+        assertEquals(200, send(filter, "10.0.0.1", "203.0.113.8").getStatus());
+    }
+    
+    @Test
+    void trustedProxiesAreSkippedFromTheRight() throws Exception {
+        AdmissionFilter filter = filter(HEADER, 2);
+        assertEquals(200, send(filter, "10.0.0.2", "198.51.100.1, 203.0.113.7, 10.0.0.1").getStatus());
+        assertEquals(429, send(filter, "10.0.0.2", "203.0.113.7, 10.0.0.1").getStatus());
+        assertEquals(200, send(filter, "10.0.0.2", "203.0.113.8, 10.0.0.1").getStatus());
+    }
+    
+    @Test
+    void shortOrMissingHeadersFallBackToTheRemoteAddress() throws Exception {
+        AdmissionFilter filter = filter(HEADER, 2);
+        assertEquals(200, send(filter, "10.0.0.2", "203.0.113.7").getStatus());
+        assertEquals(429, send(filter, "10.0.0.2", null).getStatus());
+        assertEquals(429, send(filter, "10.0.0.2", " , ").getStatus());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * One request per client every 100 seconds, so a second request is always rejected
+     */
+    private static AdmissionFilter filter(String clientHeader, int trustedProxies) {
+        return new AdmissionFilter(new AdaptiveConcurrencyLimiter(20, 4, 100), new ClientRateLimiter(0.01, 1, 100),
+                                   clientHeader, trustedProxies);
+    }
+    
+    private static MockHttpServletResponse send(AdmissionFilter filter, String remoteAddr, String forwardedFor)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recommend");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader(HEADER, forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
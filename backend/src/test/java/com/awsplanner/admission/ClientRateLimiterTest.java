@@ -0,0 +1,75 @@
+package com.awsplanner.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-client GCRA buckets, driven by an explicit clock
+ */
+class ClientRateLimiterTest {
+    
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    @Test
+    void admitsABurstThenOneRequestPerInterval() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", 0));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("a", 0));
+        assertEquals(INTERVAL / 2, limiter.tryAcquire("a", INTERVAL / 2));
+        
+        assertEquals(0, limiter.tryAcquire("a", INTERVAL));
+        assertEquals(INTERVAL, limiter.tryAcquire("a", INTERVAL));
+        
+        // An idle client's bucket refills to the burst, and no further
+        long later = TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", later));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("a", later));
+    }
+    
+    @Test
+    void clientsHaveSeparateBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 1, 100);
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        assertTrue(limiter.tryAcquire("a", 0) > 0);
+        assertEquals(0, limiter.tryAcquire("b", 0));
+        assertEquals(2, limiter.getTrackedClients());
+    }
+    
+    @Test
+    void newClientsShareTheOverflowBucketUntilIdleOnesAreDropped() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 2, 1);
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        
+        assertEquals(0, limiter.tryAcquire("b", 0));
+        assertEquals(0, limiter.tryAcquire("c", 0));
+        assertTrue(limiter.tryAcquire("d", 0) > 0);
+        assertEquals(1, limiter.getTrackedClients());
+        
+        // "a" has refilled by now, so it is swept and "d" gets its own bucket
+        long later = TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, limiter.tryAcquire("d", later));
+        assertEquals(0, limiter.tryAcquire("d", later));
+        assertTrue(limiter.tryAcquire("d", later) > 0);
+        assertEquals(1, limiter.getTrackedClients());
+    }
+    
+    @Test
+    void noClientNameReachesTheOverflowBucket() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 2, 2);
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        assertEquals(0, limiter.tryAcquire("*", 0));
+        assertEquals(0, limiter.tryAcquire("*", 0));
+        assertTrue(limiter.tryAcquire("*", 0) > 0);
+        
+        assertEquals(0, limiter.tryAcquire("b", 0));
+        assertEquals(0, limiter.tryAcquire("c", 0));
+        assertTrue(limiter.tryAcquire("b", 0) > 0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.awsplanner.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Accept-Encoding negotiation of the precompressed catalog responses
+ */
+class AcceptEncodingTest {
+    
+    @Test
+    void gzipIsAcceptedWhenListedOrCoveredByWildcard() {
+        assertTrue(RecommendationController.acceptsGzip("gzip"));
+        assertTrue(RecommendationController.acceptsGzip("br, GZIP;q=0.5"));
+        assertTrue(RecommendationController.acceptsGzip("deflate, *"));
+        assertTrue(RecommendationController.acceptsGzip("gzip; q=1.000"));
+        assertFalse(RecommendationController.acceptsGzip(null));
+        assertFalse(RecommendationController.acceptsGzip("br, deflate"));
+    }
+    
+    @Test
+    void zeroWeightRulesGzipOut() {
+        assertFalse(RecommendationController.acceptsGzip("gzip;q=0"));
+        assertFalse(RecommendationController.acceptsGzip("gzip;Q=0.000"));
+        assertFalse(RecommendationController.acceptsGzip("*;q=0"));
+        // An explicit gzip entry wins over the wildcard, in either order
+        assertFalse(RecommendationController.acceptsGzip("*, gzip;q=0"));
+        assertFalse(RecommendationController.acceptsGzip("gzip;q=0, *"));
+        assertTrue(RecommendationController.acceptsGzip("*;q=0, gzip"));
+    }
+    
+    @Test
+    void malformedWeightIsNotAcceptable() {
+        assertFalse(RecommendationController.acceptsGzip("gzip;q=abc"));
+        assertFalse(RecommendationController.acceptsGzip("gzip;q="));
+        assertFalse(RecommendationController.acceptsGzip("gzip;q=2"));
+        assertFalse(RecommendationController.acceptsGzip("gzip;q=NaN"));
+        assertFalse(RecommendationController.acceptsGzip("*;q=-1"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.awsplanner.controller;
+
+import com.awsplanner.model.FeedbackPage;
+import com.awsplanner.service.FeedbackService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listing stored feedback exposes personal data, so it needs the admin token
+ */
+class FeedbackControllerTest {
+    
+    @Test
+    void listingIsDisabledWithoutAConfiguredToken() {
+        FeedbackController controller = controller("");
+        assertEquals(HttpStatus.NOT_FOUND, controller.listFeedback("Bearer ", 0, 50).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.listFeedback(null, 0, 50).getStatusCode());
+    }
+    
+    @Test
+    void listingRequiresTheToken() {
+        FeedbackController controller = controller("s3cret");
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.listFeedback(null, 0, 50).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.listFeedback("Bearer wrong", 0, 50).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.listFeedback("s3cret", 0, 50).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.listFeedback("Bearer s3cret", 0, 50).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.listFeedback("bearer s3cret", 0, 0).getStatusCode());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static FeedbackController controller(String token) {
+        FeedbackService service = Mockito.mock(FeedbackService.class);
+        Mockito.when(service.list(Mockito.anyLong(), Mockito.anyInt())).thenReturn(new FeedbackPage(List.of(), null));
+        FeedbackController controller = new FeedbackController();
+        ReflectionTestUtils.setField(controller, "feedbackService", service);
+        ReflectionTestUtils.setField(controller, "adminToken", token);
+        return controller;
+    }
+}
@@ -0,0 +1,50 @@
+package com.awsplanner.controller;
+
+import com.awsplanner.model.UserRequirement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Error messages for request bodies that do not bind to the requirement model
+ */
+class UnreadableRequestTest {
+    
+    private static final String VALID = "{\"applicationType\":\"backend-api\",\"traffic\":\"low\",\"storageGB\":10,"
+        + "\"databaseNeeded\":true,\"operationalEffort\":\"low\",\"monthlyBudget\":100}";
+    
+    private final RecommendationController controller = new RecommendationController();
+    
+    @Test
+    void invalidLevelsNameTheirField() {
+        assertEquals("Invalid traffic level. Must be one of: low, medium, high",
+            errorFor(VALID.replace("\"traffic\":\"low\"", "\"traffic\":\"huge\"")));
+        assertEquals("Invalid operational effort. Must be one of: low, medium, high",
+            errorFor(VALID.replace("\"operationalEffort\":\"low\"", "\"operationalEffort\":\"none\"")));
+    }
+    
+    @Test
+    void otherErrorsKeepTheirMessage() {
+        assertEquals("Invalid application type. Must be one of: static-website, backend-api, full-stack, "
+                + "file-storage, event-driven",
+            errorFor(VALID.replace("backend-api", "desktop")));
+        assertEquals("Malformed request body", errorFor("{\"traffic\":"));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Read a body the way the message converter does and return the handler's error
+     */
+    private String errorFor(String body) {
+        JsonProcessingException failure = assertThrows(JsonProcessingException.class,
+            () -> new ObjectMapper().readValue(body, UserRequirement.class));
+        HttpMessageNotReadableException e = new HttpMessageNotReadableException(
+            "JSON parse error", failure, new MockHttpInputMessage(body.getBytes()));
+        return controller.handleUnreadableRequest(e).getBody().get("error");
+    }
+}
@@ -0,0 +1,111 @@
+package com.awsplanner.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Round trip, isolation from the source file, checksum coverage and file
+ * permissions of the compiled catalog
+ */
+class BinaryCatalogTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void writtenCatalogOpensWithTheSameServices() throws IOException {
+        BinaryCatalog bundled = bundled();
+        Path file = dir.resolve(BinaryCatalog.FILE_NAME);
+        bundled.writeTo(file);
+        
+        BinaryCatalog reopened = BinaryCatalog.open(file);
+        assertEquals(bundled.size(), reopened.size());
+        for (int i = 0; i < bundled.size(); i++) {
+            assertEquals(bundled.getService(i), reopened.getService(i));
+        }
+        assertEquals(bundled.decodePricing(), reopened.decodePricing());
+    }
+    
+    @Test
+    void openCatalogSurvivesTheFileBeingRewrittenInPlace() throws IOException {
+        BinaryCatalog bundled = bundled();
+        Path file = dir.resolve(BinaryCatalog.FILE_NAME);
+        bundled.writeTo(file);
+        
+        BinaryCatalog opened = BinaryCatalog.open(file);
+        Files.write(file, new byte[16]);
+        
+        for (int i = 0; i < bundled.size(); i++) {
+            assertEquals(bundled.getService(i), opened.getService(i));
+        }
+        assertEquals(bundled.decodePricing(), opened.decodePricing());
+        assertThrows(IllegalArgumentException.class, () -> BinaryCatalog.open(file));
+    }
+    
+    @Test
+    void checksumCoversTheHeader() throws IOException {
+        byte[] bytes = bytesOf(bundled());
+        
+        // Every header byte outside the CRC field is checked, including ones no other validation reads
+        for (int at = 0; at < 48; at++) {
+            if (at >= 40 && at < 44) {
+                continue;
+            }
+            byte[] corrupt = bytes.clone();
+            corrupt[at] ^= 0x01;
+            assertThrows(IllegalArgumentException.class,
+                () -> BinaryCatalog.read(new ByteArrayInputStream(corrupt)), "header byte " + at);
+        }
+        
+        byte[] corrupt = bytes.clone();
+        corrupt[corrupt.length - 1] ^= 0x01;
+        assertThrows(IllegalArgumentException.class, () -> BinaryCatalog.read(new ByteArrayInputStream(corrupt)));
+    }
+    
+    @Test
+    void writtenCatalogHasDefaultPermissions() throws IOException {
+        assumeTrue(Files.getFileStore(dir).supportsFileAttributeView("posix"));
+        
+        Path plain = Files.createFile(dir.resolve("plain"));
+        Path file = dir.resolve(BinaryCatalog.FILE_NAME);
+        bundled().writeTo(file);
+        
+        Set<PosixFilePermission> expected = Files.getPosixFilePermissions(plain);
+        assertEquals(PosixFilePermissions.toString(expected),
+            PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        try (var files = Files.list(dir)) {
+            assertEquals(2, files.count(), "temporary file left behind");
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static BinaryCatalog bundled() throws IOException {
+        try (InputStream in = BinaryCatalog.class.getClassLoader().getResourceAsStream(BinaryCatalog.BUNDLED_RESOURCE)) {
+            assertNotNull(in, "catalog.bin is compiled during the build");
+            return BinaryCatalog.read(in);
+        }
+    }
+    
+    private byte[] bytesOf(BinaryCatalog catalog) throws IOException {
+        Path file = dir.resolve("copy.bin");
+        catalog.writeTo(file);
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(BinaryCatalog.FORMAT_VERSION, ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt(4));
+        return bytes;
+    }
+}
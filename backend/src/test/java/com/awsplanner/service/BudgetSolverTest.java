@@ -0,0 +1,234 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Branch-and-bound results must equal exhaustive search, on random instances
+ * and on the candidates of the real catalog
+ */
+class BudgetSolverTest {
+    
+    private static final double EPSILON = 1e-9;
+    
+    private static AnnotationConfigApplicationContext context;
+    private static ArchitectureOptimizer optimizer;
+    private static CostEstimationService costEstimation;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(ServiceKnowledgeBase.class, RequirementService.class,
+            DecisionEngineService.class, CostEstimationService.class, ArchitectureOptimizer.class);
+        optimizer = context.getBean(ArchitectureOptimizer.class);
+        costEstimation = context.getBean(CostEstimationService.class);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void matchesExhaustiveSearchOnRandomInstances() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 3000; trial++) {
+            int categories = 1 + random.nextInt(5);
+            double[][] scores = new double[categories][];
+            double[][] costs = new double[categories][];
+            for (int k = 0; k < categories; k++) {
+                int count = 1 + random.nextInt(6);
+                scores[k] = new double[count];
+                costs[k] = new double[count];
+                for (int i = 0; i < count; i++) {
+                    // Coarse scores and cent prices make ties common
+                    scores[k][i] = random.nextInt(20) * 5;
+                    costs[k][i] = Math.round(random.nextDouble() * 5000) / 100.0;
+                }
+            }
+            double budget = random.nextDouble() * 150;
+            
+            assertSameOptimum(scores, costs, budget, new BudgetSolver(scores, costs).solve(budget), "trial " + trial);
+        }
+    }
+    
+    @Test
+    void matchesExhaustiveSearchOnTheCatalog() {
+        int fitted = 0;
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (Level traffic : Level.values()) {
+                for (Level effort : Level.values()) {
+                    for (boolean databaseNeeded : new boolean[]{false, true}) {
+                        for (double budget : new double[]{5, 25, 60, 150, 400}) {
+                            for (int storage : new int[]{0, 500}) {
+                                UserRequirement req = new UserRequirement(applicationType, traffic, storage,
+                                    databaseNeeded, effort, budget);
+                                ArchitectureOptimizer.Candidates candidates = optimizer.candidates(req);
+                                double[][] costs = optimizer.costs(candidates, costEstimation.usageVector(req));
+                                double[][] scores = candidates.getScores();
+                                
+                                int[] choice = new BudgetSolver(scores, costs).solve(budget);
+                                assertSameOptimum(scores, costs, budget, choice, req.toString());
+                                if (choice != null) {
+                                    fitted++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(fitted > 0, "some requirements fit their budget");
+    }
+    
+    @Test
+    void fitToBudgetKeepsMandatoryServicesAndStaysWithinBudget() {
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (double budget : new double[]{5, 25, 60, 150}) {
+                UserRequirement req = new UserRequirement(applicationType, Level.HIGH, 500, true, Level.MEDIUM, budget);
+                ArchitectureOptimizer.Candidates candidates = optimizer.candidates(req);
+                List<AwsService> selected = context.getBean(DecisionEngineService.class).getRecommendedServices(req);
+                List<AwsService> result = optimizer.fitToBudget(selected, req);
+                
+                assertEquals(selected.size(), result.size());
+                for (int i = 0; i < selected.size(); i++) {
+                    if (!candidates.getCategories().contains(selected.get(i).getCategory())) {
+                        assertSame(selected.get(i), result.get(i), "mandatory services are kept");
+                    }
+                    assertEquals(selected.get(i).getCategory(), result.get(i).getCategory());
+                }
+                
+                boolean selectionFits = costEstimation.calculateMonthlyCost(selected, req) <= budget;
+                List<AwsService> fitted = optimizer.fit(candidates, selected, req);
+                if (selectionFits) {
+                    assertSame(selected, result);
+                } else if (fitted != null) {
+                    assertEquals(fitted, result);
+                    assertTrue(costEstimation.calculateMonthlyCost(result, req) <= budget + EPSILON, req.toString());
+                } else {
+                    assertSame(selected, result, "selection unchanged when nothing fits");
+                }
+            }
+        }
+    }
+    
+    @Test
+    void returnsNullWhenNothingFits() {
+        double[][] scores = {{10, 20}, {5, 15}};
+        double[][] costs = {{4, 8}, {3, 9}};
+        
+        assertNull(new BudgetSolver(scores, costs).solve(6.99));
+        assertArrayEquals(new int[]{0, 0}, new BudgetSolver(scores, costs).solve(7));
+        assertNull(new BudgetSolver(new double[][]{{10}, {}}, new double[][]{{1}, {}}).solve(100));
+    }
+    
+    @Test
+    void prefersTheCheaperSolutionAmongEqualScores() {
+        // Same candidate score at two prices
+        assertArrayEquals(new int[]{1}, new BudgetSolver(new double[][]{{50, 50}}, new double[][]{{9, 6}}).solve(10));
+        
+        // Two combinations score 100 within a budget of 14: 40 + 60 for 11 beats 60 + 40 for 13
+        double[][] scores = {{40, 60}, {60, 40}};
+        double[][] costs = {{5, 9}, {6, 4}};
+        assertArrayEquals(new int[]{0, 0}, new BudgetSolver(scores, costs).solve(14));
+        assertArrayEquals(new int[]{1, 0}, new BudgetSolver(scores, costs).solve(15));
+    }
+    
+    @Test
+    void stopsAtTheNodeLimitWithAFeasibleSolution() {
+        Random random = new Random(7);
+        int categories = 7;
+        double[][] scores = new double[categories][300];
+        double[][] costs = new double[categories][300];
+        for (int k = 0; k < categories; k++) {
+            for (int i = 0; i < 300; i++) {
+                scores[k][i] = 30 + random.nextDouble() * 70;
+                costs[k][i] = Math.round(scores[k][i] * (0.5 + random.nextDouble()) * 100) / 100.0;
+            }
+        }
+        double budget = 400;
+        
+        BudgetSolver unlimited = new BudgetSolver(scores, costs);
+        int[] optimum = unlimited.solve(budget);
+        assertNotNull(optimum);
+        assertTrue(unlimited.getNodes() > 100, "instance needs a real search");
+        
+        for (long limit : new long[]{0, 1, 10, 100}) {
+            BudgetSolver limited = new BudgetSolver(scores, costs, limit);
+            int[] choice = limited.solve(budget);
+            
+            assertEquals(limit, limited.getNodes());
+            assertNotNull(choice, "the seeded solution survives the cut-off");
+            assertTrue(total(costs, choice) <= budget + EPSILON);
+            assertTrue(total(scores, choice) <= total(scores, optimum) + EPSILON);
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static void assertSameOptimum(double[][] scores, double[][] costs, double budget, int[] choice, String label) {
+        int[] expected = exhaustive(scores, costs, budget);
+        if (expected == null) {
+            assertNull(choice, label);
+            return;
+        }
+        assertNotNull(choice, label);
+        assertEquals(total(scores, expected), total(scores, choice), EPSILON, label);
+        assertEquals(total(costs, expected), total(costs, choice), EPSILON, label);
+        assertTrue(total(costs, choice) <= budget + EPSILON, label);
+    }
+    
+    /**
+     * Highest score within budget over every combination, cheaper first among equal scores
+     */
+    private static int[] exhaustive(double[][] scores, double[][] costs, double budget) {
+        int categories = scores.length;
+        for (double[] choices : scores) {
+            if (choices.length == 0) {
+                return null;
+            }
+        }
+        
+        int[] best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int[] index = new int[categories];
+        while (true) {
+            double score = total(scores, index);
+            double cost = total(costs, index);
+            if (cost <= budget + EPSILON && (score > bestScore + EPSILON
+                    || (score > bestScore - EPSILON && cost < bestCost - EPSILON))) {
+                best = index.clone();
+                bestScore = score;
+                bestCost = cost;
+            }
+            
+            int k = 0;
+            while (k < categories && ++index[k] == scores[k].length) {
+                index[k++] = 0;
+            }
+            if (k == categories) {
+                return best;
+            }
+        }
+    }
+    
+    private static double total(double[][] values, int[] choice) {
+        double sum = 0.0;
+        for (int k = 0; k < choice.length; k++) {
+            sum += values[k][choice[k]];
+        }
+        return sum;
+    }
+}
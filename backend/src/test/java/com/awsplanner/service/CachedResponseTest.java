@@ -0,0 +1,35 @@
+package com.awsplanner.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * If-None-Match matching against cached responses
+ */
+class CachedResponseTest {
+    
+    private final CachedResponse response = CachedResponse.compressed("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+    
+    @Test
+    void weakComparisonIgnoresTheWeakPrefix() {
+        String etag = response.getEtag();
+        assertTrue(response.matches(etag));
+        assertTrue(response.matches("W/" + etag));
+        assertTrue(response.matches("\"other\", W/" + etag));
+        assertTrue(response.matchesGzip("W/" + response.getGzipEtag()));
+        assertTrue(response.matches("*"));
+    }
+    
+    @Test
+    void otherTagsDoNotMatch() {
+        assertFalse(response.matches(null));
+        assertFalse(response.matches("\"other\""));
+        assertFalse(response.matches("W/\"other\""));
+        assertFalse(response.matches(response.getGzipEtag()));
+        assertFalse(response.matchesGzip(response.getEtag()));
+        assertFalse(new CachedResponse(new byte[0]).matchesGzip("*"));
+    }
+}
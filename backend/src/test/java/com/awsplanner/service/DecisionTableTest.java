@@ -0,0 +1,103 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.ScoringPolicy;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every decision table entry must equal the live filter, score and rank pipeline
+ * for any budget of its band, for every compiled policy
+ */
+class DecisionTableTest {
+    
+    private static AnnotationConfigApplicationContext context;
+    private static DecisionEngineService decisionEngine;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(
+            ServiceKnowledgeBase.class, RequirementService.class, DecisionEngineService.class);
+        decisionEngine = context.getBean(DecisionEngineService.class);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void tableMatchesLiveSelectionForEveryKey() {
+        int checked = 0;
+        int keys = 0;
+        for (ScoringPolicy definition : decisionEngine.getPolicies()) {
+            CompiledPolicy policy = decisionEngine.policyFor(definition.getName());
+            DecisionTable table = decisionEngine.getDecisionTable(definition.getName());
+            keys += policy.size();
+            
+            for (ApplicationType applicationType : ApplicationType.values()) {
+                for (Level traffic : Level.values()) {
+                    for (Level effort : Level.values()) {
+                        for (boolean databaseNeeded : new boolean[]{false, true}) {
+                            for (int band = 0; band < policy.getBandCount(); band++) {
+                                for (double budget : budgetsInBand(policy, band)) {
+                                    UserRequirement req = new UserRequirement(applicationType, traffic, 100,
+                                        databaseNeeded, effort, budget, definition.getName());
+                                    int key = policy.keyOf(req);
+                                    
+                                    assertEquals(ids(decisionEngine.selectServices(req)), ids(table.get(key)),
+                                        definition.getName() + " " + req);
+                                    checked++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(3 * keys, checked, "three budgets for every key of every policy");
+    }
+    
+    @Test
+    void recommendedServicesComeFromTheTable() {
+        for (ScoringPolicy definition : decisionEngine.getPolicies()) {
+            CompiledPolicy policy = decisionEngine.policyFor(definition.getName());
+            DecisionTable table = decisionEngine.getDecisionTable(definition.getName());
+            UserRequirement req = new UserRequirement(ApplicationType.FULL_STACK, Level.MEDIUM, 250,
+                true, Level.LOW, 150.0, definition.getName());
+            
+            assertEquals(ids(table.get(policy.keyOf(req))), ids(decisionEngine.getRecommendedServices(req)));
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * The lowest budget of a band, one inside it and the highest below the next band
+     */
+    private static double[] budgetsInBand(CompiledPolicy policy, int band) {
+        double[] thresholds = policy.getBudgetThresholds();
+        double low = band == 0 ? 1.0 : thresholds[band - 1];
+        double high = band < thresholds.length ? Math.nextDown(thresholds[band]) : low * 10;
+        return new double[]{low, (low + high) / 2, high};
+    }
+    
+    private static List<String> ids(List<AwsService> services) {
+        List<String> ids = new ArrayList<>(services.size());
+        for (AwsService service : services) {
+            ids.add(service.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,92 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.Feedback;
+import com.awsplanner.repository.FeedbackLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every submission acknowledged before or during shutdown must be durable
+ */
+class FeedbackServiceTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void acceptedSubmissionsSurviveConcurrentShutdown() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path directory = dir.resolve("round-" + round);
+            FeedbackService service = service(directory, 100_000);
+            
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(4);
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread submitter = new Thread(() -> {
+                    started.countDown();
+                    int refused = 0;
+                    while (refused < 100) {
+                        if (service.submit(feedback())) {
+                            accepted.incrementAndGet();
+                        } else {
+                            refused++;
+                        }
+                    }
+                });
+                submitter.start();
+                submitters.add(submitter);
+            }
+            started.await();
+            Thread.sleep(round % 5);
+            service.shutdown();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+            
+            assertFalse(service.submit(feedback()), "closed to new submissions");
+            try (FeedbackLog log = FeedbackLog.open(directory, 1 << 20)) {
+                assertEquals(accepted.get(), log.getCommittedId(), "round " + round);
+            }
+        }
+    }
+    
+    @Test
+    void rejectsSubmissionsOverCapacity() throws Exception {
+        FeedbackService service = service(dir, 0);
+        assertFalse(service.submit(feedback()));
+        service.shutdown();
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static FeedbackService service(Path directory, int queueCapacity) throws Exception {
+        FeedbackService service = new FeedbackService();
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "maxBatch", 64);
+        ReflectionTestUtils.setField(service, "segmentBytes", 1L << 20);
+        service.init();
+        return service;
+    }
+    
+    private static Feedback feedback() {
+        Feedback feedback = new Feedback();
+        feedback.setName("Tester");
+        feedback.setEmail("tester@example.com");
+        feedback.setMessage("Shutdown race");
+        feedback.setType("feature-request");
+        return feedback;
+    }
+}
@@ -0,0 +1,167 @@
+package com.awsplanner.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Merged frontiers must equal the frontier of the enumerated cross product, and the
+ * point limit must reject exactly the frontiers that exceed it
+ */
+class ParetoFrontierTest {
+    
+    private static ForkJoinPool pool;
+    
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        pool.shutdownNow();
+    }
+    
+    @Test
+    void matchesEnumerationOnSmallInstances() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 2000; trial++) {
+            double[][][] instance = instance(random, 1 + random.nextInt(5), 1 + random.nextInt(7), 20);
+            assertEnumerated(instance[0], instance[1], "trial " + trial);
+        }
+    }
+    
+    @Test
+    void matchesEnumerationWhenMergesAreSplit() {
+        // Fronts of a few hundred points make sum matrices above the split threshold
+        Random random = new Random(12);
+        for (int trial = 0; trial < 5; trial++) {
+            double[][] scores = new double[2][400];
+            double[][] costs = new double[2][400];
+            for (int k = 0; k < 2; k++) {
+                for (int i = 0; i < 400; i++) {
+                    costs[k][i] = random.nextInt(8000) / 4.0;
+                    scores[k][i] = Math.floor(costs[k][i]) + random.nextInt(40); // Score mostly rises with cost
+                }
+            }
+            long sums = (long) ParetoFrontier.paretoIndexes(scores[0], costs[0]).length
+                      * ParetoFrontier.paretoIndexes(scores[1], costs[1]).length;
+            assertTrue(sums > 1 << 14, "merge is split into tasks");
+            
+            assertEnumerated(scores, costs, "trial " + trial);
+        }
+    }
+    
+    @Test
+    void limitRejectsExactlyTheFrontiersAboveIt() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 1000; trial++) {
+            double[][][] instance = instance(random, 1 + random.nextInt(5), 1 + random.nextInt(7), 20);
+            int size = ParetoFrontier.compute(instance[0], instance[1], pool).size();
+            
+            assertEquals(size, ParetoFrontier.compute(instance[0], instance[1], size, pool).size());
+            if (size > 0) {
+                ParetoFrontier.TooLargeException e = assertThrows(ParetoFrontier.TooLargeException.class,
+                    () -> ParetoFrontier.compute(instance[0], instance[1], size - 1, pool));
+                assertEquals(size - 1, e.getLimit());
+            }
+        }
+    }
+    
+    @Test
+    void emptyCategoryLeavesNoPoints() {
+        assertEquals(0, ParetoFrontier.compute(new double[][]{{1, 2}, {}}, new double[][]{{1, 2}, {}}, pool).size());
+        assertEquals(1, ParetoFrontier.compute(new double[0][], new double[0][], pool).size());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Scores and costs on a quarter grid so sums are exact and ties are common
+     */
+    private static double[][][] instance(Random random, int categories, int maxCandidates, int range) {
+        double[][] scores = new double[categories][];
+        double[][] costs = new double[categories][];
+        for (int k = 0; k < categories; k++) {
+            int count = 1 + random.nextInt(maxCandidates);
+            scores[k] = new double[count];
+            costs[k] = new double[count];
+            for (int i = 0; i < count; i++) {
+                scores[k][i] = random.nextInt(range);
+                costs[k][i] = random.nextInt(range * 4) / 4.0;
+            }
+        }
+        return new double[][][]{scores, costs};
+    }
+    
+    private static void assertEnumerated(double[][] scores, double[][] costs, String label) {
+        ParetoFrontier frontier = ParetoFrontier.compute(scores, costs, pool);
+        List<double[]> expected = enumerate(scores, costs);
+        
+        assertEquals(expected.size(), frontier.size(), label);
+        for (int p = 0; p < frontier.size(); p++) {
+            assertEquals(expected.get(p)[0], frontier.getCost(p), label);
+            assertEquals(expected.get(p)[1], frontier.getScore(p), label);
+            
+            int[] choice = frontier.getChoice(p);
+            double cost = 0.0;
+            double score = 0.0;
+            for (int k = 0; k < choice.length; k++) {
+                cost += costs[k][choice[k]];
+                score += scores[k][choice[k]];
+            }
+            assertEquals(frontier.getCost(p), cost, label);
+            assertEquals(frontier.getScore(p), score, label);
+        }
+    }
+    
+    /**
+     * Frontier points as {cost, score} over the full cross product
+     */
+    private static List<double[]> enumerate(double[][] scores, double[][] costs) {
+        List<double[]> all = new ArrayList<>();
+        int categories = scores.length;
+        for (double[] choices : scores) {
+            if (choices.length == 0) {
+                return all;
+            }
+        }
+        int[] index = new int[categories];
+        while (true) {
+            double cost = 0.0;
+            double score = 0.0;
+            for (int k = 0; k < categories; k++) {
+                cost += costs[k][index[k]];
+                score += scores[k][index[k]];
+            }
+            all.add(new double[]{cost, score});
+            
+            int k = 0;
+            while (k < categories && ++index[k] == scores[k].length) {
+                index[k++] = 0;
+            }
+            if (k == categories) {
+                break;
+            }
+        }
+        
+        all.sort(Comparator.<double[]>comparingDouble(point -> point[0]).thenComparingDouble(point -> -point[1]));
+        List<double[]> front = new ArrayList<>();
+        double best = Double.NEGATIVE_INFINITY;
+        for (double[] point : all) {
+            if (point[1] > best) {
+                front.add(point);
+                best = point[1];
+            }
+        }
+        return front;
+    }
+}
@@ -0,0 +1,147 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.CostProjection;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.ProjectionRequest;
+import com.awsplanner.model.ProjectionStep;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.PricingVectors;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Projected months must cost exactly what CostEstimationService charges for the
+ * same usage, month by month
+ */
+class ProjectionEngineTest {
+    
+    private static AnnotationConfigApplicationContext context;
+    private static ProjectionService projectionService;
+    private static CostEstimationService costEstimation;
+    private static DecisionEngineService decisionEngine;
+    private static ArchitectureOptimizer optimizer;
+    private static RequirementService requirementService;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(ServiceKnowledgeBase.class, RequirementService.class,
+            DecisionEngineService.class, CostEstimationService.class, ArchitectureOptimizer.class,
+            ProjectionService.class);
+        projectionService = context.getBean(ProjectionService.class);
+        costEstimation = context.getBean(CostEstimationService.class);
+        decisionEngine = context.getBean(DecisionEngineService.class);
+        optimizer = context.getBean(ArchitectureOptimizer.class);
+        requirementService = context.getBean(RequirementService.class);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void projectionMatchesPerMonthCostEstimation() {
+        Random random = new Random(7);
+        int checked = 0;
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (Level traffic : Level.values()) {
+                for (Level effort : Level.values()) {
+                    for (boolean databaseNeeded : new boolean[]{false, true}) {
+                        for (double budget : new double[]{1, 10, 50, 150, 200, 500}) {
+                            for (int storage : new int[]{0, 150, 1500}) {
+                                UserRequirement req = new UserRequirement(applicationType, traffic, storage,
+                                    databaseNeeded, effort, budget);
+                                List<AwsService> services = optimizer.fitToBudget(
+                                    decisionEngine.getRecommendedServices(req), req);
+                                
+                                assertFlat(req, services);
+                                assertGrowing(req, services, random.nextDouble() * 0.25 - 0.05,
+                                              random.nextDouble() * 0.1);
+                                checked++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(1620, checked);
+    }
+    
+    @Test
+    void growCompoundsAndNeverGoesNegative() {
+        double[] factors = {1, 1, 2, 1, 1};
+        double[] deltas = {0, 10, 0, -1000, 5};
+        
+        assertArrayEquals(new double[]{100, 120, 264, 0, 5}, ProjectionEngine.grow(100, 0.1, factors, deltas), 1e-9);
+        assertArrayEquals(new double[]{0, 0, 0}, ProjectionEngine.grow(0, 0.5, new double[]{1, 1, 1}, new double[3]));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static void assertFlat(UserRequirement req, List<AwsService> services) {
+        CostProjection projection = projectionService.project(new ProjectionRequest(req, 24, 0.0, 0.0, new ArrayList<>()));
+        double monthly = costEstimation.calculateMonthlyCost(services, req);
+        for (int m = 0; m < 24; m++) {
+            assertEquals(monthly, projection.getMonthlyTotals()[m], req + " month " + (m + 1));
+        }
+    }
+    
+    /**
+     * Traffic and storage compounded month by month with a launch in month 6 and a
+     * cleanup in month 13, each month priced by CostEstimationService on its own
+     */
+    private static void assertGrowing(UserRequirement req, List<AwsService> services,
+                                      double trafficGrowth, double storageGrowth) {
+        int months = 36;
+        List<ProjectionStep> steps = List.of(new ProjectionStep(6, 3.0, 200.0), new ProjectionStep(13, 0.5, -5000.0));
+        CostProjection projection = projectionService.project(
+            new ProjectionRequest(req, months, trafficGrowth, storageGrowth, steps));
+        
+        double trafficRequests = requirementService.normalizeTraffic(req.getTraffic());
+        double storageGB = req.getStorageGB();
+        double cumulative = 0.0;
+        for (int m = 0; m < months; m++) {
+            if (m > 0) {
+                trafficRequests *= 1 + trafficGrowth;
+                storageGB *= 1 + storageGrowth;
+            }
+            if (m == 5) {
+                trafficRequests *= 3.0;
+                storageGB += 200.0;
+            }
+            if (m == 12) {
+                trafficRequests *= 0.5;
+                storageGB = Math.max(0.0, storageGB - 5000.0);
+            }
+            String label = req + " month " + (m + 1);
+            assertEquals(trafficRequests, projection.getTrafficRequests()[m], label);
+            assertEquals(storageGB, projection.getStorageGB()[m], label);
+            
+            double[] usage = new double[PricingVectors.DIMENSIONS];
+            usage[PricingVectors.BASE] = 1.0;
+            usage[PricingVectors.TRAFFIC_UNITS] = Math.floor(trafficRequests / 10000);
+            usage[PricingVectors.MILLION_REQUESTS] = trafficRequests / 1000000.0;
+            usage[PricingVectors.STORAGE_GB] = storageGB;
+            for (int s = 0; s < services.size(); s++) {
+                assertEquals(costEstimation.calculateServiceCost(services.get(s), usage),
+                             projection.getServices().get(s).getMonthlyCosts()[m], label);
+            }
+            double total = costEstimation.calculateMonthlyCost(services,
+                service -> costEstimation.calculateServiceCost(service, usage));
+            assertEquals(total, projection.getMonthlyTotals()[m], label);
+            cumulative += total;
+        }
+        assertEquals(Math.round(cumulative * 100.0) / 100.0, projection.getTotalCost(), 1e-9, req.toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.Recommendation;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Requirements that produce the same recommendation share one cache entry
+ */
+class RecommendationCacheTest {
+    
+    private static AnnotationConfigApplicationContext context;
+    private static RecommendationCache cache;
+    private static DecisionEngineService decisionEngine;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.register(ServiceKnowledgeBase.class, RequirementService.class, DecisionEngineService.class,
+            CostEstimationService.class, RecommendationCache.class);
+        context.registerBean(ObjectMapper.class);
+        context.refresh();
+        cache = context.getBean(RecommendationCache.class);
+        decisionEngine = context.getBean(DecisionEngineService.class);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void omittedPolicyAndDefaultPolicyShareAnEntry() {
+        AtomicInteger computed = new AtomicInteger();
+        Supplier<Recommendation> compute = () -> {
+            computed.incrementAndGet();
+            return new Recommendation();
+        };
+        
+        RecommendationCache.Lookup first = cache.get(requirement(null, 120.0), compute);
+        RecommendationCache.Lookup second = cache.get(requirement(decisionEngine.getDefaultPolicyName(), 120.0),
+                                                      compute);
+        assertFalse(first.isHit());
+        assertTrue(second.isHit());
+        assertEquals(first.getResponse().getEtag(), second.getResponse().getEtag());
+        assertEquals(1, computed.get());
+    }
+    
+    @Test
+    void unknownPoliciesAreNotCached() {
+        AtomicInteger computed = new AtomicInteger();
+        Supplier<Recommendation> compute = () -> {
+            computed.incrementAndGet();
+            return new Recommendation();
+        };
+        
+        assertFalse(cache.get(requirement("no-such-policy", 130.0), compute).isHit());
+        assertFalse(cache.get(requirement("no-such-policy", 130.0), compute).isHit());
+        assertEquals(2, computed.get());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static UserRequirement requirement(String policy, double budget) {
+        return new UserRequirement(ApplicationType.FULL_STACK, Level.MEDIUM, 50, true, Level.LOW, budget, policy);
+    }
+}
@@ -0,0 +1,158 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.Region;
+import com.awsplanner.model.RegionComparison;
+import com.awsplanner.model.RegionCost;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.PricingVectors;
+import com.awsplanner.repository.RegionalPricing;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regional costs must match CostEstimationService at base prices and apply each
+ * region's multiplier and price overrides
+ */
+class RegionalCostServiceTest {
+    
+    private static final double[] BUDGETS = {30, 100, 500, 5000};
+    private static final int[] STORAGES = {0, 100, 5000};
+    
+    private static AnnotationConfigApplicationContext context;
+    private static RegionalCostService regionalCostService;
+    private static CostEstimationService costEstimation;
+    private static DecisionEngineService decisionEngine;
+    private static ArchitectureOptimizer optimizer;
+    private static ServiceKnowledgeBase knowledgeBase;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(ServiceKnowledgeBase.class, RequirementService.class,
+            DecisionEngineService.class, CostEstimationService.class, ArchitectureOptimizer.class,
+            RegionalCostService.class);
+        regionalCostService = context.getBean(RegionalCostService.class);
+        costEstimation = context.getBean(CostEstimationService.class);
+        decisionEngine = context.getBean(DecisionEngineService.class);
+        optimizer = context.getBean(ArchitectureOptimizer.class);
+        knowledgeBase = context.getBean(ServiceKnowledgeBase.class);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void baseRegionMatchesCostEstimation() {
+        int checked = 0;
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (Level traffic : Level.values()) {
+                for (Level effort : Level.values()) {
+                    for (boolean databaseNeeded : new boolean[]{false, true}) {
+                        for (double budget : BUDGETS) {
+                            for (int storage : STORAGES) {
+                                UserRequirement req = new UserRequirement(applicationType, traffic, storage,
+                                    databaseNeeded, effort, budget, null);
+                                List<AwsService> services = optimizer.fitToBudget(
+                                    decisionEngine.getRecommendedServices(req), req);
+                                
+                                RegionComparison comparison = regionalCostService.compareRegions(req);
+                                assertEquals(services.stream().map(AwsService::getName).toList(),
+                                    comparison.getServices());
+                                assertEquals(costEstimation.calculateMonthlyCost(services, req),
+                                    costOf(comparison, "us-east-1"), req.toString());
+                                checked++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(checked > 1000);
+    }
+    
+    @Test
+    void multipliersAndOverridesApply() {
+        CatalogSnapshot catalog = knowledgeBase.getSnapshot();
+        RegionalPricing pricing = RegionalPricing.compile(catalog, List.of(
+            new Region("base", "Base", 1.0, null),
+            new Region("scaled", "Scaled", 1.5, null),
+            new Region("override", "Override", 2.0, Map.of(
+                "s3", Map.of("perGB", 0.5),
+                "not-in-catalog", Map.of("baseCost", 1.0)))));
+        
+        int s3 = catalog.ordinalOf("s3");
+        PricingVectors base = catalog.getPricingVectors();
+        for (int d = 0; d < PricingVectors.DIMENSIONS; d++) {
+            assertEquals(base.coefficient(s3, d), pricing.coefficient(s3, 0, d));
+            assertEquals(base.coefficient(s3, d) * 1.5, pricing.coefficient(s3, 1, d));
+        }
+        // Listed keys replace the scaled base price; the others are still scaled
+        assertEquals(0.5, pricing.coefficient(s3, 2, PricingVectors.STORAGE_GB));
+        assertEquals(base.coefficient(s3, PricingVectors.MILLION_REQUESTS) * 2.0,
+            pricing.coefficient(s3, 2, PricingVectors.MILLION_REQUESTS));
+        
+        double[] usage = new double[PricingVectors.DIMENSIONS];
+        usage[PricingVectors.STORAGE_GB] = 1000;
+        double[] costs = pricing.monthlyCosts(new int[]{s3, -1}, usage);
+        assertEquals(Math.round(base.coefficient(s3, PricingVectors.STORAGE_GB) * 1000 * 100.0) / 100.0, costs[0]);
+        assertEquals(500.0, costs[2]);
+    }
+    
+    @Test
+    void invalidRegionFileFailsUntilTheCatalogReloads() throws IOException {
+        UserRequirement req = new UserRequirement(ApplicationType.BACKEND_API, Level.MEDIUM, 100, true,
+            Level.MEDIUM, 500.0, null);
+        Path regions = dir.resolve(ServiceKnowledgeBase.REGIONS_FILE);
+        Files.writeString(regions, "[{\"code\": \"x\", \"name\": \"X\", \"priceMultiplier\": 0}]");
+        ReflectionTestUtils.setField(knowledgeBase, "catalogDirectory", dir.toString());
+        try {
+            knowledgeBase.reload();
+            IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> regionalCostService.compareRegions(req));
+            
+            // The failure is kept for this catalog version rather than reread per request
+            Files.writeString(regions, "[{\"code\": \"x\", \"name\": \"X\", \"priceMultiplier\": 1}]");
+            assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> regionalCostService.compareRegions(req)));
+            
+            knowledgeBase.reload();
+            RegionComparison comparison = regionalCostService.compareRegions(req);
+            assertEquals(1, comparison.getRegions().size());
+            assertEquals("x", comparison.getRegions().get(0).getRegion());
+        } finally {
+            ReflectionTestUtils.setField(knowledgeBase, "catalogDirectory", "");
+            knowledgeBase.reload();
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static double costOf(RegionComparison comparison, String code) {
+        return comparison.getRegions().stream()
+            .filter(region -> region.getRegion().equals(code))
+            .mapToDouble(RegionCost::getTotalCost)
+            .findFirst()
+            .orElseThrow();
+    }
+}
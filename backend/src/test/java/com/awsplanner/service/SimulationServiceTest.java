@@ -0,0 +1,154 @@
+package com.awsplanner.service;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.Distribution;
+import com.awsplanner.model.DistributionType;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.SimulationRequest;
+import com.awsplanner.model.SimulationResult;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sketch accuracy, reproducibility and the range limits of the cost simulation
+ */
+class SimulationServiceTest {
+    
+    private static AnnotationConfigApplicationContext context;
+    private static SimulationService simulationService;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(ServiceKnowledgeBase.class, RequirementService.class,
+            DecisionEngineService.class, CostEstimationService.class, ArchitectureOptimizer.class,
+            SimulationService.class);
+        simulationService = context.getBean(SimulationService.class);
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void sketchQuantilesAreWithinRelativeAccuracy() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + random.nextInt(50000);
+            double[] values = new double[n];
+            QuantileSketch even = new QuantileSketch();
+            QuantileSketch odd = new QuantileSketch();
+            for (int i = 0; i < n; i++) {
+                boolean zero = round % 3 == 0 && random.nextInt(10) == 0;
+                values[i] = zero ? 0.0 : Math.round(Math.exp(random.nextGaussian() * 3 + 4) * 100) / 100.0;
+                (i % 2 == 0 ? even : odd).add(values[i]);
+            }
+            QuantileSketch sketch = even.merge(odd);
+            Arrays.sort(values);
+            
+            for (double q : new double[]{0, 0.01, 0.5, 0.9, 0.99, 1}) {
+                double exact = values[(int) Math.floor(q * (n - 1))];
+                assertEquals(exact, sketch.quantile(q), exact * QuantileSketch.RELATIVE_ACCURACY + 1e-9, "q=" + q);
+            }
+            assertEquals(values[0], sketch.getMin());
+            assertEquals(values[n - 1], sketch.getMax());
+        }
+    }
+    
+    @Test
+    void sketchCountsValuesAboveItsRangeInsteadOfClampingThem() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 90; i++) {
+            sketch.add(100.0);
+        }
+        for (int i = 0; i < 10; i++) {
+            sketch.add(QuantileSketch.MAX_VALUE * 1000);
+        }
+        
+        assertEquals(10, sketch.getOverflowCount());
+        assertEquals(100.0, sketch.quantile(0.5), 100.0 * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(Double.POSITIVE_INFINITY, sketch.quantile(0.99));
+        assertEquals(QuantileSketch.MAX_VALUE * 1000, sketch.getMax());
+        assertEquals(10, new QuantileSketch().merge(sketch).getOverflowCount());
+    }
+    
+    @Test
+    void fixedInputsGiveThePointEstimate() {
+        for (ApplicationType applicationType : ApplicationType.values()) {
+            for (double budget : new double[]{10, 150, 500}) {
+                UserRequirement req = requirement(applicationType, budget);
+                SimulationResult result = simulationService.simulate(new SimulationRequest(req, null, null, 1000L, 1L));
+                
+                double pointEstimate = result.getPointEstimate();
+                assertEquals(pointEstimate, result.getMean(), req.toString());
+                assertEquals(pointEstimate, result.getMin(), req.toString());
+                assertEquals(pointEstimate, result.getMax(), req.toString());
+                assertEquals(pointEstimate, result.getP50(), req.toString());
+                assertEquals(pointEstimate, result.getP99(), req.toString());
+            }
+        }
+    }
+    
+    @Test
+    void seedGivesTheSameResultOnAnyNumberOfThreads() {
+        UserRequirement req = requirement(ApplicationType.FULL_STACK, 500.0);
+        SimulationRequest request = new SimulationRequest(req, lognormal(50000.0, 0.8),
+            new Distribution(DistributionType.TRIANGULAR, null, 50.0, 100.0, 400.0, null, null, null, null),
+            300_001L, 42L);
+        
+        SimulationResult expected = null;
+        for (int threads : new int[]{1, 3}) {
+            simulationService.shutdown();
+            ReflectionTestUtils.setField(simulationService, "threads", threads);
+            simulationService.init();
+            SimulationResult result = simulationService.simulate(request);
+            if (expected == null) {
+                expected = result;
+            }
+            assertEquals(expected, result, threads + " threads");
+        }
+    }
+    
+    @Test
+    void rejectsDistributionsOutsideTheSupportedRange() {
+        UserRequirement req = requirement(ApplicationType.FULL_STACK, 500.0);
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> simulationService.simulate(new SimulationRequest(req, lognormal(50000.0, 20.0), null, 1000L, 1L)));
+        assertThrows(IllegalArgumentException.class,
+            () -> simulationService.simulate(new SimulationRequest(req,
+                new Distribution(DistributionType.NORMAL, null, null, null, null, 1e6, 1e13, null, null), null, 1000L, 1L)));
+        assertThrows(IllegalArgumentException.class,
+            () -> simulationService.simulate(new SimulationRequest(req, null,
+                new Distribution(DistributionType.FIXED, 1e13, null, null, null, null, null, null, null), 1000L, 1L)));
+    }
+    
+    @Test
+    void rejectsSimulationsWhoseCostsLeaveTheSketchRange() {
+        UserRequirement req = requirement(ApplicationType.FULL_STACK, 500.0);
+        SimulationRequest request = new SimulationRequest(req, null, lognormal(1e12, 3.0), 10_000L, 1L);
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> simulationService.simulate(request));
+        assertTrue(e.getMessage().contains("trials cost more than"), e.getMessage());
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static UserRequirement requirement(ApplicationType applicationType, double budget) {
+        return new UserRequirement(applicationType, Level.MEDIUM, 150, true, Level.MEDIUM, budget);
+    }
+    
+    private static Distribution lognormal(double median, double sigma) {
+        return new Distribution(DistributionType.LOGNORMAL, null, null, null, null, null, null, median, sigma);
+    }
+}
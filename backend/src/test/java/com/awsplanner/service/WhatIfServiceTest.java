@@ -0,0 +1,158 @@
+package com.awsplanner.service;
+
+import com.awsplanner.metrics.PipelineMetrics;
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.model.WhatIfResult;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A session's incrementally updated recommendation must equal a full pipeline run
+ * for the same requirement, across random changes, catalog reloads and rejected changes
+ */
+class WhatIfServiceTest {
+    
+    private static final double[] BUDGETS = {1, 30, 49.99, 50, 75, 99, 100, 150, 199, 200, 350, 499, 500, 1000, 5000};
+    private static final int[] STORAGES = {0, 1, 10, 50, 100, 101, 500, 501, 1000, 5000};
+    
+    private static AnnotationConfigApplicationContext context;
+    private static WhatIfService whatIf;
+    private static RecommendationService recommendationService;
+    private static ServiceKnowledgeBase knowledgeBase;
+    private static List<String> policies;
+    
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(ServiceKnowledgeBase.class, RequirementService.class,
+            DecisionEngineService.class, CostEstimationService.class, ArchitectureOptimizer.class,
+            PipelineMetrics.class, RecommendationService.class, WhatIfService.class);
+        whatIf = context.getBean(WhatIfService.class);
+        recommendationService = context.getBean(RecommendationService.class);
+        knowledgeBase = context.getBean(ServiceKnowledgeBase.class);
+        policies = new ArrayList<>();
+        context.getBean(DecisionEngineService.class).getPolicies().forEach(policy -> policies.add(policy.getName()));
+    }
+    
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    void incrementalUpdatesMatchFullRecommendations() {
+        Random random = new Random(7);
+        List<AwsService> services = knowledgeBase.getAllServices();
+        Map<String, Map<String, Double>> pricing = knowledgeBase.getAllPricing();
+        int checked = 0;
+        try {
+            for (int s = 0; s < 20; s++) {
+                WhatIfResult result = whatIf.create(randomRequirement(random));
+                assertEquals(recommendationService.recommend(result.getRequirement()), result.getRecommendation());
+                
+                for (int step = 0; step < 60; step++) {
+                    if (step == 30) {
+                        // Reprice the catalog under the session; its cached results are stale now
+                        knowledgeBase.updateCatalog(services, scaled(pricing, 1 + random.nextInt(50) / 100.0));
+                    }
+                    result = whatIf.update(result.getSessionId(), randomChange(random));
+                    if (step == 30) {
+                        assertEquals(List.of("filter", "score", "rank", "price"), result.getRecomputed());
+                    }
+                    assertEquals(recommendationService.recommend(result.getRequirement()), result.getRecommendation(),
+                        "session " + s + " step " + step + ": " + result.getRequirement());
+                    checked++;
+                }
+                whatIf.delete(result.getSessionId());
+            }
+        } finally {
+            knowledgeBase.updateCatalog(services, pricing);
+        }
+        assertEquals(1200, checked);
+    }
+    
+    @Test
+    void rejectedChangesLeaveTheSessionAsItWas() {
+        Random random = new Random(11);
+        for (int s = 0; s < 20; s++) {
+            WhatIfResult result = whatIf.create(randomRequirement(random));
+            String id = result.getSessionId();
+            for (int step = 0; step < 10; step++) {
+                result = whatIf.update(id, randomChange(random));
+            }
+            UserRequirement before = result.getRequirement();
+            
+            UserRequirement badPolicy = randomChange(random);
+            badPolicy.setPolicy("no-such-policy");
+            assertThrows(IllegalArgumentException.class, () -> whatIf.update(id, badPolicy));
+            UserRequirement badStorage = new UserRequirement();
+            badStorage.setStorageGB(-1);
+            assertThrows(IllegalArgumentException.class, () -> whatIf.update(id, badStorage));
+            
+            int storage = STORAGES[random.nextInt(STORAGES.length)];
+            UserRequirement change = new UserRequirement();
+            change.setStorageGB(storage);
+            result = whatIf.update(id, change);
+            
+            UserRequirement expected = new UserRequirement(before.getApplicationType(), before.getTraffic(), storage,
+                before.getDatabaseNeeded(), before.getOperationalEffort(), before.getMonthlyBudget(), before.getPolicy());
+            assertEquals(expected, result.getRequirement());
+            assertEquals(recommendationService.recommend(expected), result.getRecommendation());
+            whatIf.delete(id);
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static UserRequirement randomRequirement(Random random) {
+        return new UserRequirement(
+            pick(random, ApplicationType.values()), pick(random, Level.values()),
+            STORAGES[random.nextInt(STORAGES.length)], random.nextBoolean(), pick(random, Level.values()),
+            BUDGETS[random.nextInt(BUDGETS.length)],
+            random.nextBoolean() ? null : policies.get(random.nextInt(policies.size())));
+    }
+    
+    /**
+     * A change to one random field
+     */
+    private static UserRequirement randomChange(Random random) {
+        UserRequirement change = new UserRequirement();
+        switch (random.nextInt(7)) {
+            case 0 -> change.setApplicationType(pick(random, ApplicationType.values()));
+            case 1 -> change.setTraffic(pick(random, Level.values()));
+            case 2 -> change.setStorageGB(STORAGES[random.nextInt(STORAGES.length)]);
+            case 3 -> change.setDatabaseNeeded(random.nextBoolean());
+            case 4 -> change.setOperationalEffort(pick(random, Level.values()));
+            case 5 -> change.setMonthlyBudget(BUDGETS[random.nextInt(BUDGETS.length)]);
+            default -> change.setPolicy(policies.get(random.nextInt(policies.size())));
+        }
+        return change;
+    }
+    
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static Map<String, Map<String, Double>> scaled(Map<String, Map<String, Double>> pricing, double factor) {
+        Map<String, Map<String, Double>> scaled = new HashMap<>();
+        pricing.forEach((serviceId, prices) -> {
+            Map<String, Double> row = new HashMap<>();
+            prices.forEach((key, value) -> row.put(key, value * factor));
+            scaled.put(serviceId, row);
+        });
+        return scaled;
+    }
+}
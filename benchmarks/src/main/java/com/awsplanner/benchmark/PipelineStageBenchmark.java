@@ -0,0 +1,80 @@
+package com.awsplanner.benchmark;
+
+import com.awsplanner.model.*;
+import com.awsplanner.service.ProjectionEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each pipeline stage measured on its own, fed with precomputed inputs
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineStageBenchmark {
+    
+    @Benchmark
+    public List<AwsService> filterServices(PipelineState state) {
+        return state.decisionEngine.filterServices(state.requirement);
+    }
+    
+    @Benchmark
+    public List<ServiceScore> scoreServices(PipelineState state) {
+        return state.decisionEngine.scoreServices(state.eligible, state.requirement);
+    }
+    
+    /**
+     * Includes copying the scored list, since ranking sorts it in place
+     */
+    @Benchmark
+    public List<AwsService> rankAndSelect(PipelineState state) {
+        return state.decisionEngine.rankAndSelect(new ArrayList<>(state.scored));
+    }
+    
+    @Benchmark
+    public List<AwsService> fitToBudget(PipelineState state) {
+        return state.architectureOptimizer.fitToBudget(state.selected, state.requirement);
+    }
+    
+    @Benchmark
+    public double calculateMonthlyCost(PipelineState state) {
+        return state.costEstimation.calculateMonthlyCost(state.selected, state.requirement);
+    }
+    
+    /**
+     * The selected architecture priced in every bundled region in one pass
+     */
+    @Benchmark
+    public double[] regionalMonthlyCosts(PipelineState state) {
+        return state.regionalPricing.monthlyCosts(state.selectedOrdinals, state.usage);
+    }
+    
+    /**
+     * The selected architecture priced over a 60-month projection
+     */
+    @Benchmark
+    public double[][] projectedServiceCosts(PipelineState state) {
+        return ProjectionEngine.serviceCosts(state.pricingVectors, state.selectedOrdinals, state.projectionUsage);
+    }
+    
+    @Benchmark
+    public List<RecommendedService> createRecommendedServices(PipelineState state) {
+        return state.costEstimation.createRecommendedServices(state.selected, state.requirement);
+    }
+    
+    @Benchmark
+    public List<AlternativeArchitecture> suggestAlternatives(PipelineState state) {
+        return state.costEstimation.suggestAlternatives(state.selected, state.requirement);
+    }
+    
+    @Benchmark
+    public List<String> generateUpgrades(PipelineState state) {
+        return state.costEstimation.generateUpgrades(
+            state.recommendation.getTotalCost(), state.requirement.getMonthlyBudget(), state.requirement);
+    }
+}
@@ -0,0 +1,137 @@
+package com.awsplanner.benchmark;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+import com.awsplanner.model.Recommendation;
+import com.awsplanner.model.ServiceScore;
+import com.awsplanner.model.UserRequirement;
+import com.awsplanner.metrics.PipelineMetrics;
+import com.awsplanner.repository.CatalogSnapshot;
+import com.awsplanner.repository.PricingVectors;
+import com.awsplanner.repository.RegionalPricing;
+import com.awsplanner.repository.ServiceKnowledgeBase;
+import com.awsplanner.service.ArchitectureOptimizer;
+import com.awsplanner.service.CostEstimationService;
+import com.awsplanner.service.DecisionEngineService;
+import com.awsplanner.service.ProjectionEngine;
+import com.awsplanner.service.RecommendationService;
+import com.awsplanner.service.RequirementService;
+import com.awsplanner.service.WhatIfService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pipeline services wired against a synthetic catalog, with the intermediate
+ * results of one requirement precomputed so each stage can be measured alone
+ */
+@State(Scope.Benchmark)
+public class PipelineState {
+    
+    @Param({"20", "1000", "100000"})
+    public int catalogSize;
+    
+    public AnnotationConfigApplicationContext context;
+    public DecisionEngineService decisionEngine;
+    public ArchitectureOptimizer architectureOptimizer;
+    public CostEstimationService costEstimation;
+    public RecommendationService recommendationService;
+    public WhatIfService whatIfService;
+    public ObjectMapper objectMapper;
+    
+    public UserRequirement requirement;
+    public List<AwsService> eligible;
+    public List<ServiceScore> scored;
+    public List<AwsService> selected;
+    public Recommendation recommendation;
+    public RegionalPricing regionalPricing;
+    public int[] selectedOrdinals;
+    public double[] usage;
+    public PricingVectors pricingVectors;
+    public double[][] projectionUsage;
+    public String whatIfSession;
+    public UserRequirement[] storageChanges;
+    public UserRequirement[] budgetChanges;
+    public int whatIfStep;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        context = new AnnotationConfigApplicationContext(
+            ServiceKnowledgeBase.class,
+            RequirementService.class,
+            DecisionEngineService.class,
+            ArchitectureOptimizer.class,
+            CostEstimationService.class,
+            RecommendationService.class,
+            WhatIfService.class,
+            PipelineMetrics.class
+        );
+        
+        SyntheticCatalog catalog = SyntheticCatalog.generate(catalogSize, 42L);
+        context.getBean(ServiceKnowledgeBase.class).updateCatalog(catalog.getServices(), catalog.getPricing());
+        
+        decisionEngine = context.getBean(DecisionEngineService.class);
+        architectureOptimizer = context.getBean(ArchitectureOptimizer.class);
+        costEstimation = context.getBean(CostEstimationService.class);
+        recommendationService = context.getBean(RecommendationService.class);
+        whatIfService = context.getBean(WhatIfService.class);
+        
+        // Same serialization settings as the application (indent-output=true)
+        objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        
+        requirement = new UserRequirement(
+            ApplicationType.FULL_STACK, Level.MEDIUM, 250, true, Level.MEDIUM, 150.0);
+        
+        decisionEngine.getDecisionTable(); // Build outside the measurement
+        eligible = decisionEngine.filterServices(requirement);
+        scored = decisionEngine.scoreServices(eligible, requirement);
+        selected = decisionEngine.getRecommendedServices(requirement);
+        recommendation = recommendationService.recommend(requirement);
+        
+        ServiceKnowledgeBase knowledgeBase = context.getBean(ServiceKnowledgeBase.class);
+        CatalogSnapshot snapshot = knowledgeBase.getSnapshot();
+        regionalPricing = RegionalPricing.compile(snapshot, knowledgeBase.readRegions());
+        selectedOrdinals = selected.stream().mapToInt(service -> snapshot.ordinalOf(service.getId())).toArray();
+        usage = costEstimation.usageVector(requirement);
+        pricingVectors = snapshot.getPricingVectors();
+        
+        // Five years of 5% monthly traffic growth and 2% monthly storage growth
+        double[] factors = new double[60];
+        Arrays.fill(factors, 1.0);
+        projectionUsage = ProjectionEngine.usage(
+            ProjectionEngine.grow(usage[PricingVectors.MILLION_REQUESTS] * 1000000.0, 0.05, factors, new double[60]),
+            ProjectionEngine.grow(requirement.getStorageGB(), 0.02, factors, new double[60]));
+        
+        // Single-field what-if changes, alternating between two values; the budgets
+        // lie in different budget bands
+        whatIfSession = whatIfService.create(requirement).getSessionId();
+        storageChanges = new UserRequirement[]{new UserRequirement(), new UserRequirement()};
+        storageChanges[0].setStorageGB(500);
+        storageChanges[1].setStorageGB(requirement.getStorageGB());
+        budgetChanges = new UserRequirement[]{new UserRequirement(), new UserRequirement()};
+        budgetChanges[0].setMonthlyBudget(250.0);
+        budgetChanges[1].setMonthlyBudget(requirement.getMonthlyBudget());
+    }
+    
+    /**
+     * The next of two alternating what-if changes
+     */
+    public UserRequirement nextChange(UserRequirement[] changes) {
+        return changes[whatIfStep++ & 1];
+    }
+    
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
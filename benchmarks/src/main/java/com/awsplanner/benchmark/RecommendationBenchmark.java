@@ -0,0 +1,60 @@
+package com.awsplanner.benchmark;
+
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Recommendation;
+import com.awsplanner.model.WhatIfResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of a single recommendation request, without HTTP
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationBenchmark {
+    
+    /**
+     * Full pipeline as served by POST /api/recommend
+     */
+    @Benchmark
+    public Recommendation recommend(PipelineState state) {
+        return state.recommendationService.recommend(state.requirement);
+    }
+    
+    /**
+     * What-if session change of storage: reprices storage-priced services only
+     */
+    @Benchmark
+    public WhatIfResult whatIfStorageChange(PipelineState state) {
+        return state.whatIfService.update(state.whatIfSession, state.nextChange(state.storageChanges));
+    }
+    
+    /**
+     * What-if session change of budget across a budget band: rescores cost match and ranks
+     */
+    @Benchmark
+    public WhatIfResult whatIfBudgetChange(PipelineState state) {
+        return state.whatIfService.update(state.whatIfSession, state.nextChange(state.budgetChanges));
+    }
+    
+    /**
+     * Service selection resolved from the precompiled decision table
+     */
+    @Benchmark
+    public List<AwsService> selectFromDecisionTable(PipelineState state) {
+        return state.decisionEngine.getRecommendedServices(state.requirement);
+    }
+    
+    /**
+     * Service selection through the live filter, score and rank pipeline
+     */
+    @Benchmark
+    public List<AwsService> selectLive(PipelineState state) {
+        return state.decisionEngine.selectServices(state.requirement);
+    }
+}
@@ -0,0 +1,21 @@
+package com.awsplanner.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a Recommendation response body
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Benchmark
+    public byte[] serializeRecommendation(PipelineState state) throws Exception {
+        return state.objectMapper.writeValueAsBytes(state.recommendation);
+    }
+}
@@ -0,0 +1,84 @@
+package com.awsplanner.benchmark;
+
+import com.awsplanner.model.ApplicationType;
+import com.awsplanner.model.AwsService;
+import com.awsplanner.model.Level;
+
+import java.util.*;
+
+/**
+ * Deterministic synthetic service catalogs of arbitrary size.
+ * The same size and seed always produce the same catalog, so results are
+ * comparable across commits.
+ */
+public final class SyntheticCatalog {
+    
+    private static final String[] CATEGORIES = {
+        "compute", "storage", "database", "networking", "messaging", "monitoring", "security"
+    };
+    private static final String[] PRICING_KEYS = {
+        "perTrafficUnit", "perMillionRequests", "perGB", "perStorageGB", "perGBStorage", "perGBSecond"
+    };
+    
+    private final List<AwsService> services;
+    private final Map<String, Map<String, Double>> pricing;
+    
+    private SyntheticCatalog(List<AwsService> services, Map<String, Map<String, Double>> pricing) {
+        this.services = services;
+        this.pricing = pricing;
+    }
+    
+    public static SyntheticCatalog generate(int size, long seed) {
+        Random random = new Random(seed);
+        Level[] levels = Level.values();
+        ApplicationType[] types = ApplicationType.values();
+        
+        List<AwsService> services = new ArrayList<>(size);
+        Map<String, Map<String, Double>> pricing = new HashMap<>();
+        
+        for (int i = 0; i < size; i++) {
+            String id = "svc-" + i;
+            
+            List<ApplicationType> useCases = new ArrayList<>();
+            for (ApplicationType type : types) {
+                if (random.nextInt(3) == 0) {
+                    useCases.add(type);
+                }
+            }
+            if (useCases.isEmpty()) {
+                useCases.add(types[random.nextInt(types.length)]);
+            }
+            
+            services.add(new AwsService(
+                id,
+                "Synthetic Service " + i,
+                CATEGORIES[random.nextInt(CATEGORIES.length)],
+                levels[random.nextInt(levels.length)],
+                levels[random.nextInt(levels.length)],
+                levels[random.nextInt(levels.length)],
+                useCases,
+                "Synthetic benchmark service",
+                i < 2 // A couple of mandatory services, like IAM and CloudWatch
+            ));
+            
+            Map<String, Double> prices = new HashMap<>();
+            prices.put("baseCost", Math.floor(random.nextDouble() * 50));
+            for (String key : PRICING_KEYS) {
+                if (random.nextInt(3) == 0) {
+                    prices.put(key, random.nextDouble());
+                }
+            }
+            pricing.put(id, prices);
+        }
+        
+        return new SyntheticCatalog(services, pricing);
+    }
+    
+    public List<AwsService> getServices() {
+        return services;
+    }
+    
+    public Map<String, Map<String, Double>> getPricing() {
+        return pricing;
+    }
+}
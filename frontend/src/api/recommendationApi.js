@@ -17,6 +17,45 @@ export const getRecommendation = async (requirements) => {
     return response.json();
 };
 
+// What-if session: send the full requirements once, then only the fields that change
+export const createWhatIfSession = async (requirements) => {
+    const response = await fetch(`${API_BASE_URL}/recommend/sessions`, {
+        method: 'POST',
+        headers: {
+            'Content-Type': 'application/json',
+        },
+        body: JSON.stringify(requirements),
+    });
+
+    if (!response.ok) {
+        const error = await response.json();
+        throw new Error(error.error || 'Failed to start what-if session');
+    }
+
+    return response.json();
+};
+
+export const updateWhatIfSession = async (sessionId, changes) => {
+    const response = await fetch(`${API_BASE_URL}/recommend/sessions/${sessionId}`, {
+        method: 'PATCH',
+        headers: {
+            'Content-Type': 'application/json',
+        },
+        body: JSON.stringify(changes),
+    });
+
+    if (!response.ok) {
+        const error = await response.json();
+        throw new Error(error.error || 'Failed to update what-if session');
+    }
+
+    return response.json();
+};
+
+export const deleteWhatIfSession = async (sessionId) => {
+    await fetch(`${API_BASE_URL}/recommend/sessions/${sessionId}`, { method: 'DELETE' });
+};
+
 export const getAllServices = async () => {
     const response = await fetch(`${API_BASE_URL}/services`);
 
@@ -0,0 +1,59 @@
+package com.awsplanner.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Result of one load test run, written as JSON next to the histogram log
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyReport {
+    
+    private String label;
+    private String target;
+    private double targetRate; // Requests per second
+    private double durationSeconds;
+    private long sent;
+    private long completed;
+    private double throughput; // Completed requests per second
+    private Map<String, Long> statuses; // 2xx, 429, 503, other, error
+    private Percentiles responseTime; // From the scheduled send time
+    private Percentiles serviceTime; // From the actual send time
+    
+    /**
+     * Latency summary in milliseconds
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Percentiles {
+        
+        private long count;
+        private double mean;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double max;
+        
+        public static Percentiles of(Histogram histogram) {
+            return new Percentiles(histogram.getTotalCount(),
+                millis(histogram.getMean()),
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(90.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        }
+        
+        private static double millis(double nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.awsplanner.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line entry point.
+ *
+ * {@code run} drives one instance (an URL, or one or more backend jars started
+ * locally in turn) at a fixed rate and writes a JSON report and an HdrHistogram
+ * log per run; {@code compare} prints saved reports side by side.
+ */
+public final class LoadTest {
+    
+    private static final String USAGE = String.join("\n",
+        "Usage:",
+        "  java -jar loadtest.jar run [options]",
+        "  java -jar loadtest.jar compare <report.json> <report.json> [...]",
+        "",
+        "Run options (defaults in brackets):",
+        "  --url=<base url>           instance to load [http://localhost:8080]",
+        "  --jar=<backend jar>        start this build on a free port instead; repeat to compare builds",
+        "  --label=<name>[,<name>]    report name per run [jar file name, or run]",
+        "  --server-arg=<arg>         extra argument for started instances, repeatable",
+        "  --jvm-arg=<arg>            extra JVM option for started instances, repeatable",
+        "  --endpoint=<path>          [/api/recommend]",
+        "  --rate=<req/s>             arrival rate [100]",
+        "  --arrivals=uniform|poisson spacing of arrivals [uniform]",
+        "  --duration=<s>             measured seconds [60]",
+        "  --warmup=<s>               discarded seconds before measuring [15]",
+        "  --mix=<file>               weighted requirement payloads [bundled default-mix.json]",
+        "  --clients=<n>              distinct client addresses [1]",
+        "  --client-header=<name>     header carrying the client address [X-Forwarded-For]",
+        "  --max-in-flight=<n>        outstanding requests before sending waits [1000]",
+        "  --timeout=<s>              per request [10]",
+        "  --seed=<n>                 payload and arrival randomness [42]",
+        "  --out=<dir>                report directory [results]");
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        try {
+            switch (args[0]) {
+                case "run" -> run(Options.parse(args), objectMapper, System.out);
+                case "compare" -> compare(args, objectMapper, System.out);
+                default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static void run(Options options, ObjectMapper objectMapper, PrintStream out) throws Exception {
+        String mix = options.get("mix", null);
+        RequirementMix requirements = RequirementMix.load(mix == null ? null : Path.of(mix), objectMapper);
+        Path outDir = Path.of(options.get("out", "results"));
+        Files.createDirectories(outDir);
+        
+        List<String> jars = options.all("jar");
+        List<String> labels = labels(options, jars);
+        List<LatencyReport> reports = new ArrayList<>();
+        if (jars.isEmpty()) {
+            URI baseUri = URI.create(options.get("url", "http://localhost:8080"));
+            reports.add(runOnce(options, requirements, baseUri, labels.get(0), outDir, objectMapper, out));
+        } else {
+            List<String> serverArgs = new ArrayList<>(options.all("server-arg"));
+            if (options.getInt("clients", 1) > 1) {
+                serverArgs.add(0, "--admission.client-header=" + options.get("client-header", "X-Forwarded-For"));
+            }
+            for (int i = 0; i < jars.size(); i++) {
+                out.printf("%nStarting %s (%s)%n", jars.get(i), labels.get(i));
+                try (LocalInstance instance = LocalInstance.start(Path.of(jars.get(i)), options.all("jvm-arg"),
+                        serverArgs, outDir.resolve(labels.get(i) + "-server.log"))) {
+                    reports.add(runOnce(options, requirements, instance.getBaseUri(), labels.get(i), outDir,
+                        objectMapper, out));
+                }
+            }
+        }
+        
+        if (reports.size() > 1) {
+            out.println();
+            ReportComparison.print(reports, out);
+        }
+    }
+    
+    private static LatencyReport runOnce(Options options, RequirementMix mix, URI baseUri, String label,
+                                         Path outDir, ObjectMapper objectMapper, PrintStream out)
+            throws IOException, InterruptedException {
+        String arrivals = options.get("arrivals", "uniform");
+        if (!arrivals.equals("uniform") && !arrivals.equals("poisson")) {
+            throw new IllegalArgumentException("--arrivals must be uniform or poisson");
+        }
+        OpenLoopDriver driver = new OpenLoopDriver(
+            baseUri.resolve(options.get("endpoint", "/api/recommend")),
+            mix,
+            options.getDouble("rate", 100),
+            arrivals.equals("poisson"),
+            options.getInt("clients", 1),
+            options.get("client-header", "X-Forwarded-For"),
+            Duration.ofSeconds(options.getInt("timeout", 10)),
+            options.getInt("max-in-flight", 1000),
+            options.getInt("seed", 42));
+        
+        LatencyReport report;
+        try (PrintStream histogramLog = new PrintStream(outDir.resolve(label + ".hlog").toFile())) {
+            report = driver.run(label,
+                Duration.ofSeconds(options.getInt("warmup", 15)),
+                Duration.ofSeconds(options.getInt("duration", 60)),
+                new HistogramLogWriter(histogramLog), out);
+        }
+        Path reportFile = outDir.resolve(label + ".json");
+        objectMapper.writeValue(reportFile.toFile(), report);
+        
+        out.println();
+        ReportComparison.print(List.of(report), out);
+        out.printf("Report written to %s%n", reportFile);
+        return report;
+    }
+    
+    private static void compare(String[] args, ObjectMapper objectMapper, PrintStream out) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("compare needs at least two reports");
+        }
+        List<LatencyReport> reports = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            reports.add(objectMapper.readValue(Path.of(args[i]).toFile(), LatencyReport.class));
+        }
+        ReportComparison.print(reports, out);
+    }
+    
+    /**
+     * One distinct label per run: given ones first, then jar file names
+     */
+    private static List<String> labels(Options options, List<String> jars) {
+        String given = options.get("label", null);
+        List<String> labels = new ArrayList<>();
+        if (given != null) {
+            labels.addAll(List.of(given.split(",")));
+        }
+        int runs = Math.max(1, jars.size());
+        Set<String> seen = new HashSet<>(labels);
+        for (int i = labels.size(); i < runs; i++) {
+            String name = jars.isEmpty() ? "run" : Path.of(jars.get(i)).getFileName().toString().replace(".jar", "");
+            String label = name;
+            for (int n = 2; !seen.add(label); n++) {
+                label = name + "-" + n;
+            }
+            labels.add(label);
+        }
+        return labels;
+    }
+    
+    /**
+     * --name=value arguments; names may repeat
+     */
+    private static final class Options {
+        
+        private final Map<String, List<String>> values = new LinkedHashMap<>();
+        
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 1; i < args.length; i++) {
+                int eq = args[i].indexOf('=');
+                if (!args[i].startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + args[i]);
+                }
+                options.values.computeIfAbsent(args[i].substring(2, eq), key -> new ArrayList<>())
+                    .add(args[i].substring(eq + 1));
+            }
+            return options;
+        }
+        
+        String get(String name, String defaultValue) {
+            List<String> all = values.get(name);
+            return all == null ? defaultValue : all.get(all.size() - 1);
+        }
+        
+        List<String> all(String name) {
+            return values.getOrDefault(name, List.of());
+        }
+        
+        int getInt(String name, int defaultValue) {
+            return (int) getDouble(name, defaultValue);
+        }
+        
+        double getDouble(String name, double defaultValue) {
+            String value = get(name, null);
+            try {
+                return value == null ? defaultValue : Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--" + name + " must be a number");
+            }
+        }
+    }
+}
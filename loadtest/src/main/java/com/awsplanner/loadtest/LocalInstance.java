@@ -0,0 +1,106 @@
+package com.awsplanner.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A backend jar started on a free local port for the duration of a run
+ */
+public final class LocalInstance implements AutoCloseable {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    
+    private final Process process;
+    private final URI baseUri;
+    
+    private LocalInstance(Process process, URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+    
+    /**
+     * Start a backend jar and wait until /api/health answers
+     *
+     * @param serverArgs extra application arguments, e.g. --admission.enabled=false
+     * @param logFile    where the server's output goes
+     */
+    public static LocalInstance start(Path jar, List<String> jvmArgs, List<String> serverArgs, Path logFile)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        Path feedbackDirectory = Files.createTempDirectory("loadtest-feedback");
+        
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--feedback.directory=" + feedbackDirectory);
+        command.addAll(serverArgs);
+        
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile.toFile())
+            .start();
+        LocalInstance instance = new LocalInstance(process, URI.create("http://localhost:" + port));
+        try {
+            instance.awaitHealthy();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            instance.close();
+            throw e;
+        }
+        return instance;
+    }
+    
+    public URI getBaseUri() {
+        return baseUri;
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private void awaitHealthy() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(baseUri.resolve("/api/health"))
+            .timeout(Duration.ofSeconds(2))
+            .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                throw new IOException("Server exited during startup with status " + process.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IOException("Server did not become healthy within " + STARTUP_TIMEOUT.toSeconds() + "s");
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
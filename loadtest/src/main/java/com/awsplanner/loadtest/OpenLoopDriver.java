@@ -0,0 +1,257 @@
+package com.awsplanner.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed arrival rate, independent of how fast responses come back.
+ *
+ * Request i is scheduled at {@code start + i / rate} (or at Poisson-distributed
+ * times with the same mean) and its response time is measured from that scheduled
+ * time, not from when it was actually sent. A stalled server therefore shows up
+ * as latency for every request that should have been sent during the stall, which
+ * corrects for coordinated omission; the time from the actual send is recorded
+ * separately as service time. Latencies go to HdrHistogram recorders, so
+ * completion threads record without locks.
+ */
+public final class OpenLoopDriver {
+    
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    
+    private final HttpClient client;
+    private final URI uri;
+    private final RequirementMix mix;
+    private final double rate;
+    private final boolean poisson;
+    private final int clients;
+    private final String clientHeader;
+    private final Duration timeout;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final SplittableRandom random;
+    
+    private final Recorder responseRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder serviceRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder other = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    
+    /**
+     * @param clients      distinct client addresses to spread requests over, sent in
+     *                     clientHeader so per-client rate limits see a realistic population
+     * @param maxInFlight  outstanding requests before sending waits; waiting still
+     *                     counts towards response time
+     */
+    public OpenLoopDriver(URI uri, RequirementMix mix, double rate, boolean poisson, int clients,
+                          String clientHeader, Duration timeout, int maxInFlight, long seed) {
+        if (rate <= 0 || clients < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Rate, clients and max in flight must be positive");
+        }
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build();
+        this.uri = uri;
+        this.mix = mix;
+        this.rate = rate;
+        this.poisson = poisson;
+        this.clients = clients;
+        this.clientHeader = clientHeader;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.random = new SplittableRandom(seed);
+    }
+    
+    /**
+     * Run at the configured rate for warmup (discarded) and then for duration,
+     * printing one line per second and logging interval histograms to log
+     */
+    public LatencyReport run(String label, Duration warmup, Duration duration, HistogramLogWriter log,
+                             PrintStream out) throws InterruptedException {
+        if (!warmup.isZero()) {
+            out.printf("Warming up for %ds at %.0f req/s%n", warmup.toSeconds(), rate);
+            drive(System.nanoTime(), warmup.toNanos(), null);
+            awaitCompletion();
+            reset();
+        }
+        
+        Histogram response = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        Histogram service = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        long start = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        log.outputLogFormatVersion();
+        log.outputStartTime(startMillis);
+        log.setBaseTime(startMillis);
+        log.outputLegend();
+        
+        out.printf("Running for %ds at %.0f req/s%n", duration.toSeconds(), rate);
+        out.printf("%6s %8s %10s %10s %10s %10s%n", "sec", "req/s", "p50 ms", "p99 ms", "max ms", "non-2xx");
+        long sent = drive(start, duration.toNanos(), new IntervalReporter(response, service, log, out));
+        awaitCompletion();
+        collect(response, service, log);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        statuses.put("2xx", ok.sum());
+        statuses.put("429", throttled.sum());
+        statuses.put("503", shed.sum());
+        statuses.put("other", other.sum());
+        statuses.put("error", errors.sum());
+        long completed = response.getTotalCount();
+        return new LatencyReport(label, uri.toString(), rate, duration.toSeconds(), sent, completed,
+            Math.round(completed / seconds * 10) / 10.0, statuses,
+            LatencyReport.Percentiles.of(response), LatencyReport.Percentiles.of(service));
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    /**
+     * Dispatch loop: send each request at its scheduled time; returns requests sent
+     */
+    private long drive(long start, long lengthNanos, IntervalReporter reporter)
+            throws InterruptedException {
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        double offset = 0;
+        long sent = 0;
+        while (offset < lengthNanos) {
+            long scheduled = start + (long) offset;
+            long now;
+            while ((now = System.nanoTime()) - scheduled < 0) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            if (reporter != null) {
+                reporter.tick(now);
+            }
+            inFlight.acquire();
+            send(scheduled);
+            sent++;
+            offset += poisson ? -Math.log(1.0 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+        }
+        return sent;
+    }
+    
+    private void send(long scheduled) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(mix.pick(random)));
+        if (clients > 1) {
+            int id = random.nextInt(clients);
+            request.header(clientHeader, "10." + (id >>> 16 & 0xFF) + '.' + (id >>> 8 & 0xFF) + '.' + (id & 0xFF));
+        }
+        
+        long sentAt = System.nanoTime();
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, failure) -> {
+                long now = System.nanoTime();
+                inFlight.release();
+                if (failure != null) {
+                    errors.increment(); // Connection failures and timeouts have no latency to report
+                    return;
+                }
+                responseRecorder.recordValue(Math.min(now - scheduled, HIGHEST_TRACKABLE_NANOS));
+                serviceRecorder.recordValue(Math.min(now - sentAt, HIGHEST_TRACKABLE_NANOS));
+                int status = response.statusCode();
+                if (status / 100 == 2) {
+                    ok.increment();
+                } else if (status == 429) {
+                    throttled.increment();
+                } else if (status == 503) {
+                    shed.increment();
+                } else {
+                    other.increment();
+                }
+            });
+    }
+    
+    /**
+     * Wait for every outstanding request to complete; the request timeout bounds the wait
+     */
+    private void awaitCompletion() throws InterruptedException {
+        if (inFlight.tryAcquire(maxInFlight, timeout.toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+    }
+    
+    private void reset() {
+        responseRecorder.reset();
+        serviceRecorder.reset();
+        ok.reset();
+        throttled.reset();
+        shed.reset();
+        other.reset();
+        errors.reset();
+    }
+    
+    /**
+     * Move the latencies recorded since the last call into the totals and the log;
+     * returns the response times of the interval
+     */
+    private Histogram collect(Histogram response, Histogram service, HistogramLogWriter log) {
+        Histogram responseInterval = responseRecorder.getIntervalHistogram();
+        Histogram serviceInterval = serviceRecorder.getIntervalHistogram();
+        responseInterval.setTag("response");
+        serviceInterval.setTag("service");
+        log.outputIntervalHistogram(responseInterval);
+        log.outputIntervalHistogram(serviceInterval);
+        response.add(responseInterval);
+        service.add(serviceInterval);
+        return responseInterval;
+    }
+    
+    /**
+     * Per-second progress from the dispatch thread
+     */
+    private final class IntervalReporter {
+        
+        private final Histogram response;
+        private final Histogram service;
+        private final HistogramLogWriter log;
+        private final PrintStream out;
+        private final long start;
+        private long nextReport;
+        private long nonOkReported;
+        
+        IntervalReporter(Histogram response, Histogram service, HistogramLogWriter log, PrintStream out) {
+            this.response = response;
+            this.service = service;
+            this.log = log;
+            this.out = out;
+            this.start = System.nanoTime();
+            this.nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        }
+        
+        void tick(long now) {
+            if (now - nextReport < 0) {
+                return;
+            }
+            Histogram interval = collect(response, service, log);
+            long nonOk = throttled.sum() + shed.sum() + other.sum() + errors.sum();
+            out.printf("%6d %8d %10.2f %10.2f %10.2f %10d%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - start), interval.getTotalCount(),
+                interval.getValueAtPercentile(50.0) / 1e6, interval.getValueAtPercentile(99.0) / 1e6,
+                interval.getMaxValue() / 1e6, nonOk - nonOkReported);
+            nonOkReported = nonOk;
+            nextReport += TimeUnit.SECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.awsplanner.loadtest;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Side-by-side table of load test reports, each column compared with the first
+ */
+public final class ReportComparison {
+    
+    private ReportComparison() {
+    }
+    
+    public static void print(List<LatencyReport> reports, PrintStream out) {
+        StringBuilder header = new StringBuilder(String.format("%-22s", "metric"));
+        for (int i = 0; i < reports.size(); i++) {
+            header.append(String.format(" %14s", truncate(reports.get(i).getLabel())));
+            if (i > 0) {
+                header.append(String.format(" %8s", "delta"));
+            }
+        }
+        out.println(header);
+        
+        row(out, reports, "throughput req/s", LatencyReport::getThroughput);
+        row(out, reports, "2xx", report -> status(report, "2xx"));
+        row(out, reports, "429", report -> status(report, "429"));
+        row(out, reports, "503", report -> status(report, "503"));
+        row(out, reports, "errors", report -> status(report, "other") + status(report, "error"));
+        latencyRows(out, reports, "response", LatencyReport::getResponseTime);
+        latencyRows(out, reports, "service", LatencyReport::getServiceTime);
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static void latencyRows(PrintStream out, List<LatencyReport> reports, String name,
+                                    Function<LatencyReport, LatencyReport.Percentiles> latency) {
+        row(out, reports, name + " p50 ms", report -> latency.apply(report).getP50());
+        row(out, reports, name + " p90 ms", report -> latency.apply(report).getP90());
+        row(out, reports, name + " p99 ms", report -> latency.apply(report).getP99());
+        row(out, reports, name + " p99.9 ms", report -> latency.apply(report).getP999());
+        row(out, reports, name + " max ms", report -> latency.apply(report).getMax());
+    }
+    
+    private static void row(PrintStream out, List<LatencyReport> reports, String metric,
+                            Function<LatencyReport, Double> value) {
+        StringBuilder line = new StringBuilder(String.format("%-22s", metric));
+        double base = value.apply(reports.get(0));
+        for (int i = 0; i < reports.size(); i++) {
+            double current = value.apply(reports.get(i));
+            line.append(String.format(" %14.2f", current));
+            if (i > 0) {
+                line.append(base == 0 ? String.format(" %8s", current == 0 ? "0%" : "n/a")
+                                      : String.format(" %+7.1f%%", (current - base) / base * 100));
+            }
+        }
+        out.println(line);
+    }
+    
+    private static double status(LatencyReport report, String status) {
+        return report.getStatuses() == null ? 0 : report.getStatuses().getOrDefault(status, 0L);
+    }
+    
+    private static String truncate(String label) {
+        return label.length() <= 14 ? label : label.substring(0, 13) + "~";
+    }
+}
@@ -0,0 +1,87 @@
+package com.awsplanner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted distribution of requirement payloads.
+ *
+ * A mix file lists request bodies with relative weights:
+ * {@code {"requirements": [{"weight": 25, "requirement": {...}}, ...]}}.
+ * Bodies are serialized once up front; sampling is a binary search over the
+ * cumulative weights, so picking a payload costs nothing on the send path.
+ */
+public final class RequirementMix {
+    
+    private static final String DEFAULT_MIX = "/default-mix.json";
+    
+    private final byte[][] payloads;
+    private final double[] cumulativeWeights;
+    
+    private RequirementMix(byte[][] payloads, double[] cumulativeWeights) {
+        this.payloads = payloads;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+    
+    /**
+     * Load a mix file, or the bundled default mix if path is null
+     */
+    public static RequirementMix load(Path path, ObjectMapper objectMapper) throws IOException {
+        if (path != null) {
+            return parse(objectMapper.readTree(path.toFile()), objectMapper);
+        }
+        try (InputStream in = RequirementMix.class.getResourceAsStream(DEFAULT_MIX)) {
+            return parse(objectMapper.readTree(in), objectMapper);
+        }
+    }
+    
+    /**
+     * Payload for a uniform random draw in [0, 1)
+     */
+    public byte[] pick(double draw) {
+        double target = draw * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return payloads[Math.min(index, payloads.length - 1)];
+    }
+    
+    public byte[] pick(SplittableRandom random) {
+        return pick(random.nextDouble());
+    }
+    
+    public int size() {
+        return payloads.length;
+    }
+    
+    // ==================== Helper Methods ====================
+    
+    private static RequirementMix parse(JsonNode root, ObjectMapper objectMapper) throws IOException {
+        JsonNode entries = root.path("requirements");
+        if (!entries.isArray() || entries.isEmpty()) {
+            throw new IllegalArgumentException("Mix must contain a non-empty \"requirements\" array");
+        }
+        
+        List<byte[]> payloads = new ArrayList<>();
+        double[] cumulative = new double[entries.size()];
+        double total = 0;
+        for (JsonNode entry : entries) {
+            double weight = entry.path("weight").asDouble(1.0);
+            JsonNode requirement = entry.get("requirement");
+            if (weight <= 0 || requirement == null || !requirement.isObject()) {
+                throw new IllegalArgumentException("Each mix entry needs a positive weight and a requirement object");
+            }
+            total += weight;
+            cumulative[payloads.size()] = total;
+            payloads.add(objectMapper.writeValueAsBytes(requirement));
+        }
+        return new RequirementMix(payloads.toArray(new byte[0][]), cumulative);
+    }
+}